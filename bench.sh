@@ -0,0 +1,10 @@
+#!/bin/sh
+# Compiles the sources and runs the core benchmarks, an optional argument filters them by name
+set -e
+
+cd "$(dirname "$0")"
+rm -rf out/bench
+javac -encoding UTF-8 -d out/bench $(find src -name '*.java')
+# javac does not copy resources, the service files of the strategies go along with the classes
+cp -r src/META-INF out/bench/
+java -Xms1g -Xmx1g -cp out/bench battleship.bench.CoreBenchmarks "$@"
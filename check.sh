@@ -0,0 +1,9 @@
+#!/bin/sh
+# Compiles the sources and plays the loopback check of the server, which fails on a protocol error or a
+# throughput below its floor, the arguments go to the check
+set -e
+
+cd "$(dirname "$0")"
+rm -rf out/check
+javac -encoding UTF-8 -d out/check $(find src -name '*.java')
+java -cp out/check battleship.net.LoopbackCheck "$@"
@@ -0,0 +1,194 @@
+package battleship;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assets loads the art of the models once and keeps each one as the bytes that are written to the screen,
+ * so showing a model to every session costs one write and no file access. A model is looked up on the
+ * models directory, ./models or the one of the battleship.models property, and then on the classpath
+ *
+ * @author Diógenes Dietrich de Morais
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class Assets {
+    /**
+     * SHIP_MODEL is a constant which holds the name of model art of a ship
+     *
+     * @since 1.1
+     * @access public
+     *
+     * */
+    public static final String SHIP_MODEL = "ShipModel.txt";
+
+    /**
+     * DIRECTORY_PROPERTY is a constant which holds the system property that changes the models directory
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private static final String DIRECTORY_PROPERTY = "battleship.models";
+
+    /**
+     * MISSING is the bytes cached for a model which could not be found, so it is not looked up again
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private static final byte[] MISSING = new byte[0];
+
+    /**
+     * MODELS holds the bytes of each loaded model by name
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private static final ConcurrentHashMap<String, byte[]> MODELS = new ConcurrentHashMap<>();
+
+    /**
+     * directory is where the models are looked up before the classpath
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private static volatile Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY, "models"));
+
+    /**
+     * Assets is private because the class only has static methods
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private Assets() {}
+
+    /**
+     * setDirectory changes where the models are looked up and forgets the loaded ones
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param path is the models directory
+     * */
+    public static void setDirectory(final Path path) {
+        directory = path;
+        MODELS.clear();
+    }
+
+    /**
+     * preload loads the given models, it is meant to be called at startup so no session waits for them
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param names are the file names of the models
+     * */
+    public static void preload(final String... names) {
+        for(final String name : names) model(name);
+    }
+
+    /**
+     * write writes a model with a single write, followed by a blank line
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param name is the file name of the model
+     * @param out is where the model is written
+     *
+     * @return false if the model could not be found and nothing was written
+     * */
+    public static boolean write(final String name, final PrintStream out) {
+        final byte[] model = model(name);
+
+        if(model == MISSING) return false;
+
+        out.write(model, 0, model.length);
+        out.flush();
+
+        return true;
+    }
+
+    /**
+     * model returns the bytes of a model, loading it the first time it is asked for
+     *
+     * @since 1.1
+     * @access private
+     *
+     * @param name is the file name of the model
+     *
+     * @return the bytes of the model or MISSING
+     * */
+    private static byte[] model(final String name) {
+        return MODELS.computeIfAbsent(name, Assets::load);
+    }
+
+    /**
+     * load reads a model from the models directory or from the classpath, turning its line breaks into the
+     * ones of the platform like the console output does
+     *
+     * @since 1.1
+     * @access private
+     *
+     * @param name is the file name of the model
+     *
+     * @return the bytes of the model or MISSING
+     * */
+    private static byte[] load(final String name) {
+        byte[] raw = null;
+
+        try {
+            final Path path = directory.resolve(name);
+
+            if(Files.isRegularFile(path)) raw = Files.readAllBytes(path);
+
+            if(raw == null) {
+                try(InputStream in = Assets.class.getResourceAsStream("/models/" + name)) {
+                    if(in != null) raw = in.readAllBytes();
+                }
+            }
+
+        } catch (IOException e) {
+            raw = null;
+        }
+
+        if(raw == null) {
+            System.err.println("Modelo não encontrado: " + name);
+            return MISSING;
+        }
+
+        final byte[] newLine = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        final ByteArrayOutputStream model = new ByteArrayOutputStream(raw.length + 64);
+        int start = 0;
+
+        for(int i = 0; i <= raw.length; i++) {
+            if(i < raw.length && raw[i] != '\n') continue;
+
+            final int end = i > start && raw[i - 1] == '\r' ? i - 1 : i;
+
+            //a last line without a break is still a line, an empty one after the last break is not
+            if(i < raw.length || end > start) {
+                model.write(raw, start, end - start);
+                model.writeBytes(newLine);
+            }
+
+            start = i + 1;
+        }
+
+        model.writeBytes(newLine);
+
+        return model.toByteArray();
+    }
+}
@@ -0,0 +1,322 @@
+package battleship;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * ConsoleInput reads what the players type, or a script of moves, straight from the bytes of a buffer:
+ * numbers and option characters are parsed without regular expressions and without creating a String
+ * per token, only names become Strings
+ *
+ * The input is read by lines: the line break after the last token of a line is taken with the token, so
+ * nextLine always waits for a line of its own, like the Enter asked by the game. The exceptions are the
+ * ones of Scanner, InputMismatchException for a value which is not a number and NoSuchElementException
+ * when the input ends. Like Scanner, a stream which fails to be read, such as a socket closed under the
+ * game, ends the input and its IOException is kept for ioException
+ *
+ * @author Diógenes Dietrich de Morais
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class ConsoleInput {
+    /**
+     * BUFFER_SIZE is a constant which holds how many bytes are read from the stream at once by default,
+     * enough for a whole script in few reads
+     *
+     * @since 1.1
+     * @access public
+     *
+     * */
+    public static final int BUFFER_SIZE = 8192;
+
+    /**
+     * in is where the bytes come from
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private final InputStream in;
+
+    /**
+     * buffer holds the bytes read from the stream
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private final byte[] buffer;
+
+    /**
+     * position is the index of the next byte of the buffer to be read
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private int position;
+
+    /**
+     * limit is the index after the last byte read into the buffer
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private int limit;
+
+    /**
+     * failure is the exception which ended the input, null while the stream is read without errors
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private IOException failure;
+
+    /**
+     * ConsoleInput is the constructor of the class
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param in is where the typed input or the script comes from
+     * */
+    public ConsoleInput(final InputStream in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    /**
+     * ConsoleInput is the constructor of an input read in blocks of the given size, a player typing
+     * sends a few bytes per line, so the many sessions of a server do well with a small buffer each
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws IllegalArgumentException if the size is not positive
+     *
+     * @param in is where the typed input or the script comes from
+     * @param bufferSize is how many bytes are read from the stream at once
+     * */
+    public ConsoleInput(final InputStream in, int bufferSize) {
+        if(bufferSize <= 0) throw new IllegalArgumentException("O buffer da entrada precisa ter ao menos 1 byte: " + bufferSize);
+
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * peek returns the next byte without taking it, reading more of the stream when the buffer is over
+     *
+     * @since 1.1
+     * @access private
+     *
+     * @return the byte from 0 to 255 or -1 if the input has ended
+     * */
+    private int peek() {
+        if(this.position == this.limit) {
+            if(this.failure != null) return -1;
+
+            this.position = 0;
+
+            try {
+                int read;
+
+                do {
+                    read = this.in.read(this.buffer, 0, this.buffer.length);
+                } while(read == 0);
+
+                this.limit = Math.max(read, 0);
+
+            } catch (IOException e) {
+                this.failure = e;
+                this.limit = 0;
+            }
+
+            if(this.limit == 0) return -1;
+        }
+
+        return this.buffer[this.position] & 0xFF;
+    }
+
+    /**
+     * isBlank returns if a byte is a space, a tab or a line break
+     *
+     * @since 1.1
+     * @access private
+     *
+     * @param b is the byte
+     *
+     * @return true if the byte separates tokens
+     * */
+    private static boolean isBlank(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    /**
+     * skipBlanks takes the blanks before the next token
+     *
+     * @since 1.1
+     * @access private
+     *
+     * @throws NoSuchElementException if the input ends before a token
+     * */
+    private void skipBlanks() {
+        int b;
+
+        while(isBlank(b = this.peek())) this.position++;
+
+        if(b < 0) throw new NoSuchElementException("A entrada terminou");
+    }
+
+    /**
+     * endToken takes the rest of a token and then the spaces after it and, if it was the last token of
+     * its line, the line break
+     *
+     * @since 1.1
+     * @access private
+     * */
+    private void endToken() {
+        int b;
+
+        while((b = this.peek()) >= 0 && !isBlank(b)) this.position++;
+
+        while((b = this.peek()) == ' ' || b == '\t' || b == '\r') this.position++;
+
+        if(b == '\n') this.position++;
+    }
+
+    /**
+     * nextInt reads the next token as a number, a token which is not a number is dropped with the rest
+     * of its line
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws InputMismatchException if the token is not a number which fits an int
+     * @throws NoSuchElementException if the input has ended
+     *
+     * @return the number
+     * */
+    public int nextInt() {
+        this.skipBlanks();
+
+        int b = this.peek();
+        final boolean negative = b == '-';
+
+        if(negative || b == '+') {
+            this.position++;
+            b = this.peek();
+        }
+
+        long value = 0;
+        int digits = 0;
+
+        while(b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            digits++;
+            this.position++;
+
+            if(value > Integer.MAX_VALUE + 1L) break;
+
+            b = this.peek();
+        }
+
+        if(negative) value = -value;
+
+        if(digits == 0 || (b >= 0 && !isBlank(b)) || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            this.nextLine();
+            throw new InputMismatchException("Não é um número");
+        }
+
+        this.endToken();
+
+        return (int) value;
+    }
+
+    /**
+     * nextChar reads the first character of the next token, like the option of a menu
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws NoSuchElementException if the input has ended
+     *
+     * @return the first byte of the token as a character
+     * */
+    public char nextChar() {
+        this.skipBlanks();
+
+        final char c = (char) this.peek();
+
+        this.endToken();
+
+        return c;
+    }
+
+    /**
+     * next reads the next token as a String, it is meant for names
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws NoSuchElementException if the input has ended
+     *
+     * @return the token decoded with the charset of the platform, like Scanner does
+     * */
+    public String next() {
+        this.skipBlanks();
+
+        byte[] token = new byte[16];
+        int length = 0;
+        int b;
+
+        while((b = this.peek()) >= 0 && !isBlank(b)) {
+            if(length == token.length) token = Arrays.copyOf(token, length * 2);
+
+            token[length++] = (byte) b;
+            this.position++;
+        }
+
+        this.endToken();
+
+        return new String(token, 0, length, Charset.defaultCharset());
+    }
+
+    /**
+     * nextLine takes the rest of the current line, up to and with its line break, since a token takes
+     * the break of its line this waits for a new line after the last answer
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws NoSuchElementException if the input has ended
+     * */
+    public void nextLine() {
+        int b = this.peek();
+
+        if(b < 0) throw new NoSuchElementException("A entrada terminou");
+
+        while(b >= 0 && b != '\n') {
+            this.position++;
+            b = this.peek();
+        }
+
+        if(b == '\n') this.position++;
+    }
+
+    /**
+     * ioException returns the exception which ended the input, like the method of Scanner
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @return the IOException thrown by the stream or null if it was read without errors
+     * */
+    public IOException ioException() { return this.failure; }
+}
@@ -1,74 +1,247 @@
 package battleship;
 
 import battleship.core.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import battleship.engine.GameEngine;
+import battleship.engine.MoveSource;
+import battleship.engine.PlacementStrategy;
+import battleship.engine.ShooterMoves;
+import battleship.engine.TargetingStrategy;
+import battleship.jfr.GameEvent;
+import battleship.replay.ReplayJournal;
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.util.InputMismatchException;
-import java.util.Scanner;
+import java.util.SplittableRandom;
 
 /**
- * Game is the class that handles the main operations of the game
+ * Game is the class that handles the main operations of the game, it is the console front-end
+ * of the GameEngine
  *
  * @author Diógenes Dietrich de Morais
  * @since 1.0
  * @access public
  *
  * */
-public class Game {
+public class Game implements MoveSource {
     /**
-     * CLEANING_LINES is a constant which holds the number of lines necessary to clear the screen
+     * instantiatedPlayers is a variable that contains the number of instantiated players
      *
      * @since 1.0
      * @access private
      *
      * */
-    private static final int CLEANING_LINES = 200;
+    private int instantiatedPlayers = 0;
 
     /**
-     * SHIP_MODEL_PATH is a constant which holds the path of model art of a ship
+     * config is the size of the boards and the fleet of the game
      *
-     * @since 1.0
+     * @since 1.1
      * @access private
      *
      * */
-    private static final String SHIP_MODEL_PATH = "./models/ShipModel.txt";
+    private final GameConfig config;
 
     /**
-     * instantiatedPlayers is a variable that contains the number of instantiated players
+     * input is the tokenizer of what the players type, it is used through all the class
      *
      * @since 1.0
      * @access private
      *
-     * */
-    private int instantiatedPlayers = 0;
+     */
+    private final ConsoleInput input;
 
     /**
-     * input is the Scanner instance that will be used through all the class
+     * out is where everything the game shows is written
      *
-     * @since 1.0
+     * @since 1.1
      * @access private
      *
      */
-    private final Scanner input = new Scanner(System.in);
+    private final PrintStream out;
 
     /**
-     * printModel is responsible for rendering a model on the screen
+     * shotPoint is the point reused to hand the typed shots to the engine
      *
-     * @since 1.0
+     * @since 1.1
+     * @access private
+     *
+     */
+    private final Point shotPoint = new Point();
+
+    /**
+     * screen is the console screen which gets cleared between the steps of the game
+     *
+     * @since 1.1
+     * @access private
+     *
+     */
+    private final Screen screen;
+
+    /**
+     * renderer composes the boards shown by the game and writes each one at once
+     *
+     * @since 1.1
+     * @access private
+     *
+     */
+    private final BoardRenderer renderer = new BoardRenderer();
+
+    /**
+     * turnStart is when the first shot of the current turn was asked for, 0 before it or with the metrics off
+     *
+     * @since 1.1
+     * @access private
+     *
+     */
+    private long turnStart;
+
+    /**
+     * botPlacement places the fleet of the second player when it is a bot, null when two people play
+     *
+     * @since 1.1
+     * @access private
+     *
+     */
+    private PlacementStrategy botPlacement;
+
+    /**
+     * botTargeting chooses the shots of the second player when it is a bot, null when two people play
+     *
+     * @since 1.1
+     * @access private
+     *
+     */
+    private TargetingStrategy botTargeting;
+
+    /**
+     * botSeed is the seed of the generator of the bot
+     *
+     * @since 1.1
+     * @access private
+     *
+     */
+    private long botSeed;
+
+    /**
+     * journal is where the placements and shots of the game are recorded, null when they are not
+     *
+     * @since 1.1
      * @access private
      *
-     * @param path is the path of model
+     */
+    private ReplayJournal journal;
+
+    /**
+     * Game is the constructor of a standard game
+     *
+     * @since 1.1
+     * @access public
+     *
+     * */
+    public Game() {
+        this(GameConfig.standard());
+    }
+
+    /**
+     * Game is the constructor of a game with the given boards size and fleet
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param config is the size of the boards and the fleet of the game
+     *
+     * */
+    public Game(final GameConfig config) {
+        this(config, System.in, System.out, Screen.detect());
+    }
+
+    /**
+     * Game is the constructor of a game played through the given streams, so many games can run at once
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param config is the size of the boards and the fleet of the game
+     * @param in is where the typed input comes from, the players or a script of moves
+     * @param out is where everything the game shows is written
+     * @param screen is how the screen of the player is cleared
+     *
+     * */
+    public Game(final GameConfig config, final InputStream in, final PrintStream out, final Screen screen) {
+        this(config, new ConsoleInput(in), out, screen);
+    }
+
+    /**
+     * Game is the constructor of a game which reads from an input already created, so the caller chooses
+     * its buffer, like the sessions of a server which keep it small
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param config is the size of the boards and the fleet of the game
+     * @param input is where the typed input comes from, the players or a script of moves
+     * @param out is where everything the game shows is written
+     * @param screen is how the screen of the player is cleared
      *
      * */
-    private void printModel(String path) throws Exception {
-        final BufferedReader buffRead = new BufferedReader(new FileReader(path));
-        String line;
+    public Game(final GameConfig config, final ConsoleInput input, final PrintStream out, final Screen screen) {
+        this.config = config;
+        this.input = input;
+        this.out = out;
+        this.screen = screen;
+    }
 
-        while ((line = buffRead.readLine()) != null)
-            System.out.println(line);
+    /**
+     * setBot makes the second player a bot, which places its fleet and shoots by the given strategies
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param placement is the strategy which places the fleet of the bot
+     * @param targeting is the strategy which chooses the shots of the bot
+     * @param seed is the seed of the generator of the bot, the same seed repeats its game
+     *
+     * */
+    public void setBot(final PlacementStrategy placement, final TargetingStrategy targeting, long seed) {
+        this.botPlacement = placement;
+        this.botTargeting = targeting;
+        this.botSeed = seed;
+    }
 
-        buffRead.close();
-        System.out.println();
+    /**
+     * setJournal records the placements and shots of every game played from now on, the games may share the journal
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param journal is where the games are recorded or null to stop recording them
+     *
+     * */
+    public void setJournal(final ReplayJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * getConfig returns the size of the boards and the fleet of the game
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @return the configuration of the game
+     * */
+    public GameConfig getConfig() { return this.config; }
+
+    /**
+     * printModel is responsible for rendering a model on the screen, a missing model is just not shown
+     *
+     * @since 1.0
+     * @access private
+     *
+     * @param name is the file name of model
+     *
+     * */
+    private void printModel(String name) {
+        Assets.write(name, this.out);
     }
 
     /**
@@ -79,7 +252,7 @@ public class Game {
      *
      * */
     private void okInput() {
-        System.out.println("Pressione Enter para continuar.");
+        this.out.println("Pressione Enter para continuar.");
         this.input.nextLine();
 
         this.clearScreen();
@@ -103,8 +276,8 @@ public class Game {
                 done = true;
 
             } catch (InputMismatchException e) {
-                System.out.println("Você precisa digitar um número!");
-                this.input.nextLine();
+                //the input already dropped the rest of the line
+                this.out.println("Você precisa digitar um número!");
             }
         }
 
@@ -112,30 +285,26 @@ public class Game {
     }
 
     /**
-     * swapBothTurns is responsible for swap both players turns
+     * clearScreen is responsible for clear the screen
      *
      * @since 1.0
-     * @access private
-     *
-     * @param players is an array that contain the players
-     *
+     * @access public
      * */
-    private void swapBothTurns(final Player[] players){
-        for (final Player player : players) {
-            player.swapTurn();
-        }
+    public void clearScreen(){
+        this.screen.clear(this.out);
     }
 
     /**
-     * clearScreen is responsible for clear the screen
+     * printBoard is responsible for rendering a board on screen
      *
-     * @since 1.0
-     * @access public
+     * @since 1.1
+     * @access private
+     *
+     * @param board is the board to be rendered
+     * @param withBoats is if the boats should be displayed
      * */
-    public void clearScreen(){
-        for(int i = 0; i < CLEANING_LINES; i++){
-            System.out.println();
-        }
+    private void printBoard(final Board board, boolean withBoats) {
+        this.renderer.print(board, withBoats, this.out);
     }
 
     /**
@@ -148,27 +317,17 @@ public class Game {
      * */
     public boolean mainMenu() {
         char op;
-        System.out.println("Bem vindo à Batalha Naval\n");
-
-        try {
-            printModel(SHIP_MODEL_PATH);
+        this.out.println("Bem vindo à Batalha Naval\n");
 
-        } catch (Exception e){
-            e.printStackTrace();
-        }
+        printModel(Assets.SHIP_MODEL);
 
-        System.out.println("INICIAR(1)                SAIR(0)");
+        this.out.println("INICIAR(1)                SAIR(0)");
 
         do {
-            try {
-                op = this.input.nextLine().charAt(0);
-
-            } catch (StringIndexOutOfBoundsException e) {
-                op = '0';
-            }
+            op = this.input.nextChar();
 
             if(op != '0' && op != '1')
-                System.out.println("Opção Inválida");
+                this.out.println("Opção Inválida");
 
         } while(op != '0' && op != '1');
 
@@ -187,8 +346,8 @@ public class Game {
     public String getPlayerName() {
         this.instantiatedPlayers++;
 
-        System.out.println("Informe o nome do Jogador " + this.instantiatedPlayers);
-        System.out.print("--> ");
+        this.out.println("Informe o nome do Jogador " + this.instantiatedPlayers);
+        this.out.print("--> ");
 
         return this.input.next();
     }
@@ -228,23 +387,18 @@ public class Game {
         boolean verifyBoat = false;
 
         do {
-            System.out.printf("Escolha a coordenada X para o barco de %d espaços:\n", type.getSize());
+            this.out.printf("Escolha a coordenada X para o barco de %d espaços:\n", type.getSize());
             point.setX(this.verifyIntInput());
 
-            System.out.printf("Escolha a coordenada Y para o barco de %d espaços:\n", type.getSize());
+            this.out.printf("Escolha a coordenada Y para o barco de %d espaços:\n", type.getSize());
             point.setY(this.verifyIntInput());
 
             if(type.getSize() != 1) {
-                System.out.printf("Escolha a orientação para o barco de %d espaços:\n", type.getSize());
-                System.out.println("H = Horizontal\nV = Vertical");
+                this.out.printf("Escolha a orientação para o barco de %d espaços:\n", type.getSize());
+                this.out.println("H = Horizontal\nV = Vertical");
 
                 do {
-                    try {
-                        orientation = this.input.nextLine().toLowerCase().charAt(0);
-
-                    } catch (StringIndexOutOfBoundsException e){
-                        orientation = 'e';
-                    }
+                    orientation = Character.toLowerCase(this.input.nextChar());
 
                     switch (orientation) {
                         case 'h':
@@ -256,7 +410,7 @@ public class Game {
                             break;
 
                         default:
-                            System.out.println("Opção Inválida");
+                            this.out.println("Opção Inválida");
                     }
 
 
@@ -270,17 +424,17 @@ public class Game {
                 verifyBoat = player.addBoat(boat);
 
             } catch (InvalidPosition | ArrayIndexOutOfBoundsException e) {
-                System.out.println("Posição inválida para o barco!");
+                this.out.println("Posição inválida para o barco!");
                 verifyBoat = false;
 
             } catch (AlreadyHaveBoat e) {
-                System.out.println("Já existe um barco nessa posição!");
+                this.out.println("Já existe um barco nessa posição!");
                 verifyBoat = false;
             }
 
         } while(!verifyBoat);
 
-        player.getBoard().printBoard(true);
+        this.printBoard(player.getBoard(), true);
         this.okInput();
     }
 
@@ -294,16 +448,10 @@ public class Game {
      *
      * */
     public void createAllBoats(final Player player){
-        this.createBoat(player, BoatType.LARGE, true);
-
-        for(int i = 0; i < 2; i++)
-            this.createBoat(player, BoatType.BIG);
+        final BoatType[] fleet = this.config.getFleet();
 
-        for(int i = 0; i < 3; i++)
-            this.createBoat(player, BoatType.MEDIUM);
-
-        for(int i = 0; i < 4; i++)
-            this.createBoat(player, BoatType.SMALL);
+        for(int i = 0; i < fleet.length; i++)
+            this.createBoat(player, fleet[i], i == 0);
 
         this.showBoardWithBoats(player);
     }
@@ -320,14 +468,82 @@ public class Game {
     public void showBoardWithBoats(final Player player){
         this.clearScreen();
 
-        System.out.printf("Este é o seu tabuleiro %s:\n", player.getName());
+        this.out.printf("Este é o seu tabuleiro %s:\n", player.getName());
 
-        player.getBoard().printBoard(true);
+        this.printBoard(player.getBoard(), true);
         this.okInput();
     }
 
     /**
-     * shoot is responsible for receiving the points and making the shots on the board
+     * nextShot is responsible for asking the coordinates of the next shot
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param shooter is the player who is shooting
+     * @param opponent is the player who will be shot
+     *
+     * @return the typed point
+     * */
+    @Override
+    public Point nextShot(final Player shooter, final Player opponent) {
+        if(this.turnStart == 0) this.turnStart = GameMetrics.start();
+
+        this.printBoard(opponent.getBoard(), false);
+
+        this.out.printf("Vez de %s atirar!\n", shooter.getName());
+        this.out.println("Informe a coordenada de X para o tiro:");
+        this.shotPoint.setX(this.verifyIntInput());
+
+        this.out.println("Informe a coordenada de Y para o tiro:");
+        this.shotPoint.setY(this.verifyIntInput());
+
+        return this.shotPoint;
+    }
+
+    /**
+     * shotResolved is responsible for showing the result of a shot
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param shooter is the player who shot
+     * @param opponent is the player who was shot
+     * @param x is the column that was shot
+     * @param y is the row that was shot
+     * @param result is the result of the shot
+     * */
+    @Override
+    public void shotResolved(final Player shooter, final Player opponent, int x, int y, final ShotResult result) {
+        switch (result) {
+            case OUT_OF_BOUNDS:
+                this.out.println("Posição inválida para o tiro!");
+                return;
+
+            case REPEAT:
+                this.out.println("Você já atirou nesse ponto!");
+                return;
+
+            case MISS:
+                this.out.println("Você acertou água!");
+                break;
+
+            default:
+                this.out.println(result == ShotResult.SUNK ? "Você afundou um barco!" : "Você atingiu um barco!");
+        }
+
+        this.printBoard(opponent.getBoard(), false);
+        this.okInput();
+
+        //the turn ends when the turn passes or the game is over
+        if(result == ShotResult.MISS || GameEngine.isDefeated(opponent)) {
+            GameMetrics.turn(this.turnStart);
+            this.turnStart = 0;
+        }
+    }
+
+    /**
+     * shoot is responsible for receiving the points and making the shots on the board until the turn is over
      *
      * @since 1.0
      * @access public
@@ -335,65 +551,170 @@ public class Game {
      * @param shoot is the player who is shooting
      * @param beShot is the player who will be shot
      *
-     * @return if the player shot a boat
      * */
     public void shoot(final Player shoot, final Player beShot){
-        final Point point = new Point();
-        final Player[] players = { shoot, beShot };
-
-        boolean verifyShot = false;
-        boolean isBoat = false;
+        ShotResult result;
 
         this.clearScreen();
 
         do {
-            verifyShot = false;
-            beShot.getBoard().printBoard(false);
+            final Point point = this.nextShot(shoot, beShot);
+            result = GameEngine.resolveShot(shoot, beShot, point.getX(), point.getY());
 
-            System.out.printf("Vez de %s atirar!\n", shoot.getName());
-            System.out.println("Informe a coordenada de X para o tiro:");
-            point.setX(this.verifyIntInput());
+            this.shotResolved(shoot, beShot, point.getX(), point.getY(), result);
 
-            System.out.println("Informe a coordenada de Y para o tiro:");
-            point.setY(this.verifyIntInput());
+        } while(result != ShotResult.MISS && !GameEngine.isDefeated(beShot));
+    }
 
-            try {
-                isBoat = shoot.shotPlayer(point, beShot);
-                verifyShot = true;
+    /**
+     * play runs a whole game, from the main menu to the winner message, through the streams of the game
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @return the winner or null if the user left on the main menu or the bot could not place its fleet
+     *
+     * */
+    public Player play() {
+        //Verifying main menu option
+        if(!this.mainMenu()) {
+            this.out.println("Saindo...");
+            return null;
+        }
 
-            } catch (InvalidPosition e) {
-                System.out.println("Posição inválida para o tiro!");
+        final GameEvent event = new GameEvent();
 
-            } catch (ShootedPoint e) {
-                System.out.println("Você já atirou nesse ponto!");
-            }
+        event.begin();
 
-            if(!isBoat && verifyShot){
-                System.out.println("Você acertou água!");
+        final boolean bot = this.botTargeting != null;
+        final SplittableRandom random = new SplittableRandom(this.botSeed);
 
-                beShot.getBoard().printBoard(false);
-                shoot.incrementWrongAttempts();
+        //Defining player names
+        final Player player1 = new Player(this.getPlayerName(), this.config.newBoard());
+        final Player player2 = new Player(bot ? "Computador" : this.getPlayerName(), this.config.newBoard());
 
-                this.swapBothTurns(players);
-                this.okInput();
+        //Recording both boards from their first boat when a journal is set
+        final ReplayJournal.Recording recording = this.journal == null ? null : this.journal.newRecording();
 
-                return;
+        if(recording != null) recording.attach(player1.getBoard(), player2.getBoard());
+
+        try {
+            //Cleaning screen
+            this.clearScreen();
+
+            //Creating player's boats
+            this.out.printf("É a vez de %s escolher a posição de seus barcos\n", player1.getName());
+            this.createAllBoats(player1);
+
+            if(bot) {
+                try {
+                    this.botPlacement.place(player2, this.config.getFleet(), random);
+
+                } catch (InvalidFleet e) {
+                    this.out.printf("%s não conseguiu posicionar seus barcos: %s\n", player2.getName(), e.getMessage());
+                    return null;
+                }
+
+                this.out.printf("%s posicionou seus barcos\n", player2.getName());
+
+            } else {
+                this.out.printf("É a vez de %s escolher a posição de seus barcos\n", player2.getName());
+                this.createAllBoats(player2);
+            }
+
+            //Shooting rounds, started by player one
+            final MoveSource second = bot ? new BotMoves(new ShooterMoves(this.botTargeting.newShooter(this.config, random))) : this;
+            final Player winner = new GameEngine(player1, this, player2, second).play();
+
+            //Winner message
+            this.out.printf("O %s venceu! (%d pontos)\n", winner.getName(), winner.getScore());
+
+            if(event.shouldCommit()) {
+                event.width = this.config.getWidth();
+                event.height = this.config.getHeight();
+                event.winner = winner.getName();
+                event.score = winner.getScore();
+                event.commit();
             }
 
-            if(isBoat && verifyShot){
-                System.out.println("Você atingiu um barco!");
+            return winner;
 
-                beShot.getBoard().printBoard(false);
-                beShot.incrementHitBoatsPoints();
-                shoot.incrementScore();
+        } finally {
+            if(recording != null) recording.finish();
+        }
+    }
 
-                shoot.resetWrongAttempts();
-                this.okInput();
+    /**
+     * BotMoves takes the shots of the bot and shows each one to the player, who does not see the screen of the bot
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private final class BotMoves implements MoveSource {
+        /**
+         * shooter is the bot created by the targeting strategy
+         *
+         * @since 1.1
+         * @access private
+         *
+         */
+        private final MoveSource shooter;
+
+        /**
+         * BotMoves is the constructor of the class
+         *
+         * @since 1.1
+         * @access default
+         *
+         * @param shooter is the bot created by the targeting strategy
+         *
+         * */
+        BotMoves(final MoveSource shooter) {
+            this.shooter = shooter;
+        }
 
-                if(beShot.getHitBoatsPoints() == beShot.getBoatsPoints()) return;
+        /**
+         * nextShot asks the bot for its next shot
+         *
+         * @since 1.1
+         * @access public
+         *
+         * @param shooter is the player of the bot
+         * @param opponent is the player who will be shot
+         *
+         * @return the point chosen by the bot
+         * */
+        @Override
+        public Point nextShot(final Player shooter, final Player opponent) {
+            return this.shooter.nextShot(shooter, opponent);
+        }
 
-                verifyShot = false;
+        /**
+         * shotResolved hands the result to the bot and shows where it shot
+         *
+         * @since 1.1
+         * @access public
+         *
+         * @param shooter is the player of the bot
+         * @param opponent is the player who was shot
+         * @param x is the column that was shot
+         * @param y is the row that was shot
+         * @param result is the result of the shot
+         * */
+        @Override
+        public void shotResolved(final Player shooter, final Player opponent, int x, int y, final ShotResult result) {
+            this.shooter.shotResolved(shooter, opponent, x, y, result);
+
+            if(!result.isValid()) return;
+
+            out.printf("%s atirou em (%d, %d): %s\n", shooter.getName(), x, y,
+                    result == ShotResult.MISS ? "água" : result == ShotResult.SUNK ? "afundou um barco!" : "atingiu um barco!");
+
+            if(result == ShotResult.MISS || GameEngine.isDefeated(opponent)) {
+                printBoard(opponent.getBoard(), true);
+                okInput();
             }
-        } while(!verifyShot);
+        }
     }
 }
@@ -1,51 +1,108 @@
 package battleship;
 
-import battleship.core.Player;
+import battleship.core.GameConfig;
+import battleship.engine.PlacementStrategy;
+import battleship.engine.Strategies;
+import battleship.engine.TargetingStrategy;
+import battleship.replay.ReplayJournal;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class Main {
 
 	public static void main(String[] args) {
-		final Game game = new Game();
+		final GameConfig config;
 
-		//Verifying main menu option
-		if(!game.mainMenu()) {
-			System.out.println("Saindo...");
-			System.exit(0);
+		//Reading the board size and fleet, like --width 20 --height 20 --fleet 2,3,4,6
+		try {
+			config = Options.gameConfig(args);
+
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+			System.exit(1);
+			return;
 		}
 
-		//Defining player names
-		final Player player1 = new Player(game.getPlayerName());
-		final Player player2 = new Player(game.getPlayerName());
+		//Exposing the metrics on --metrics-port P, as http://localhost:P/metrics, and writing them to stderr every --metrics-dump SECONDS
+		try {
+			Options.metrics(args);
+
+		} catch (IOException e) {
+			System.out.println("Não foi possível abrir as métricas: " + e.getMessage());
+			System.exit(1);
+			return;
 
-		//Cleaning screen
-		game.clearScreen();
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
 
-		//Creating player's boats
-		System.out.printf("É a vez de %s escolher a posição de seus barcos\n", player1.getName());
-		game.createAllBoats(player1);
+		//Loading the art before the game, from --models DIR when it is given
+		if(Options.has(args, "models")) Assets.setDirectory(Path.of(Options.get(args, "models", "models")));
 
-		System.out.printf("É a vez de %s escolher a posição de seus barcos\n", player2.getName());
-		game.createAllBoats(player2);
+		Assets.preload(Assets.SHIP_MODEL);
 
-		//Starting the game by player one
-		player1.swapTurn();
+		//Reading the moves from --script FILE instead of the keyboard, a pipe on the input works as well
+		InputStream in = System.in;
 
-		//Shooting rounds
-		do {
-			if(player1.isMyTurn())
-				game.shoot(player1, player2);
+		if(Options.has(args, "script")) {
+			try {
+				in = Files.newInputStream(Path.of(Options.get(args, "script", "")));
 
-			else
-				game.shoot(player2, player1);
+			} catch (IOException e) {
+				System.out.println("Não foi possível abrir o script: " + e.getMessage());
+				System.exit(1);
+				return;
+			}
+		}
 
-		} while(player1.getHitBoatsPoints() < player1.getBoatsPoints() && player2.getHitBoatsPoints() < player2.getBoatsPoints());
+		final Game game = new Game(config, in, System.out, Screen.detect());
 
-		//Winner message
-		if(player1.getHitBoatsPoints() <= player1.getBoatsPoints())
-			System.out.printf("O %s venceu! (%d pontos)\n", player1.getName(), player1.getScore());
+		//Playing against a bot with --bot TARGETING [--placement NAME] [--seed N], the strategies come from META-INF/services
+		if(Options.has(args, "bot")) {
+			try {
+				final TargetingStrategy targeting = Strategies.targeting(Options.get(args, "bot", "hunt"));
+				final PlacementStrategy placement = Strategies.placement(Options.get(args, "placement", "random"));
+
+				game.setBot(placement, targeting, Options.getLong(args, "seed", System.nanoTime()));
+
+			} catch (IllegalArgumentException e) {
+				System.out.println(e.getMessage());
+				System.exit(1);
+				return;
+			}
+		}
 
-		else
-			System.out.printf("O %s venceu! (%d pontos)\n", player2.getName(), player2.getScore());
+		//Recording the placements and shots of the game on --journal FILE, a journal of the same board size is appended to
+		ReplayJournal journal = null;
 
+		if(Options.has(args, "journal")) {
+			try {
+				journal = ReplayJournal.open(Path.of(Options.get(args, "journal", "")), config.getWidth(), config.getHeight());
+				game.setJournal(journal);
+
+			} catch (IOException | IllegalArgumentException e) {
+				System.out.println("Não foi possível abrir o diário: " + e.getMessage());
+				System.exit(1);
+				return;
+			}
+		}
+
+		try {
+			game.play();
+
+		} finally {
+			if(journal != null) {
+				try {
+					journal.close();
+
+				} catch (IOException e) {
+					System.out.println("Não foi possível fechar o diário: " + e.getMessage());
+				}
+			}
+		}
 	}
 }
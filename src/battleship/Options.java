@@ -0,0 +1,178 @@
+package battleship;
+
+import battleship.core.GameConfig;
+import battleship.core.GameMetrics;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Options reads the command line options of the entry points, in the form --name value or --name=value
+ *
+ * @author Diógenes Dietrich de Morais
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class Options {
+    /**
+     * Options is private because the class only has static methods
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private Options() {}
+
+    /**
+     * get returns the value of an option
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param args are the command line arguments
+     * @param name is the name of the option without the dashes
+     * @param fallback is the value used when the option is missing
+     *
+     * @return the value of the option
+     * */
+    public static String get(final String[] args, final String name, final String fallback) {
+        final String flag = "--" + name;
+
+        for(int i = 0; i < args.length; i++) {
+            if(args[i].equals(flag) && i + 1 < args.length) return args[i + 1];
+
+            if(args[i].startsWith(flag + "=")) return args[i].substring(flag.length() + 1);
+        }
+
+        return fallback;
+    }
+
+    /**
+     * has returns if a flag was given
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param args are the command line arguments
+     * @param name is the name of the flag without the dashes
+     *
+     * @return true if the flag is present
+     * */
+    public static boolean has(final String[] args, final String name) {
+        for(final String arg : args) {
+            if(arg.equals("--" + name) || arg.startsWith("--" + name + "=")) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * getInt returns the value of an integer option
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws IllegalArgumentException if the value is not a number or does not fit an int
+     *
+     * @param args are the command line arguments
+     * @param name is the name of the option without the dashes
+     * @param fallback is the value used when the option is missing
+     *
+     * @return the value of the option
+     * */
+    public static int getInt(final String[] args, final String name, int fallback) {
+        final long value = getLong(args, name, fallback);
+
+        //a cast would wrap, --width 4294967306 would become a board 10 wide
+        if(value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("A opção --" + name + " precisa ser um número de " + Integer.MIN_VALUE + " até " + Integer.MAX_VALUE + ": " + value);
+
+        return (int) value;
+    }
+
+    /**
+     * getLong returns the value of a long option
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws IllegalArgumentException if the value is not a number
+     *
+     * @param args are the command line arguments
+     * @param name is the name of the option without the dashes
+     * @param fallback is the value used when the option is missing
+     *
+     * @return the value of the option
+     * */
+    public static long getLong(final String[] args, final String name, long fallback) {
+        final String value = get(args, name, null);
+
+        if(value == null) return fallback;
+
+        try {
+            return Long.parseLong(value.trim());
+
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("A opção --" + name + " precisa ser um número: " + value);
+        }
+    }
+
+    /**
+     * gameConfig builds the game configuration from --width, --height and --fleet, where the fleet is the
+     * number of LARGE, BIG, MEDIUM and SMALL boats separated by commas, like 1,2,3,4
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws IllegalArgumentException if any of the options is not valid
+     *
+     * @param args are the command line arguments
+     *
+     * @return the configuration, the standard one for the missing options
+     * */
+    public static GameConfig gameConfig(final String[] args) {
+        final GameConfig standard = GameConfig.standard();
+        final int width = getInt(args, "width", standard.getWidth());
+        final int height = getInt(args, "height", standard.getHeight());
+        final String fleet = get(args, "fleet", null);
+
+        if(fleet == null) return new GameConfig(width, height, standard.getFleet());
+
+        final String[] counts = fleet.split(",");
+
+        if(counts.length != 4)
+            throw new IllegalArgumentException("A frota deve ter quatro quantidades, como 1,2,3,4: " + fleet);
+
+        try {
+            return new GameConfig(width, height, GameConfig.fleetOf(
+                    Integer.parseInt(counts[0].trim()), Integer.parseInt(counts[1].trim()),
+                    Integer.parseInt(counts[2].trim()), Integer.parseInt(counts[3].trim())));
+
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("A frota deve ter quatro quantidades, como 1,2,3,4: " + fleet);
+        }
+    }
+
+    /**
+     * metrics exposes the game metrics asked for on the command line, --metrics-port P serves them on
+     * http://host:P/metrics and --metrics-dump SECONDS writes them to stderr every given seconds, either
+     * of them turns the recording of the metrics on
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @throws IOException if the port of the endpoint can not be bound
+     *
+     * @param args are the command line arguments
+     * */
+    public static void metrics(final String[] args) throws IOException {
+        final int port = getInt(args, "metrics-port", 0);
+        final long dump = getLong(args, "metrics-dump", 0);
+
+        if(port > 0 || dump > 0) GameMetrics.setEnabled(true);
+
+        if(port > 0) GameMetrics.REGISTRY.serve(new InetSocketAddress(port));
+
+        if(dump > 0) GameMetrics.REGISTRY.dump(System.err, dump);
+    }
+}
@@ -0,0 +1,97 @@
+package battleship;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Screen clears the console, with the ANSI clear and home sequence when the terminal understands it
+ * and with blank lines on dumb terminals
+ *
+ * @author Diógenes Dietrich de Morais
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class Screen {
+    /**
+     * CLEANING_LINES is a constant which holds the number of lines necessary to clear a dumb terminal
+     *
+     * @since 1.0
+     * @access private
+     *
+     * */
+    private static final int CLEANING_LINES = 200;
+
+    /**
+     * ANSI_CLEAR is a constant which holds the sequence that moves the cursor home and clears the screen
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private static final String ANSI_CLEAR = "\033[H\033[2J";
+
+    /**
+     * MODE_PROPERTY is a constant which holds the system property that forces a mode, "ansi" or "lines"
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private static final String MODE_PROPERTY = "battleship.screen";
+
+    /**
+     * clearSequence holds the bytes written to clear the screen
+     *
+     * @since 1.1
+     * @access private
+     *
+     * */
+    private final byte[] clearSequence;
+
+    /**
+     * Screen is the constructor of the class
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param ansi is if the terminal understands ANSI sequences
+     *
+     * */
+    public Screen(boolean ansi) {
+        final String sequence = ansi ? ANSI_CLEAR : System.lineSeparator().repeat(CLEANING_LINES);
+
+        this.clearSequence = sequence.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * detect creates the screen for the current terminal, the battleship.screen property wins over the detection
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @return the screen of the terminal
+     * */
+    public static Screen detect() {
+        final String mode = System.getProperty(MODE_PROPERTY);
+
+        if(mode != null) return new Screen(mode.equalsIgnoreCase("ansi"));
+
+        final String term = System.getenv("TERM");
+
+        return new Screen(System.console() != null && term != null && !term.equals("dumb"));
+    }
+
+    /**
+     * clear clears the screen with a single write
+     *
+     * @since 1.1
+     * @access public
+     *
+     * @param out is the stream of the terminal
+     * */
+    public void clear(final PrintStream out) {
+        out.write(this.clearSequence, 0, this.clearSequence.length);
+        out.flush();
+    }
+}
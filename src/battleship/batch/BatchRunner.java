@@ -0,0 +1,471 @@
+package battleship.batch;
+
+import battleship.ConsoleInput;
+import battleship.Options;
+import battleship.core.*;
+import battleship.engine.GameEngine;
+import battleship.engine.MoveSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * BatchRunner plays recorded matches, see MatchScript, through the rules of Player, Board and GameEngine
+ * on every core and writes a result per match as soon as it is played, as CSV or as a JSON object per
+ * line. The scripts are read one at a time and at most a few per thread wait to be played, so the memory
+ * stays flat however many matches there are, and the results come out in the order they finish, with the
+ * sequence of the script to sort them by
+ *
+ * Run it with: java -cp out battleship.batch.BatchRunner [--scripts FILE|DIR|-] [--out FILE] [--format csv|json]
+ * [--threads T] [--width W] [--height H] [--fleet L,B,M,S]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class BatchRunner {
+
+	/**
+	 * QUEUED_PER_THREAD is a constant which holds how many read scripts may wait for each thread
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int QUEUED_PER_THREAD = 4;
+
+	/**
+	 * config is the size of the boards and the fleet of every match
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final GameConfig config;
+
+	/**
+	 * json is true to write the results as JSON and false to write them as CSV
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final boolean json;
+
+	/**
+	 * BatchRunner is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the boards and the fleet of every match
+	 * @param json is true to write the results as JSON lines and false to write them as CSV
+	 *
+	 * */
+	public BatchRunner(final GameConfig config, boolean json) {
+		this.config = config;
+		this.json = json;
+	}
+
+	/**
+	 * ScriptSource hands the shots of a script to the engine, whoever the rules say is shooting, and
+	 * counts the valid shots of each player and the rejected ones
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final class ScriptSource implements MoveSource {
+
+		/**
+		 * script is the script whose shots are played
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final MatchScript script;
+
+		/**
+		 * first is the first player, the one the shots of shots1 belong to
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final Player first;
+
+		/**
+		 * point is reused to hand the shots to the engine
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final Point point = new Point();
+
+		/**
+		 * next is the index of the next shot of the script
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int next;
+
+		/**
+		 * shots1 counts the valid shots of the first player
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int shots1;
+
+		/**
+		 * shots2 counts the valid shots of the second player
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int shots2;
+
+		/**
+		 * rejected counts the shots which were off the board or repeated
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int rejected;
+
+		/**
+		 * ScriptSource is the constructor of the class
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param script is the script whose shots are played
+		 * @param first is the first player
+		 *
+		 * */
+		private ScriptSource(final MatchScript script, final Player first) {
+			this.script = script;
+			this.first = first;
+		}
+
+		/**
+		 * hasNext returns if the script has shots left
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @return true if there is a shot to be played
+		 *
+		 * */
+		private boolean hasNext() { return this.next < this.script.getShotCount(); }
+
+		@Override
+		public Point nextShot(final Player shooter, final Player opponent) {
+			this.point.setX(this.script.getShotX(this.next));
+			this.point.setY(this.script.getShotY(this.next++));
+
+			return this.point;
+		}
+
+		@Override
+		public void shotResolved(final Player shooter, final Player opponent, int x, int y, final ShotResult result) {
+			if(!result.isValid()) this.rejected++;
+			else if(shooter == this.first) this.shots1++;
+			else this.shots2++;
+		}
+	}
+
+	/**
+	 * play plays a script: the boats rejected by the board, or typed for a player whose fleet is
+	 * complete, are violations and the next boat of the player takes their place, like on the console.
+	 * The rejected shots and the shots typed after the end of the game are violations as well
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param script is the script to be played
+	 *
+	 * @return the result of the match
+	 *
+	 * */
+	public MatchResult play(final MatchScript script) {
+		if(script.getError() != null) return MatchResult.failed(script, script.getError());
+
+		final BoatType[] fleet = this.config.getFleet();
+		final Player[] players = { new Player("Jogador 1", this.config.newBoard()), new Player("Jogador 2", this.config.newBoard()) };
+		final int[] placed = new int[2];
+		int violations = 0;
+
+		for(int i = 0; i < script.getPlacementCount(); i++) {
+			final int p = script.getPlacementPlayer(i) - 1;
+
+			if(p < 0 || p > 1 || placed[p] == fleet.length) {
+				violations++;
+				continue;
+			}
+
+			final BoatType type = fleet[placed[p]];
+			final char typed = script.getPlacementOrientation(i);
+			final BoatOrientation orientation = type.getSize() == 1 ? BoatOrientation.NONE
+					: typed == 'h' ? BoatOrientation.HORIZONTAL : typed == 'v' ? BoatOrientation.VERTICAL : null;
+			final int x = script.getPlacementX(i);
+			final int y = script.getPlacementY(i);
+
+			if(orientation == null || !players[p].getBoard().canPlace(type, orientation, x, y)) {
+				violations++;
+				continue;
+			}
+
+			try {
+				if(players[p].addBoat(new Boat(type, orientation, new Point(x, y)))) placed[p]++;
+
+			} catch (InvalidPosition | AlreadyHaveBoat e) {
+				violations++;
+			}
+		}
+
+		if(placed[0] < fleet.length || placed[1] < fleet.length) {
+			return new MatchResult(script.getSequence(), script.getId(), 0, 0, 0, 0, 0, violations, "frota incompleta");
+		}
+
+		final ScriptSource source = new ScriptSource(script, players[0]);
+		final GameEngine engine = new GameEngine(players[0], source, players[1], source);
+
+		while(!engine.isOver() && source.hasNext()) engine.step();
+
+		final Player winner = engine.getWinner();
+
+		violations += source.rejected + script.getShotCount() - source.next;
+
+		return new MatchResult(script.getSequence(), script.getId(), winner == players[0] ? 1 : winner == players[1] ? 2 : 0,
+				players[0].getScore(), players[1].getScore(), source.shots1, source.shots2, violations, null);
+	}
+
+	/**
+	 * run plays every script of an input and writes the results, the CSV header included
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the results can not be written
+	 *
+	 * @param in is the input of the scripts, one after the other
+	 * @param out is where the results are written
+	 * @param threads is how many matches are played at once
+	 *
+	 * @return the number of scripts
+	 *
+	 * */
+	public long run(final InputStream in, final Writer out, int threads) throws IOException {
+		return this.run(null, in, out, threads);
+	}
+
+	/**
+	 * run plays every script of a file, or of each file of a directory by the order of their names, and
+	 * writes the results, the CSV header included
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if a script can not be read or the results can not be written
+	 *
+	 * @param scripts is the file or the directory of the scripts
+	 * @param out is where the results are written
+	 * @param threads is how many matches are played at once
+	 *
+	 * @return the number of scripts
+	 *
+	 * */
+	public long run(final Path scripts, final Writer out, int threads) throws IOException {
+		final List<Path> files = new ArrayList<>();
+
+		if(Files.isDirectory(scripts)) {
+			try(Stream<Path> list = Files.list(scripts)) {
+				list.filter(Files::isRegularFile).sorted().forEach(files::add);
+			}
+		} else {
+			files.add(scripts);
+		}
+
+		return this.run(files, null, out, threads);
+	}
+
+	/**
+	 * run plays the scripts of the files, opened one at a time, or of the input on a pool whose queue is
+	 * bounded, the reading thread plays a script itself when the queue is full
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if a script can not be read or the results can not be written
+	 *
+	 * @param files are the files of the scripts or null to read the input
+	 * @param in is the input of the scripts when there are no files
+	 * @param out is where the results are written
+	 * @param threads is how many matches are played at once
+	 *
+	 * @return the number of scripts
+	 *
+	 * */
+	private long run(final List<Path> files, final InputStream in, final Writer out, int threads) throws IOException {
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(threads * QUEUED_PER_THREAD), task -> {
+					final Thread thread = new Thread(task, "batch");
+
+					thread.setDaemon(true);
+
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+		final IOException[] failure = new IOException[1];
+		long sequence = 0;
+
+		if(!this.json) out.write(MatchResult.CSV_HEADER);
+
+		try {
+			if(files == null) {
+				sequence = this.submit(in, sequence, pool, out, failure);
+
+			} else {
+				for(final Path file : files) {
+					try(InputStream input = Files.newInputStream(file)) {
+						sequence = this.submit(input, sequence, pool, out, failure);
+					}
+				}
+			}
+
+		} finally {
+			pool.shutdown();
+
+			try {
+				pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized(out) {
+			if(failure[0] != null) throw failure[0];
+
+			out.flush();
+		}
+
+		return sequence;
+	}
+
+	/**
+	 * submit reads the scripts of an input one at a time and hands each one to the pool
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if the input can not be read
+	 *
+	 * @param in is the input of the scripts
+	 * @param sequence is the sequence of the first script of the input
+	 * @param pool is where the scripts are played
+	 * @param out is where the results are written
+	 * @param failure holds the first failure to write
+	 *
+	 * @return the sequence after the last script of the input
+	 *
+	 * */
+	private long submit(final InputStream in, long sequence, final ThreadPoolExecutor pool, final Writer out, final IOException[] failure) throws IOException {
+		final ConsoleInput scripts = new ConsoleInput(in);
+		MatchScript script;
+
+		while((script = MatchScript.read(scripts, sequence)) != null) {
+			final MatchScript played = script;
+
+			pool.execute(() -> this.write(played, out, failure));
+			sequence++;
+		}
+
+		//a stream which fails ends the input like its end, so the failure is told apart here
+		if(scripts.ioException() != null) throw scripts.ioException();
+
+		return sequence;
+	}
+
+	/**
+	 * write plays a script and writes its result on a line of its own, the first failure to write is
+	 * kept to be thrown by run
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param script is the script to be played
+	 * @param out is where the results are written
+	 * @param failure holds the first failure to write
+	 *
+	 * */
+	private void write(final MatchScript script, final Writer out, final IOException[] failure) {
+		MatchResult result;
+
+		try {
+			result = this.play(script);
+
+		} catch (RuntimeException e) {
+			result = MatchResult.failed(script, e.toString());
+		}
+
+		final StringBuilder line = new StringBuilder(96);
+
+		if(this.json) result.appendJson(line);
+		else result.appendCsv(line);
+
+		synchronized(out) {
+			if(failure[0] != null) return;
+
+			try {
+				out.append(line);
+
+			} catch (IOException e) {
+				failure[0] = e;
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		final GameConfig config = Options.gameConfig(args);
+		final String scripts = Options.get(args, "scripts", "-");
+		final String output = Options.get(args, "out", "-");
+		final boolean json = "json".equals(Options.get(args, "format", "csv"));
+		final int threads = Options.getInt(args, "threads", Runtime.getRuntime().availableProcessors());
+
+		final BatchRunner runner = new BatchRunner(config, json);
+		final long start = System.nanoTime();
+		final long matches;
+
+		try(Writer out = new BufferedWriter(output.equals("-")
+				? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+				: Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8), 1 << 16)) {
+
+			matches = scripts.equals("-") ? runner.run(System.in, out, threads) : runner.run(Path.of(scripts), out, threads);
+		}
+
+		final double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.err.printf("Partidas: %d em %.2f s (%.0f partidas/s)\n", matches, seconds, matches / seconds);
+	}
+}
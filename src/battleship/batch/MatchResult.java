@@ -0,0 +1,267 @@
+package battleship.batch;
+
+/**
+ * MatchResult is the outcome of a played script, written as a line of CSV or as a JSON object per line,
+ * so the results of any number of matches can be streamed
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class MatchResult {
+
+	/**
+	 * CSV_HEADER is a constant which holds the header line of the CSV results
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final String CSV_HEADER = "sequence,id,winner,score1,score2,shots1,shots2,violations,error\n";
+
+	/**
+	 * sequence is the position of the script on the input
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long sequence;
+
+	/**
+	 * id is the name of the match
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final String id;
+
+	/**
+	 * winner is 1 or 2, or 0 if the script ended before the game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int winner;
+
+	/**
+	 * score1 is the score of the first player
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int score1;
+
+	/**
+	 * score2 is the score of the second player
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int score2;
+
+	/**
+	 * shots1 are the valid shots fired by the first player
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int shots1;
+
+	/**
+	 * shots2 are the valid shots fired by the second player
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int shots2;
+
+	/**
+	 * violations counts the typed boats and shots the rules rejected
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int violations;
+
+	/**
+	 * error is why the match could not be played, null if it was
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final String error;
+
+	/**
+	 * MatchResult is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param sequence is the position of the script on the input
+	 * @param id is the name of the match
+	 * @param winner is 1 or 2, or 0 if there is none
+	 * @param score1 is the score of the first player
+	 * @param score2 is the score of the second player
+	 * @param shots1 are the valid shots of the first player
+	 * @param shots2 are the valid shots of the second player
+	 * @param violations counts the boats and shots the rules rejected
+	 * @param error is why the match could not be played or null
+	 *
+	 * */
+	public MatchResult(long sequence, final String id, int winner, int score1, int score2, int shots1, int shots2,
+			int violations, final String error) {
+		this.sequence = sequence;
+		this.id = id;
+		this.winner = winner;
+		this.score1 = score1;
+		this.score2 = score2;
+		this.shots1 = shots1;
+		this.shots2 = shots2;
+		this.violations = violations;
+		this.error = error;
+	}
+
+	/**
+	 * failed returns the result of a script which could not be played
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param script is the script
+	 * @param error is why it could not be played
+	 *
+	 * @return the result without winner
+	 *
+	 * */
+	public static MatchResult failed(final MatchScript script, final String error) {
+		return new MatchResult(script.getSequence(), script.getId(), 0, 0, 0, 0, 0, 0, error);
+	}
+
+	/**
+	 * getWinner returns who won the match
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return 1 or 2, or 0 if there is no winner
+	 *
+	 * */
+	public int getWinner() { return this.winner; }
+
+	/**
+	 * getViolations returns how many typed boats and shots the rules rejected
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of violations
+	 *
+	 * */
+	public int getViolations() { return this.violations; }
+
+	/**
+	 * getError returns why the match could not be played
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the error or null
+	 *
+	 * */
+	public String getError() { return this.error; }
+
+	/**
+	 * appendCsv writes the result as a line of CSV
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param line is where the line is appended
+	 *
+	 * */
+	public void appendCsv(final StringBuilder line) {
+		line.append(this.sequence).append(',');
+		csv(line, this.id).append(',');
+		line.append(this.winner).append(',').append(this.score1).append(',').append(this.score2).append(',')
+				.append(this.shots1).append(',').append(this.shots2).append(',').append(this.violations).append(',');
+
+		if(this.error != null) csv(line, this.error);
+
+		line.append('\n');
+	}
+
+	/**
+	 * appendJson writes the result as a JSON object on a line of its own
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param line is where the line is appended
+	 *
+	 * */
+	public void appendJson(final StringBuilder line) {
+		line.append("{\"sequence\":").append(this.sequence).append(",\"id\":");
+		json(line, this.id);
+		line.append(",\"winner\":").append(this.winner)
+				.append(",\"score1\":").append(this.score1).append(",\"score2\":").append(this.score2)
+				.append(",\"shots1\":").append(this.shots1).append(",\"shots2\":").append(this.shots2)
+				.append(",\"violations\":").append(this.violations).append(",\"error\":");
+
+		if(this.error == null) line.append("null");
+		else json(line, this.error);
+
+		line.append("}\n");
+	}
+
+	/**
+	 * csv appends a field of CSV, quoted when it holds a comma, a quote or a line break
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param line is where the field is appended
+	 * @param value is the field
+	 *
+	 * @return the line
+	 *
+	 * */
+	private static StringBuilder csv(final StringBuilder line, final String value) {
+		if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return line.append(value);
+
+		return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+	}
+
+	/**
+	 * json appends a JSON string
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param line is where the string is appended
+	 * @param value is the string
+	 *
+	 * */
+	private static void json(final StringBuilder line, final String value) {
+		line.append('"');
+
+		for(int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+
+			if(c == '"' || c == '\\') line.append('\\').append(c);
+			else if(c < 0x20) line.append(String.format("\\u%04x", (int) c));
+			else line.append(c);
+		}
+
+		line.append('"');
+	}
+}
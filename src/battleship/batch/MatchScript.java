@@ -0,0 +1,365 @@
+package battleship.batch;
+
+import battleship.ConsoleInput;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * MatchScript is a recorded match: the boats typed by both players and the shots typed after them, in
+ * order. The shots do not say who fires them, the rules decide it like in a real game. Many scripts may
+ * follow each other on the same file or stream:
+ *
+ * match ID
+ * place PLAYER X Y ORIENTATION   (one per boat, in the order of the fleet, h, v or - for one cell boats)
+ * shot X Y
+ * end
+ *
+ * Only the first letter of each word is read, so place and p are the same
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class MatchScript {
+
+	/**
+	 * sequence is the position of the script on the input, counted from 0
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long sequence;
+
+	/**
+	 * id is the name given to the match by the script
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final String id;
+
+	/**
+	 * placements holds player, x, y and orientation of each typed boat, four ints per boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int[] placements = new int[64];
+
+	/**
+	 * placementCount is the number of typed boats
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int placementCount;
+
+	/**
+	 * shots holds x and y of each typed shot, two ints per shot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int[] shots = new int[256];
+
+	/**
+	 * shotCount is the number of typed shots
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int shotCount;
+
+	/**
+	 * error is why the script could not be read, null if it was read whole
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private String error;
+
+	/**
+	 * MatchScript is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param sequence is the position of the script on the input
+	 * @param id is the name of the match
+	 *
+	 * */
+	private MatchScript(long sequence, final String id) {
+		this.sequence = sequence;
+		this.id = id;
+	}
+
+	/**
+	 * read reads the next script of an input, a script with an unknown word or a value which is not a
+	 * number is skipped up to its end and returned with the error
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param in is the input of the scripts
+	 * @param sequence is the position the script gets
+	 *
+	 * @return the script or null if the input has ended
+	 *
+	 * */
+	public static MatchScript read(final ConsoleInput in, long sequence) {
+		char word;
+
+		try {
+			word = Character.toLowerCase(in.nextChar());
+
+		} catch (NoSuchElementException e) {
+			return null;
+		}
+
+		if(word != 'm') {
+			final MatchScript script = new MatchScript(sequence, "");
+
+			script.error = "esperado match";
+			script.skip(in);
+
+			return script;
+		}
+
+		final MatchScript script;
+
+		try {
+			script = new MatchScript(sequence, in.next());
+
+		} catch (NoSuchElementException e) {
+			return null;
+		}
+
+		try {
+			while((word = Character.toLowerCase(in.nextChar())) != 'e') {
+				switch(word) {
+					case 'p':
+						script.place(in.nextInt(), in.nextInt(), in.nextInt(), Character.toLowerCase(in.nextChar()));
+						break;
+
+					case 's':
+						script.shot(in.nextInt(), in.nextInt());
+						break;
+
+					default:
+						script.error = "palavra desconhecida: " + word;
+						script.skip(in);
+						return script;
+				}
+			}
+
+		} catch (InputMismatchException e) {
+			script.error = "número inválido";
+			script.skip(in);
+
+		} catch (NoSuchElementException e) {
+			script.error = "script sem end";
+		}
+
+		return script;
+	}
+
+	/**
+	 * skip drops the words of the input up to the end of the script
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param in is the input of the scripts
+	 *
+	 * */
+	private void skip(final ConsoleInput in) {
+		try {
+			while(Character.toLowerCase(in.nextChar()) != 'e');
+
+		} catch (NoSuchElementException e) {
+			//the input ended inside the script, which is reported by its error already
+		}
+	}
+
+	/**
+	 * place adds a typed boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param player is 1 or 2
+	 * @param x is the column of the first cell
+	 * @param y is the row of the first cell
+	 * @param orientation is h, v or any other character for a one cell boat
+	 *
+	 * */
+	private void place(int player, int x, int y, char orientation) {
+		if(4 * this.placementCount + 4 > this.placements.length) this.placements = Arrays.copyOf(this.placements, this.placements.length * 2);
+
+		final int i = 4 * this.placementCount++;
+
+		this.placements[i] = player;
+		this.placements[i + 1] = x;
+		this.placements[i + 2] = y;
+		this.placements[i + 3] = orientation;
+	}
+
+	/**
+	 * shot adds a typed shot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param x is the column of the shot
+	 * @param y is the row of the shot
+	 *
+	 * */
+	private void shot(int x, int y) {
+		if(2 * this.shotCount + 2 > this.shots.length) this.shots = Arrays.copyOf(this.shots, this.shots.length * 2);
+
+		this.shots[2 * this.shotCount] = x;
+		this.shots[2 * this.shotCount++ + 1] = y;
+	}
+
+	/**
+	 * getSequence returns the position of the script on the input
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the position counted from 0
+	 *
+	 * */
+	public long getSequence() { return this.sequence; }
+
+	/**
+	 * getId returns the name of the match
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the id given by the script
+	 *
+	 * */
+	public String getId() { return this.id; }
+
+	/**
+	 * getError returns why the script could not be read
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the error or null if the script was read whole
+	 *
+	 * */
+	public String getError() { return this.error; }
+
+	/**
+	 * getPlacementCount returns the number of typed boats
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of boats of both players
+	 *
+	 * */
+	public int getPlacementCount() { return this.placementCount; }
+
+	/**
+	 * getPlacementPlayer returns the player of a typed boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param i is the index of the boat
+	 *
+	 * @return 1 or 2, or what the script typed
+	 *
+	 * */
+	public int getPlacementPlayer(int i) { return this.placements[4 * i]; }
+
+	/**
+	 * getPlacementX returns the column of the first cell of a typed boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param i is the index of the boat
+	 *
+	 * @return the column
+	 *
+	 * */
+	public int getPlacementX(int i) { return this.placements[4 * i + 1]; }
+
+	/**
+	 * getPlacementY returns the row of the first cell of a typed boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param i is the index of the boat
+	 *
+	 * @return the row
+	 *
+	 * */
+	public int getPlacementY(int i) { return this.placements[4 * i + 2]; }
+
+	/**
+	 * getPlacementOrientation returns the orientation of a typed boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param i is the index of the boat
+	 *
+	 * @return h, v or the character typed for a one cell boat
+	 *
+	 * */
+	public char getPlacementOrientation(int i) { return (char) this.placements[4 * i + 3]; }
+
+	/**
+	 * getShotCount returns the number of typed shots
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of shots of both players
+	 *
+	 * */
+	public int getShotCount() { return this.shotCount; }
+
+	/**
+	 * getShotX returns the column of a typed shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param i is the index of the shot
+	 *
+	 * @return the column
+	 *
+	 * */
+	public int getShotX(int i) { return this.shots[2 * i]; }
+
+	/**
+	 * getShotY returns the row of a typed shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param i is the index of the shot
+	 *
+	 * @return the row
+	 *
+	 * */
+	public int getShotY(int i) { return this.shots[2 * i + 1]; }
+}
@@ -0,0 +1,251 @@
+package battleship.bench;
+
+import battleship.core.*;
+
+/**
+ * BoardLayoutBenchmark compares the memory per board and the shots per second of the bitset
+ * Board against the old Point[][] layout. Both are shot through shot(Point) by the same loop, with
+ * the same checks, the same exception on a repeated shot and the sunk boats told apart on both
+ *
+ * Run it with: java -cp out battleship.bench.BoardLayoutBenchmark
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class BoardLayoutBenchmark {
+
+	/**
+	 * BOARDS is a constant which holds how many boards are kept alive per measurement
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int BOARDS = 20_000;
+
+	/**
+	 * ROUNDS is a constant which holds how many measurements are made, the first half is warm up
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int ROUNDS = 10;
+
+	/**
+	 * FLEET is the standard fleet laid out without overlaps, the other benchmarks of the package use it too
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	static final Boat[] FLEET = {
+		new Boat(BoatType.LARGE, BoatOrientation.HORIZONTAL, new Point(0, 0)),
+		new Boat(BoatType.BIG, BoatOrientation.HORIZONTAL, new Point(0, 2)),
+		new Boat(BoatType.BIG, BoatOrientation.HORIZONTAL, new Point(5, 2)),
+		new Boat(BoatType.MEDIUM, BoatOrientation.VERTICAL, new Point(0, 4)),
+		new Boat(BoatType.MEDIUM, BoatOrientation.VERTICAL, new Point(2, 4)),
+		new Boat(BoatType.MEDIUM, BoatOrientation.VERTICAL, new Point(4, 4)),
+		new Boat(BoatType.SMALL, new Point(6, 6)),
+		new Boat(BoatType.SMALL, new Point(8, 6)),
+		new Boat(BoatType.SMALL, new Point(6, 8)),
+		new Boat(BoatType.SMALL, new Point(8, 8))
+	};
+
+	/**
+	 * sink is where the benchmark results are accumulated so the JIT can not drop the work
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static long sink;
+
+	/**
+	 * Layout is the entry point both layouts are shot through
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	@FunctionalInterface
+	private interface Layout<B> {
+
+		/**
+		 * shot shoots a point of a board, see Board.shot
+		 *
+		 * @since 1.1
+		 * @access public
+		 *
+		 * @throws InvalidPosition if the given position if not on the board
+		 * @throws ShootedPoint if the given position has been shot
+		 *
+		 * @param board is the board to be shot
+		 * @param point is the point to be shooted
+		 *
+		 * @return true if has boat on point and false if not
+		 *
+		 * */
+		boolean shot(B board, Point point) throws InvalidPosition, ShootedPoint;
+	}
+
+	/**
+	 * usedMemory returns the heap in use after asking for a collection
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the used heap in bytes
+	 *
+	 * */
+	private static long usedMemory() {
+		final Runtime runtime = Runtime.getRuntime();
+
+		for(int i = 0; i < 3; i++) System.gc();
+
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * bitsetBoards creates boards of the current layout with the fleet placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the created boards
+	 *
+	 * */
+	private static Board[] bitsetBoards() throws Exception {
+		final Board[] boards = new Board[BOARDS];
+
+		for(int i = 0; i < BOARDS; i++) {
+			boards[i] = new Board();
+
+			for(final Boat boat : FLEET) boards[i].placeBoat(boat);
+		}
+
+		return boards;
+	}
+
+	/**
+	 * gridBoards creates boards of the Point[][] layout with the fleet placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the created boards
+	 *
+	 * */
+	private static PointGridBoard[] gridBoards() {
+		final PointGridBoard[] boards = new PointGridBoard[BOARDS];
+
+		for(int i = 0; i < BOARDS; i++) {
+			boards[i] = new PointGridBoard();
+
+			for(final Boat boat : FLEET) boards[i].placeBoat(boat);
+		}
+
+		return boards;
+	}
+
+	/**
+	 * shootAll shoots every cell of every board once
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param boards are the boards to be shot
+	 * @param layout is how a board of the layout is shot
+	 *
+	 * @return how many shots were fired
+	 *
+	 * */
+	private static <B> long shootAll(final B[] boards, final Layout<B> layout) throws Exception {
+		final Point point = new Point();
+		long shots = 0;
+
+		for(final B board : boards) {
+			for(int y = 0; y < 10; y++) {
+				for(int x = 0; x < 10; x++) {
+					point.setX(x);
+					point.setY(y);
+
+					if(layout.shot(board, point)) sink++;
+					shots++;
+				}
+			}
+		}
+
+		return shots;
+	}
+
+	/**
+	 * checkRepeat shoots a cell of a board twice, out of the measurements since the exception costs
+	 * far more than a shot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IllegalStateException if the layout accepted the repeated shot
+	 *
+	 * @param board is the board to be shot
+	 * @param layout is how a board of the layout is shot
+	 *
+	 * */
+	private static <B> void checkRepeat(final B board, final Layout<B> layout) throws Exception {
+		final Point point = new Point(0, 0);
+
+		layout.shot(board, point);
+
+		try {
+			layout.shot(board, point);
+
+		} catch (ShootedPoint e) {
+			return;
+		}
+
+		throw new IllegalStateException("Tiro repetido aceito em " + point);
+	}
+
+	public static void main(String[] args) throws Exception {
+		long before = usedMemory();
+		Board[] bitset = bitsetBoards();
+		final long bitsetBytes = (usedMemory() - before) / BOARDS;
+		sink += bitset.length;
+		bitset = null;
+
+		before = usedMemory();
+		PointGridBoard[] grid = gridBoards();
+		final long gridBytes = (usedMemory() - before) / BOARDS;
+		sink += grid.length;
+		grid = null;
+
+		System.out.printf("Memória por tabuleiro: bitset=%d bytes, Point[][]=%d bytes\n", bitsetBytes, gridBytes);
+
+		checkRepeat(new Board(), Board::shot);
+		checkRepeat(new PointGridBoard(), PointGridBoard::shot);
+
+		for(int round = 0; round < ROUNDS; round++) {
+			bitset = bitsetBoards();
+			grid = gridBoards();
+
+			long start = System.nanoTime();
+			final long bitsetShots = shootAll(bitset, Board::shot);
+			final double bitsetRate = bitsetShots / ((System.nanoTime() - start) / 1e9);
+
+			start = System.nanoTime();
+			final long gridShots = shootAll(grid, PointGridBoard::shot);
+			final double gridRate = gridShots / ((System.nanoTime() - start) / 1e9);
+
+			for(final PointGridBoard board : grid) sink += board.getSunk();
+
+			if(round >= ROUNDS / 2) {
+				System.out.printf("Rodada %d: bitset=%.0f tiros/s, Point[][]=%.0f tiros/s\n", round, bitsetRate, gridRate);
+			}
+		}
+
+		if(sink == 0) System.out.println("Nenhum acerto registrado");
+	}
+}
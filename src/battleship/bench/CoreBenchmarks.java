@@ -0,0 +1,637 @@
+package battleship.bench;
+
+import battleship.Game;
+import battleship.Screen;
+import battleship.core.*;
+import battleship.engine.GameEngine;
+import battleship.metrics.Histogram;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CoreBenchmarks measures the hot paths of the game: placing boats, shooting, rendering, scoring and
+ * a whole scripted game through Game.shoot, giving the baseline every optimisation is judged against
+ *
+ * Run it with: ./bench.sh [part of a benchmark name]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class CoreBenchmarks {
+
+	/**
+	 * OPS is a constant which holds the number of operations per iteration of the fast benchmarks
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int OPS = 200_000;
+
+	/**
+	 * GAMES is a constant which holds the number of games per iteration of the scripted game benchmark
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int GAMES = 200;
+
+	/**
+	 * NULL_OUT is the stream where the rendering benchmarks print to
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+
+	/**
+	 * boardsWithFleet creates boards with the benchmark fleet placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param count is the number of boards
+	 *
+	 * @return the created boards
+	 *
+	 * */
+	private static Board[] boardsWithFleet(int count) throws Exception {
+		final Board[] boards = new Board[count];
+
+		for(int i = 0; i < count; i++) {
+			boards[i] = new Board();
+
+			for(final Boat boat : BoardLayoutBenchmark.FLEET) boards[i].placeBoat(boat);
+		}
+
+		return boards;
+	}
+
+	/**
+	 * placeBoat creates the benchmark of placing a boat on an empty board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param boat is the boat to be placed
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark placeBoat(final Boat boat) {
+		return new MicroBenchmark("Board.placeBoat (" + boat.getOrientation() + ")", OPS) {
+			private Board[] boards;
+
+			@Override
+			protected void teardown() {
+				this.boards = null;
+			}
+
+			@Override
+			protected void setup() {
+				this.boards = new Board[this.ops];
+
+				for(int i = 0; i < this.ops; i++) this.boards[i] = new Board();
+			}
+
+			@Override
+			protected long run() throws Exception {
+				long placed = 0;
+
+				for(final Board board : this.boards) {
+					if(board.placeBoat(boat)) placed++;
+				}
+
+				return placed;
+			}
+		};
+	}
+
+	/**
+	 * placeFleet creates the benchmark of placing the whole standard fleet on an empty board at once
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark placeFleet() {
+		final List<Boat> fleet = Arrays.asList(BoardLayoutBenchmark.FLEET);
+
+		return new MicroBenchmark("Board.placeFleet", OPS / 10) {
+			private Board[] boards;
+
+			@Override
+			protected void teardown() {
+				this.boards = null;
+			}
+
+			@Override
+			protected void setup() {
+				this.boards = new Board[this.ops];
+
+				for(int i = 0; i < this.ops; i++) this.boards[i] = new Board();
+			}
+
+			@Override
+			protected long run() throws Exception {
+				long boats = 0;
+
+				for(final Board board : this.boards) {
+					board.placeFleet(fleet);
+					boats += board.getBoatCount();
+				}
+
+				return boats;
+			}
+		};
+	}
+
+	/**
+	 * canPlace creates the benchmark of checking every origin and orientation of a boat against a board
+	 * with the fleet placed, the way the bots enumerate placements
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param type is the type of the boat to be checked
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark canPlace(final BoatType type) {
+		return new MicroBenchmark("Board.canPlace (" + type + ")", OPS) {
+			private Board board;
+
+			@Override
+			protected void setup() throws Exception {
+				this.board = boardsWithFleet(1)[0];
+			}
+
+			@Override
+			protected long run() {
+				long legal = 0;
+
+				for(int i = 0; i < this.ops; i++) {
+					final int cell = i % 100;
+					final BoatOrientation orientation = (i & 1) == 0 ? BoatOrientation.HORIZONTAL : BoatOrientation.VERTICAL;
+
+					if(this.board.canPlace(type, orientation, cell % 10, cell / 10)) legal++;
+				}
+
+				return legal;
+			}
+		};
+	}
+
+	/**
+	 * shotOnFreshBoards creates the benchmark of shooting a cell not shot yet
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param name is the name of the benchmark
+	 * @param point is the cell to be shot on every board
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark shotOnFreshBoards(final String name, final Point point) {
+		return new MicroBenchmark(name, OPS) {
+			private Board[] boards;
+
+			@Override
+			protected void teardown() {
+				this.boards = null;
+			}
+
+			@Override
+			protected void setup() throws Exception {
+				this.boards = boardsWithFleet(this.ops);
+			}
+
+			@Override
+			protected long run() throws Exception {
+				long hits = 0;
+
+				for(final Board board : this.boards) {
+					if(board.shot(point)) hits++;
+				}
+
+				return hits;
+			}
+		};
+	}
+
+	/**
+	 * rejectedShot creates the benchmark of a shot which the board rejects with an exception
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param name is the name of the benchmark
+	 * @param point is the cell to be shot
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark rejectedShot(final String name, final Point point) {
+		return new MicroBenchmark(name, OPS) {
+			private Board board;
+
+			@Override
+			protected void setup() throws Exception {
+				this.board = boardsWithFleet(1)[0];
+				this.board.fire(0, 0);
+			}
+
+			@Override
+			protected long run() {
+				long rejected = 0;
+
+				for(int i = 0; i < this.ops; i++) {
+					try {
+						this.board.shot(point);
+
+					} catch (InvalidPosition | ShootedPoint e) {
+						rejected++;
+					}
+				}
+
+				return rejected;
+			}
+		};
+	}
+
+	/**
+	 * printBoard creates the benchmark of rendering a board into a null sink
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param withBoats is if the boats should be displayed
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark printBoard(boolean withBoats) {
+		return new MicroBenchmark("Board.printBoard (" + (withBoats ? "boats" : "fog") + ")", OPS / 10) {
+			private Board board;
+
+			@Override
+			protected void setup() throws Exception {
+				this.board = boardsWithFleet(1)[0];
+
+				for(int i = 0; i < 100; i += 3) this.board.fire(i % 10, i / 10);
+			}
+
+			@Override
+			protected long run() {
+				final PrintStream console = System.out;
+				System.setOut(NULL_OUT);
+
+				try {
+					for(int i = 0; i < this.ops; i++) this.board.printBoard(withBoats);
+
+				} finally {
+					System.setOut(console);
+				}
+
+				return this.ops;
+			}
+		};
+	}
+
+	/**
+	 * appendTo creates the benchmark of composing a board frame, which is what printBoard does each time
+	 * the board changed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param withBoats is if the boats should be displayed
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark appendTo(boolean withBoats) {
+		return new MicroBenchmark("Board.appendTo (" + (withBoats ? "boats" : "fog") + ")", OPS / 10) {
+			private Board board;
+			private final StringBuilder frame = new StringBuilder(1024);
+
+			@Override
+			protected void setup() throws Exception {
+				this.board = boardsWithFleet(1)[0];
+
+				for(int i = 0; i < 100; i += 3) this.board.fire(i % 10, i / 10);
+			}
+
+			@Override
+			protected long run() {
+				long length = 0;
+
+				for(int i = 0; i < this.ops; i++) {
+					this.frame.setLength(0);
+					this.board.appendTo(this.frame, withBoats);
+					length += this.frame.length();
+				}
+
+				return length;
+			}
+		};
+	}
+
+	/**
+	 * fireWithMetrics creates the benchmark of shooting every cell of boards with the metrics on or off,
+	 * the difference between both is the overhead of the metrics on the hottest path
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param on is if the metrics are recorded
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark fireWithMetrics(boolean on) {
+		return new MicroBenchmark("Board.fire (metrics " + (on ? "on" : "off") + ")", OPS) {
+			private Board[] boards;
+
+			@Override
+			protected void teardown() {
+				this.boards = null;
+			}
+
+			@Override
+			protected void setup() throws Exception {
+				this.boards = boardsWithFleet(this.ops / 100);
+			}
+
+			@Override
+			protected long run() {
+				final boolean enabled = GameMetrics.isEnabled();
+				long hits = 0;
+
+				GameMetrics.setEnabled(on);
+
+				try {
+					for(final Board board : this.boards) {
+						for(int cell = 0; cell < 100; cell++) {
+							if(board.fire(cell % 10, cell / 10).isHit()) hits++;
+						}
+					}
+
+				} finally {
+					GameMetrics.setEnabled(enabled);
+				}
+
+				return hits;
+			}
+		};
+	}
+
+	/**
+	 * salvo creates the benchmark of shooting every cell of boards with salvos of a row each, from cell
+	 * masks or from coordinates, an operation is a cell so it compares with Board.fire
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param masks is true to fire from masks and false to fire from coordinates
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark salvo(boolean masks) {
+		return new MicroBenchmark("Board.salvo (" + (masks ? "mask" : "cells") + ")", OPS) {
+			private final long[][] rows = new long[10][2];
+			private final int[] xs = new int[10];
+			private final int[][] ys = new int[10][10];
+			private final long[] hits = new long[2];
+			private final long[] misses = new long[2];
+			private final long[] sunk = new long[2];
+			private Board[] boards;
+
+			@Override
+			protected void teardown() {
+				this.boards = null;
+			}
+
+			@Override
+			protected void setup() throws Exception {
+				this.boards = boardsWithFleet(this.ops / 100);
+
+				for(int y = 0; y < 10; y++) {
+					for(int x = 0; x < 10; x++) {
+						this.rows[y][(y * 10 + x) >>> 6] |= 1L << (y * 10 + x);
+						this.xs[x] = x;
+						this.ys[y][x] = y;
+					}
+				}
+			}
+
+			@Override
+			protected long run() {
+				long hits = 0;
+
+				for(final Board board : this.boards) {
+					for(int y = 0; y < 10; y++) {
+						hits += masks
+								? board.salvo(this.rows[y], this.hits, this.misses, this.sunk)
+								: board.salvo(this.xs, this.ys[y], 10, this.hits, this.misses, this.sunk);
+					}
+				}
+
+				return hits;
+			}
+		};
+	}
+
+	/**
+	 * histogram creates the benchmark of recording a duration on a histogram
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark histogram() {
+		return new MicroBenchmark("Histogram.record", OPS) {
+			private final Histogram histogram = new Histogram();
+
+			@Override
+			protected long run() {
+				for(int i = 0; i < this.ops; i++) this.histogram.record(i * 37L);
+
+				return this.histogram.getSum();
+			}
+		};
+	}
+
+	/**
+	 * gameScript writes the input of a game where both players miss once and then the first one
+	 * hits every cell of the fleet, each shot is followed by the Enter which continues the game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the typed coordinates, one per line
+	 *
+	 * */
+	private static byte[] gameScript() {
+		final StringBuilder script = new StringBuilder("9\n9\n\n9\n9\n\n");
+
+		for(final Boat boat : BoardLayoutBenchmark.FLEET) {
+			final Point p = boat.getInitialPoint();
+			final int size = boat.getOrientation() == BoatOrientation.NONE ? 1 : boat.getType().getSize();
+
+			for(int k = 0; k < size; k++) {
+				final int x = boat.getOrientation() == BoatOrientation.HORIZONTAL ? p.getX() + k : p.getX();
+				final int y = boat.getOrientation() == BoatOrientation.VERTICAL ? p.getY() + k : p.getY();
+
+				script.append(x).append('\n').append(y).append("\n\n");
+			}
+		}
+
+		return script.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * scriptedGame creates the benchmark of a whole game played through Game.shoot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the benchmark
+	 *
+	 * */
+	private static MicroBenchmark scriptedGame() {
+		final byte[] script = gameScript();
+
+		return new MicroBenchmark("Game.shoot (scripted game)", GAMES) {
+			private Game[] games;
+			private Player[][] players;
+
+			@Override
+			protected void teardown() {
+				this.games = null;
+				this.players = null;
+			}
+
+			@Override
+			protected void setup() throws Exception {
+				this.games = new Game[this.ops];
+				this.players = new Player[this.ops][];
+
+				for(int i = 0; i < this.ops; i++) {
+					this.games[i] = new Game(GameConfig.standard(), new ByteArrayInputStream(script), NULL_OUT, new Screen(true));
+					this.players[i] = new Player[] { new Player("Ana"), new Player("Bia") };
+
+					for(final Player player : this.players[i]) {
+						for(final Boat boat : BoardLayoutBenchmark.FLEET) player.addBoat(boat);
+					}
+
+					this.players[i][0].swapTurn();
+				}
+			}
+
+			@Override
+			protected long run() {
+				long score = 0;
+
+				for(int i = 0; i < this.ops; i++) {
+					final Player first = this.players[i][0];
+					final Player second = this.players[i][1];
+
+					while(!GameEngine.isDefeated(first) && !GameEngine.isDefeated(second)) {
+						if(first.isMyTurn())
+							this.games[i].shoot(first, second);
+
+						else
+							this.games[i].shoot(second, first);
+					}
+
+					score += first.getScore();
+				}
+
+				return score;
+			}
+		};
+	}
+
+	/**
+	 * benchmarks returns every benchmark of the suite
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the benchmarks in the order they run
+	 *
+	 * */
+	private static List<MicroBenchmark> benchmarks() {
+		final List<MicroBenchmark> benchmarks = new ArrayList<>();
+
+		benchmarks.add(placeBoat(new Boat(BoatType.LARGE, BoatOrientation.HORIZONTAL, new Point(3, 3))));
+		benchmarks.add(placeBoat(new Boat(BoatType.LARGE, BoatOrientation.VERTICAL, new Point(3, 3))));
+		benchmarks.add(placeBoat(new Boat(BoatType.SMALL, new Point(3, 3))));
+		benchmarks.add(placeFleet());
+		benchmarks.add(canPlace(BoatType.LARGE));
+		benchmarks.add(canPlace(BoatType.MEDIUM));
+
+		benchmarks.add(shotOnFreshBoards("Board.shot (hit)", new Point(0, 0)));
+		benchmarks.add(shotOnFreshBoards("Board.shot (miss)", new Point(9, 9)));
+		benchmarks.add(rejectedShot("Board.shot (repeat)", new Point(0, 0)));
+		benchmarks.add(rejectedShot("Board.shot (invalid)", new Point(-1, 5)));
+		benchmarks.add(fireWithMetrics(false));
+		benchmarks.add(fireWithMetrics(true));
+		benchmarks.add(salvo(true));
+		benchmarks.add(salvo(false));
+		benchmarks.add(histogram());
+
+		benchmarks.add(printBoard(true));
+		benchmarks.add(printBoard(false));
+		benchmarks.add(appendTo(true));
+		benchmarks.add(appendTo(false));
+
+		benchmarks.add(new MicroBenchmark("Player.incrementScore", OPS) {
+			private Player player;
+
+			@Override
+			protected void setup() {
+				this.player = new Player("Ana");
+			}
+
+			@Override
+			protected long run() {
+				for(int i = 0; i < this.ops; i++) this.player.incrementScore();
+
+				return this.player.getScore();
+			}
+		});
+
+		benchmarks.add(scriptedGame());
+
+		return benchmarks;
+	}
+
+	public static void main(String[] args) throws Exception {
+		final String filter = args.length > 0 ? args[0] : "";
+
+		for(final MicroBenchmark benchmark : benchmarks()) {
+			if(benchmark.getName().contains(filter)) benchmark.measure();
+		}
+
+		if(MicroBenchmark.getSink() == 0) System.out.println("Nenhum trabalho medido");
+	}
+}
@@ -0,0 +1,175 @@
+package battleship.bench;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * MicroBenchmark is a small harness which warms a workload up and then measures the time and the
+ * bytes allocated per operation, the work of each iteration is prepared by setup outside the timing
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public abstract class MicroBenchmark {
+
+	/**
+	 * WARMUP_ITERATIONS is a constant which holds how many iterations run before measuring
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int WARMUP_ITERATIONS = 5;
+
+	/**
+	 * MEASURED_ITERATIONS is a constant which holds how many iterations are measured
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int MEASURED_ITERATIONS = 10;
+
+	/**
+	 * THREADS is the bean which reports the bytes allocated by the current thread
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	/**
+	 * sink keeps the checksums of the workloads so the JIT can not drop the work
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static long sink;
+
+	/**
+	 * name is the name shown on the report
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final String name;
+
+	/**
+	 * ops is the number of operations of each iteration
+	 *
+	 * @since 1.1
+	 * @access protected
+	 *
+	 * */
+	protected final int ops;
+
+	/**
+	 * MicroBenchmark is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access protected
+	 *
+	 * @param name is the name shown on the report
+	 * @param ops is the number of operations of each iteration
+	 *
+	 * */
+	protected MicroBenchmark(final String name, int ops) {
+		this.name = name;
+		this.ops = ops;
+	}
+
+	/**
+	 * getName returns the name shown on the report
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the name of the benchmark
+	 *
+	 * */
+	public String getName() { return this.name; }
+
+	/**
+	 * setup prepares the state of one iteration, it is not measured
+	 *
+	 * @since 1.1
+	 * @access protected
+	 *
+	 * */
+	protected void setup() throws Exception {}
+
+	/**
+	 * teardown drops the state of one iteration after it ran, so the state of the next setup and of the
+	 * other benchmarks does not have to fit the heap next to it, it is not measured
+	 *
+	 * @since 1.1
+	 * @access protected
+	 *
+	 * */
+	protected void teardown() {}
+
+	/**
+	 * run runs the operations of one iteration
+	 *
+	 * @since 1.1
+	 * @access protected
+	 *
+	 * @return a checksum of the work done
+	 *
+	 * */
+	protected abstract long run() throws Exception;
+
+	/**
+	 * measure runs the warm up and the measured iterations and prints the averages
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public void measure() throws Exception {
+		for(int i = 0; i < WARMUP_ITERATIONS; i++) {
+			this.setup();
+			sink += this.run();
+			this.teardown();
+		}
+
+		final long thread = Thread.currentThread().getId();
+		long nanos = 0;
+		long bytes = 0;
+
+		for(int i = 0; i < MEASURED_ITERATIONS; i++) {
+			this.setup();
+
+			final long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+			final long start = System.nanoTime();
+
+			sink += this.run();
+
+			nanos += System.nanoTime() - start;
+			bytes += THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+			this.teardown();
+		}
+
+		final double totalOps = (double) this.ops * MEASURED_ITERATIONS;
+
+		System.out.printf("%-28s %12.1f ns/op %12.1f B/op %10.1f MB/s\n",
+				this.name, nanos / totalOps, bytes / totalOps, bytes / (nanos / 1e9) / (1024 * 1024));
+	}
+
+	/**
+	 * getSink returns the accumulated checksums
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the accumulated checksums
+	 *
+	 * */
+	public static long getSink() { return sink; }
+}
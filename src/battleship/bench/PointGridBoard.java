@@ -0,0 +1,164 @@
+package battleship.bench;
+
+import battleship.core.*;
+
+/**
+ * PointGridBoard is the Point[][] board layout used before the bitset Board, it is kept only
+ * as the baseline of the layout benchmark
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access default
+ *
+ * */
+class PointGridBoard {
+
+	/**
+	 * SIZE is a constant which holds the number of columns and rows of the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int SIZE = 10;
+
+	/**
+	 * board is the matrix of Points where the game will be played
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Point[][] board;
+
+	/**
+	 * sunk counts the boats sunk, the Point[][] board had no boat counters so a hit walks the cells of its boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int sunk;
+
+	/**
+	 * PointGridBoard is the constructor of the class, where the matrix gets started
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	PointGridBoard() {
+		this.board = new Point[SIZE][SIZE];
+
+		for(int i = 0; i < SIZE; i++) {
+			for(int j = 0; j < SIZE; j++) {
+				this.board[i][j] = new Point(i, j);
+			}
+		}
+	}
+
+	/**
+	 * placeBoat places a boat the same way the Point[][] board used to do
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param boat the boat to be placed
+	 *
+	 * */
+	void placeBoat(final Boat boat) {
+		final Point p = boat.getInitialPoint();
+		final int size = boat.getOrientation() == BoatOrientation.NONE ? 1 : boat.getType().getSize();
+
+		for(int k = 0; k < size; k++) {
+			final Point cell = boat.getOrientation() == BoatOrientation.VERTICAL
+					? this.board[p.getY() + k][p.getX()]
+					: this.board[p.getY()][p.getX() + k];
+
+			cell.occupy();
+			cell.setOrientation(boat.getOrientation());
+
+			if(k == 0) cell.setFirst();
+			if(k == 0 || k == size - 1) cell.setEdge();
+		}
+	}
+
+	/**
+	 * shot shoots a point the same way the Point[][] board used to do, with the checks of Board.shot and
+	 * the sunk boats told apart as Board does, so both layouts are measured doing the same work
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @throws InvalidPosition if the given position if not on the board
+	 * @throws ShootedPoint if the given position has been shot
+	 *
+	 * @param point is the point to be shooted
+	 *
+	 * @return true if has boat on point and false if not
+	 *
+	 * */
+	boolean shot(final Point point) throws InvalidPosition, ShootedPoint {
+		final int x = point.getX();
+		final int y = point.getY();
+
+		if(x < 0 || y < 0 || x >= SIZE || y >= SIZE) throw new InvalidPosition(point);
+
+		if(this.board[y][x].isShot())
+			throw new ShootedPoint(point);
+
+		this.board[y][x].shot();
+
+		if(!this.board[y][x].isOccupied()) return false;
+
+		if(this.isSunk(x, y)) this.sunk++;
+
+		return true;
+	}
+
+	/**
+	 * isSunk walks the boat of a hit cell from its first cell to its last edge
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param x is the column of the hit cell
+	 * @param y is the row of the hit cell
+	 *
+	 * @return true if every cell of the boat was shot
+	 *
+	 * */
+	private boolean isSunk(int x, int y) {
+		final BoatOrientation orientation = this.board[y][x].getOrientation();
+
+		if(orientation == BoatOrientation.NONE) return true;
+
+		final int dx = orientation == BoatOrientation.HORIZONTAL ? 1 : 0;
+		final int dy = 1 - dx;
+
+		while(!this.board[y][x].isFirst()) {
+			x -= dx;
+			y -= dy;
+		}
+
+		while(true) {
+			if(!this.board[y][x].isShot()) return false;
+
+			x += dx;
+			y += dy;
+
+			if(this.board[y][x].isEdge()) return this.board[y][x].isShot();
+		}
+	}
+
+	/**
+	 * getSunk returns how many boats were sunk
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @return the count of sunk boats
+	 *
+	 * */
+	int getSunk() { return this.sunk; }
+}
@@ -1,7 +1,17 @@
 package battleship.core;
 
+import battleship.jfr.PlacementEvent;
+import battleship.jfr.ShotEvent;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
 /**
- * Board is the class that handles all the operations in the board
+ * Board is the class that handles all the operations in the board, every cell state is kept
+ * as a bit in packed bitsets so placement and hit checks are mask operations. The bitsets
+ * live in a CellStorage, which keeps every cell or, for SparseBoard, only the written regions.
+ * Each occupied cell also maps to the id of its boat, whose remaining hits make a sunk boat and
+ * the end of the fleet O(1) to find
  * 
  * @author Gustavo Reis Bauer
  * @since 1.0
@@ -11,7 +21,7 @@ package battleship.core;
 public class Board {
 	
 	/**
-	 * COLS is a constant which holds the number of columns in the board
+	 * COLS is a constant which holds the number of columns in a standard board
 	 * 
 	 * @since 1.0
 	 * @access private
@@ -20,7 +30,7 @@ public class Board {
 	private static final int COLS = 10;
 	
 	/**
-	 * ROWS is a constant which holds the number of rows in the board
+	 * ROWS is a constant which holds the number of rows in a standard board
 	 * 
 	 * @since 1.0
 	 * @access private
@@ -29,31 +39,288 @@ public class Board {
 	private static final int ROWS = 10;
 		
 	/**
-	 * board is the matrix of Points where the game will be played
-	 * 
-	 * @since 1.0
+	 * NEW_LINE is a constant which holds the line separator used by the rendered frames
+	 *
+	 * @since 1.1
 	 * @access private
-	 * 
+	 *
+	 * */
+	private static final String NEW_LINE = System.lineSeparator();
+
+	/**
+	 * INITIAL_BOATS is a constant which holds how many boats the per boat arrays hold before growing, the
+	 * boats of the standard fleet, so a standard board never grows them and a larger fleet grows them once
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int INITIAL_BOATS = 10;
+
+	/**
+	 * SPARSE is the flag of a snapshot of a board which keeps only the written regions
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int SPARSE = 1;
+
+	/**
+	 * VIEW_BOATS is the bit added to the state of a cell on the glyph table when the boats are displayed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int VIEW_BOATS = 1 << CellStorage.PLANES;
+
+	/**
+	 * GLYPHS is the table of the character of every cell state, on the fog and on the boats views
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final char[] GLYPHS = glyphs();
+
+	/**
+	 * SHOT_LIST is the flag of a snapshot whose shots are written as the gaps between the shot cells
+	 * instead of a bitmap
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int SHOT_LIST = 2;
+
+	/**
+	 * width is the number of columns of the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int width;
+
+	/**
+	 * height is the number of rows of the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int height;
+
+	/**
+	 * cells keeps the occupied, shot, edge, first, vertical and single bit planes of the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final CellStorage cells;
+
+	/**
+	 * placements is the shared table of the boat footprints of the board size
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final PlacementTable placements;
+
+	/**
+	 * boatOrigins holds the bit index of the first cell of each boat, indexed by the boat id
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int[] boatOrigins;
+
+	/**
+	 * boatTypes holds the type of each boat, indexed by the boat id
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private BoatType[] boatTypes;
+
+	/**
+	 * boatOrientations holds the orientation of each boat, indexed by the boat id
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private BoatOrientation[] boatOrientations;
+
+	/**
+	 * boatRemaining holds how many cells of each boat were not hit yet, indexed by the boat id
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int[] boatRemaining;
+
+	/**
+	 * boatCount counts the boats placed, the id of a boat is the order it was placed in
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int boatCount;
+
+	/**
+	 * remainingBoats counts the boats which were not sunk yet
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
 	 * */
-	private final Point[][] board;
+	private int remainingBoats;
 
 	/**
-	 * Board is the constructor for the Board class, where the matrix gets started
+	 * listener is told about the boats placed and the shots fired, it is null when nobody listens
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private BoardListener listener;
+
+	/**
+	 * version counts the changes of the board, a boat placed or a cell shot, so a rendered frame can be
+	 * reused while the board does not change
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int version;
+
+	/**
+	 * frameTemplate is the frame of the board with water on every cell, it is composed the first time the
+	 * board is rendered
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private String frameTemplate;
+
+	/**
+	 * Board is the constructor for the Board class, it creates a standard 10x10 board
 	 * 
 	 * @since 1.0
 	 * @access public
 	 * 
 	 * */
 	public Board() {
-		this.board = new Point[COLS][ROWS];
+		this(COLS, ROWS);
+	}
 
-		for(int i = 0; i < this.board.length; i++) {
-			for(int j = 0; j < this.board[i].length; j++) {
-				this.board[i][j] = new Point(i, j);
-			}
-		}
+	/**
+	 * Board is the constructor for a board of any size, where the bitsets get started
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if the board has no cells or more cells than a bitset can index
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 *
+	 * */
+	public Board(int width, int height) {
+		this(width, height, false);
 	}
-	
+
+	/**
+	 * Board is the constructor which chooses between keeping every cell or only the written regions
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @throws IllegalArgumentException if the board has no cells or more cells than a bitset can index
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 * @param sparse is if only the written regions of the board are kept
+	 *
+	 * */
+	Board(int width, int height, boolean sparse) {
+		if(width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Tamanho de tabuleiro inválido: " + width + "x" + height);
+
+		this.width = width;
+		this.height = height;
+
+		final int words = (int) (((long) width * height + Long.SIZE - 1) / Long.SIZE);
+
+		this.cells = sparse ? new SparseCellStorage(words) : new DenseCellStorage(words);
+		this.placements = PlacementTable.forSize(width, height);
+		this.boatOrigins = new int[INITIAL_BOATS];
+		this.boatTypes = new BoatType[INITIAL_BOATS];
+		this.boatOrientations = new BoatOrientation[INITIAL_BOATS];
+		this.boatRemaining = new int[INITIAL_BOATS];
+	}
+
+	/**
+	 * getCells returns the storage of the bit planes
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @return the storage of the board
+	 *
+	 * */
+	CellStorage getCells() { return this.cells; }
+
+	/**
+	 * index returns the bit of a cell in the bitsets
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param x is the column of the cell
+	 * @param y is the row of the cell
+	 *
+	 * @return the bit index of the cell
+	 *
+	 * */
+	private int index(int x, int y) { return y * this.width + x; }
+
+	/**
+	 * test returns if the bit of a cell is set in a plane
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param plane is the plane to be read
+	 * @param i is the bit index of the cell
+	 *
+	 * @return if the bit is set
+	 *
+	 * */
+	private boolean test(int plane, int i) { return (this.cells.word(plane, i >>> 6) & (1L << i)) != 0; }
+
+	/**
+	 * set sets the bit of a cell in a plane
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param plane is the plane to be written
+	 * @param i is the bit index of the cell
+	 *
+	 * */
+	private void set(int plane, int i) { this.cells.or(plane, i >>> 6, 1L << i); }
+
 	/**
 	 * isValidPosition verify if the given point is in the border of the board matrix
 	 * 
@@ -65,12 +332,30 @@ public class Board {
 	 * @return if the Point p is within the matrix borders
 	 * 
 	 * */
-	public static boolean isValidPosition(final Point p) {
-		return p.getX() < COLS && p.getY() < ROWS && p.getX() >= 0 && p.getY() >= 0;
+	public boolean isValidPosition(final Point p) {
+		return isValidPosition(p.getX(), p.getY());
+	}
+
+	/**
+	 * isValidPosition verify if the given coordinates are in the border of the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column to be checked
+	 * @param y is the row to be checked
+	 *
+	 * @return if the coordinates are within the board borders
+	 *
+	 * */
+	public boolean isValidPosition(int x, int y) {
+		return x < this.width && y < this.height && x >= 0 && y >= 0;
 	}
 	
 	/**
-	 * placeBoat places a boat in the board if the given boat is valid
+	 * placeBoat places a boat in the board if the given boat is valid, the bounds come from one lookup on
+	 * the placement table and the whole footprint is checked against the occupied plane before any cell
+	 * is committed
 	 *
 	 * @since 1.0
 	 * @access public
@@ -78,6 +363,7 @@ public class Board {
 	 * @throws InvalidPosition if any of the boat given positions are invalid
 	 * @throws AlreadyHaveBoat if any of the positions provided for the boat are occupied
 	 * @throws ArrayIndexOutOfBoundsException if any of the positions provided for the boat exceeds the limit of the array
+	 * @throws IllegalStateException if the board already holds as many boats as a boat id can tell apart
 	 *
 	 * @param boat the boat to be placed
 	 * 
@@ -85,178 +371,1255 @@ public class Board {
 	 *
 	 * */
 	public boolean placeBoat(final Boat boat) throws InvalidPosition, AlreadyHaveBoat, ArrayIndexOutOfBoundsException {
-		final int boatSize = boat.getType().getSize();
+		final BoatType type = boat.getType();
 		final BoatOrientation orientation = boat.getOrientation();
 		final Point initialPoint = boat.getInitialPoint();
-		
-		if(!isValidPosition(initialPoint)) throw new InvalidPosition(initialPoint);
+		final int x = initialPoint.getX();
+		final int y = initialPoint.getY();
 
-		switch(orientation) {
-			case HORIZONTAL:
-				for(int i = initialPoint.getX(); i < boatSize + initialPoint.getX(); i++) {
-					if(this.board[initialPoint.getY()][i].isOccupied())
-						throw new AlreadyHaveBoat(this.board[initialPoint.getY()][i]);
-				}
-
-				for(int i = initialPoint.getX(); i < boatSize + initialPoint.getX(); i++) {
-					if(!isValidPosition(this.board[initialPoint.getY()][i]) || boatSize + initialPoint.getX() > ROWS) {
-						throw new InvalidPosition(this.board[initialPoint.getY()][i]);
-					}
-
-					this.board[initialPoint.getY()][i].occupy();
-					this.board[initialPoint.getY()][i].setOrientation(BoatOrientation.HORIZONTAL);
-
-					if(i == boatSize + initialPoint.getX() - 1 || i == initialPoint.getX()) {
-						this.board[initialPoint.getY()][i].setEdge();
-					}
-					
-					if(i == initialPoint.getX()) {
-						this.board[initialPoint.getY()][i].setFirst();
-					}
-				}
-
-				return true;
-
-			case VERTICAL:
-				for(int i = initialPoint.getY(); i < boatSize + initialPoint.getY(); i++) {
-					if(this.board[i][initialPoint.getX()].isOccupied()) {
-						throw new AlreadyHaveBoat(this.board[initialPoint.getY()][i]);
-					}
+		GameMetrics.placements(1);
 
-				}
+		if(!isValidPosition(initialPoint)) {
+			GameMetrics.rejection(PlacementError.OUT_OF_BOUNDS);
+			placement(type, orientation, x, y, PlacementError.OUT_OF_BOUNDS.name());
+			throw new InvalidPosition(initialPoint);
+		}
 
-				for(int i = initialPoint.getY(); i < boatSize+initialPoint.getY(); i++) {
-					if(!isValidPosition(this.board[i][initialPoint.getX()]) || boatSize + initialPoint.getY() > COLS) {
-						throw new InvalidPosition(this.board[i][initialPoint.getX()]);
-					}
+		final int length = PlacementTable.length(type, orientation);
 
-					this.board[i][initialPoint.getX()].occupy();
-					this.board[i][initialPoint.getX()].setOrientation(BoatOrientation.VERTICAL);
+		if(!this.placements.fits(type, orientation, x, y)) {
+			GameMetrics.rejection(PlacementError.OUT_OF_BOUNDS);
+			placement(type, orientation, x, y, PlacementError.OUT_OF_BOUNDS.name());
 
-					if(i == boatSize+initialPoint.getY() - 1 || i == initialPoint.getY()) {
-						this.board[i][initialPoint.getX()].setEdge();
-					}
+			throw orientation == BoatOrientation.VERTICAL
+					? new InvalidPosition(new Point(x, y + length - 1))
+					: new InvalidPosition(new Point(x + length - 1, y));
+		}
 
-					if(i == initialPoint.getY()) {
-						this.board[i][initialPoint.getX()].setFirst();
-					}
-				}
+		final int firstCell = index(x, y);
+		final int footprint = this.placements.footprint(type, orientation, firstCell & 63);
+		final int collision = this.collision(footprint, firstCell >>> 6);
 
-				return true;
-				
-			case NONE:
-				if(!isValidPosition(initialPoint)) throw new InvalidPosition(initialPoint);
+		if(collision >= 0) {
+			GameMetrics.rejection(PlacementError.OCCUPIED);
+			placement(type, orientation, x, y, PlacementError.OCCUPIED.name());
+			throw new AlreadyHaveBoat(new Point(collision % this.width, collision / this.width));
+		}
 
-				if(this.board[initialPoint.getY()][initialPoint.getX()].isOccupied())
-					throw new AlreadyHaveBoat(this.board[initialPoint.getY()][initialPoint.getX()]);
-				
-				this.board[initialPoint.getY()][initialPoint.getX()].occupy();
-				this.board[initialPoint.getY()][initialPoint.getX()].setOrientation(BoatOrientation.NONE);
+		if(this.boatCount == CellStorage.MAX_BOATS) throw new IllegalStateException("O tabuleiro não comporta mais barcos");
 
-				return true;
-		}
+		this.place(type, orientation, firstCell, footprint);
 
-		return false;
+		return true;
 	}
-	
+
 	/**
-	 * shoot shoots a point of a player board
+	 * placeFleet places a whole fleet at once, every boat is validated against the board and against the
+	 * earlier boats of the fleet in one pass, and only if all of them are valid the fleet is committed,
+	 * so a rejected fleet leaves the board untouched
 	 *
-	 * @since 1.0
+	 * @since 1.1
 	 * @access public
-	 * 
-	 * @throws InvalidPosition if the given position if not on the board
-	 * @throws ShootedPoint if the given position has been shot
 	 *
-	 * @param point is the point to be shooted
-	 * 
-	 * @return true if has boat on point and false if not
+	 * @throws InvalidFleet with the reason and the cell of each rejected boat
+	 * @throws IllegalStateException if the board can not hold as many boats as a boat id can tell apart
+	 *
+	 * @param fleet are the boats to be placed
 	 *
 	 * */
-	public boolean shot(final Point point) throws InvalidPosition, ShootedPoint {
-		if(!isValidPosition(point)) throw new InvalidPosition(point);
+	public void placeFleet(final List<Boat> fleet) throws InvalidFleet {
+		final int size = fleet.size();
+
+		if((long) this.boatCount + size > CellStorage.MAX_BOATS) throw new IllegalStateException("O tabuleiro não comporta mais barcos");
+
+		GameMetrics.placements(size);
+
+		final int[] firstCells = new int[size];
+		final int[] footprints = new int[size];
+		PlacementError[] errors = null;
+		Point[] points = null;
+
+		int cells = 0;
+
+		for(final Boat boat : fleet) cells += PlacementTable.length(boat.getType(), boat.getOrientation());
+
+		final int capacity = Integer.highestOneBit(cells) << 2;
+		final int words = (int) (((long) this.width * this.height + Long.SIZE - 1) / Long.SIZE);
+
+		//pending holds the words of the boats accepted so far, indexed by word on small boards and
+		//through an open addressing set, whose keys are word + 1, when the board is larger than the set
+		final int[] pendingWords = words <= capacity ? null : new int[capacity];
+		final long[] pendingMasks = new long[words <= capacity ? words : capacity];
+
+		for(int b = 0; b < size; b++) {
+			final Boat boat = fleet.get(b);
+			final BoatType type = boat.getType();
+			final BoatOrientation orientation = boat.getOrientation();
+			final int x = boat.getInitialPoint().getX();
+			final int y = boat.getInitialPoint().getY();
+			final int length = PlacementTable.length(type, orientation);
+
+			PlacementError error = null;
+			Point point = null;
+
+			if(!isValidPosition(x, y)) {
+				error = PlacementError.OUT_OF_BOUNDS;
+				point = new Point(x, y);
+
+			} else if(!this.placements.fits(type, orientation, x, y)) {
+				error = PlacementError.OUT_OF_BOUNDS;
+				point = orientation == BoatOrientation.VERTICAL ? new Point(x, y + length - 1) : new Point(x + length - 1, y);
+
+			} else {
+				firstCells[b] = index(x, y);
+				footprints[b] = this.placements.footprint(type, orientation, firstCells[b] & 63);
+
+				int cell = this.collision(footprints[b], firstCells[b] >>> 6);
+
+				if(cell >= 0) {
+					error = PlacementError.OCCUPIED;
+
+				} else {
+					cell = this.pendingCollision(pendingWords, pendingMasks, footprints[b], firstCells[b] >>> 6);
+
+					if(cell >= 0) error = PlacementError.OVERLAP;
+				}
+
+				if(error != null) point = new Point(cell % this.width, cell / this.width);
+			}
+
+			if(error == null) continue;
+
+			GameMetrics.rejection(error);
+			placement(type, orientation, x, y, error.name());
+
+			if(errors == null) {
+				errors = new PlacementError[size];
+				points = new Point[size];
+			}
+
+			errors[b] = error;
+			points[b] = point;
+		}
 
-		if(this.board[point.getY()][point.getX()].isShot())
-			throw new ShootedPoint(point);
+		if(errors != null) throw new InvalidFleet(errors, points);
 
-		this.board[point.getY()][point.getX()].shot();
+		for(int b = 0; b < size; b++) {
+			final Boat boat = fleet.get(b);
 
-		return this.board[point.getY()][point.getX()].isOccupied();
+			this.place(boat.getType(), boat.getOrientation(), firstCells[b], footprints[b]);
+		}
 	}
 
 	/**
-	 * printBoard renders the board on screen with the boats has hit
+	 * pendingCollision checks a footprint against the words of the boats of a fleet accepted so far and,
+	 * if there is no collision, adds the footprint to them
 	 *
-	 * @since 1.0
-	 * @access public
+	 * @since 1.1
+	 * @access private
 	 *
-	 * @param withBoats is if the boats should be displayed
+	 * @param words are the keys of the set, the index of a word plus one or 0 for an empty slot, or null
+	 * if masks is indexed by the word itself
+	 * @param masks are the bits of the accepted boats on each word
+	 * @param footprint is the footprint of the boat on the placement table
+	 * @param word is the word of the first cell of the boat
+	 *
+	 * @return the bit index of the first cell which collides or -1 if none does
 	 *
 	 * */
-	public void printBoard(boolean withBoats) {
-		System.out.print("      |");
+	private int pendingCollision(final int[] words, final long[] masks, int footprint, int word) {
+		final int end = this.placements.end(footprint);
 
-		for(int i = 0; i < 10; i++){
-			System.out.print("  " + i + "  |");
+		for(int e = this.placements.first(footprint); e < end; e++) {
+			final int w = word + this.placements.delta(e);
+			final int slot = slot(words, w);
+			final long collision = words != null && words[slot] == 0 ? 0 : masks[slot] & this.placements.mask(e);
+
+			if(collision != 0) return (w << 6) + Long.numberOfTrailingZeros(collision);
 		}
 
-		System.out.println();
+		for(int e = this.placements.first(footprint); e < end; e++) {
+			final int w = word + this.placements.delta(e);
+			final int slot = slot(words, w);
 
-		for(int i = 0; i < this.board.length; i++) {
-			for(int j = 0; j < this.board[i].length; j++) {
-				if(j == 0) {
-					System.out.print("|  " + i + "  ");
-				}
+			if(words != null) words[slot] = w + 1;
 
+			masks[slot] |= this.placements.mask(e);
+		}
 
-				if((this.board[i][j].isShot() && !this.board[i][j].isOccupied()) || (!this.board[i][j].isOccupied() && withBoats)) {
-					System.out.print("|  ~  ");
-					continue;
-				}
+		return -1;
+	}
 
-				if(!this.board[i][j].isShot() && !withBoats) {
-					System.out.print("|  ~  ");
-					continue;
-				}
+	/**
+	 * slot returns where a word is kept on the pending words of placeFleet, probing the set until the
+	 * word or an empty slot is found
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param words are the keys of the set or null if the masks are indexed by the word itself
+	 * @param w is the index of the word
+	 *
+	 * @return the slot of the word
+	 *
+	 * */
+	private static int slot(final int[] words, int w) {
+		if(words == null) return w;
 
-				if(this.board[i][j].isOccupied() && (this.board[i][j].isShot() || withBoats)) {
-					if(this.board[i][j].getOrientation() == BoatOrientation.NONE) {
-						System.out.print("|  ◙  ");
-						continue;
-					}
+		final int mask = words.length - 1;
+		int slot = (w * 0x9E3779B9) & mask;
 
-					if(!this.board[i][j].isEdge()){
-						System.out.print("|  █  ");
-						continue;
-					}
+		while(words[slot] != 0 && words[slot] != w + 1) slot = (slot + 1) & mask;
 
-					if(this.board[i][j].isEdge()) {
-						switch(this.board[i][j].getOrientation()) {
-							case HORIZONTAL:
+		return slot;
+	}
 
-								if(this.board[i][j].isFirst())
-									System.out.print("|  ◄  ");
+	/**
+	 * place commits a boat which was already validated, it sets its cells on the planes and registers it
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param firstCell is the bit index of the first cell of the boat
+	 * @param footprint is the footprint of the boat on the placement table
+	 *
+	 * */
+	private void place(final BoatType type, final BoatOrientation orientation, int firstCell, int footprint) {
+		final int length = PlacementTable.length(type, orientation);
 
-								else
-									System.out.print("|  ►  ");
+		this.commit(CellStorage.OCCUPIED, footprint, firstCell >>> 6);
+		this.register(type, orientation, firstCell, length);
+		this.version++;
 
-								break;
+		if(orientation == BoatOrientation.VERTICAL) this.commit(CellStorage.VERTICAL, footprint, firstCell >>> 6);
 
-							case VERTICAL:
-								if(this.board[i][j].isFirst())
-									System.out.print("|  ▲  ");
+		if(orientation == BoatOrientation.NONE) {
+			this.set(CellStorage.SINGLE, firstCell);
 
-								else
-									System.out.print("|  ▼  ");
+		} else {
+			final int lastCell = firstCell + (length - 1) * (orientation == BoatOrientation.VERTICAL ? this.width : 1);
 
-								break;
-						}
-					}
-				}
-			}
+			this.set(CellStorage.EDGE, firstCell);
+			this.set(CellStorage.EDGE, lastCell);
+			this.set(CellStorage.FIRST, firstCell);
+		}
+
+		this.placed(type, orientation, firstCell);
+	}
+
+	/**
+	 * placed tells the listener, if there is one, and the flight recorder, if a recording wants it, about
+	 * a boat which was placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param firstCell is the bit index of the first cell of the boat
+	 *
+	 * */
+	private void placed(final BoatType type, final BoatOrientation orientation, int firstCell) {
+		if(this.listener != null) this.listener.boatPlaced(type, orientation, firstCell % this.width, firstCell / this.width);
+
+		placement(type, orientation, firstCell % this.width, firstCell / this.width, PlacementEvent.PLACED);
+	}
+
+	/**
+	 * placement commits a PlacementEvent if a recording has it on, otherwise the event does not escape and
+	 * the JIT drops its allocation
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the first cell of the boat
+	 * @param y is the row of the first cell of the boat
+	 * @param outcome is PLACED or the name of the PlacementError
+	 *
+	 * */
+	private static void placement(final BoatType type, final BoatOrientation orientation, int x, int y, final String outcome) {
+		final PlacementEvent event = new PlacementEvent();
+
+		if(!event.isEnabled()) return;
+
+		event.type = type.name();
+		event.orientation = orientation.name();
+		event.x = x;
+		event.y = y;
+		event.outcome = outcome;
+		event.commit();
+	}
+
+	/**
+	 * register gives the next id to a boat, records it and writes the id on each of its cells
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param firstCell is the bit index of the first cell of the boat
+	 * @param length is the number of cells of the boat
+	 *
+	 * */
+	private void register(final BoatType type, final BoatOrientation orientation, int firstCell, int length) {
+		final int id = this.boatCount++;
+
+		if(id == this.boatOrigins.length) {
+			final int capacity = Math.min(id * 2, CellStorage.MAX_BOATS);
+
+			this.boatOrigins = Arrays.copyOf(this.boatOrigins, capacity);
+			this.boatTypes = Arrays.copyOf(this.boatTypes, capacity);
+			this.boatOrientations = Arrays.copyOf(this.boatOrientations, capacity);
+			this.boatRemaining = Arrays.copyOf(this.boatRemaining, capacity);
+		}
+
+		this.boatOrigins[id] = firstCell;
+		this.boatTypes[id] = type;
+		this.boatOrientations[id] = orientation;
+		this.boatRemaining[id] = length;
+		this.remainingBoats++;
+
+		final int step = orientation == BoatOrientation.VERTICAL ? this.width : 1;
+
+		for(int k = 0; k < length; k++) this.cells.setBoatId(firstCell + k * step, id);
+	}
+
+	/**
+	 * canPlace checks if a boat fits the board and none of its cells is occupied, without allocating or
+	 * throwing, it is meant for the random fleets and the bots which try placements over and over
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the first cell of the boat
+	 * @param y is the row of the first cell of the boat
+	 *
+	 * @return true if placeBoat would place the boat
+	 *
+	 * */
+	public boolean canPlace(final BoatType type, final BoatOrientation orientation, int x, int y) {
+		if(!this.placements.fits(type, orientation, x, y)) return false;
+
+		final int firstCell = index(x, y);
+
+		return this.collision(this.placements.footprint(type, orientation, firstCell & 63), firstCell >>> 6) < 0;
+	}
+
+	/**
+	 * tryPlace places a boat given by its primitive coordinates, it checks the same rules as placeBoat but
+	 * neither allocates a Boat nor throws when the boat is rejected, so the placement strategies can try
+	 * positions over and over
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalStateException if the board already holds as many boats as a boat id can tell apart
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the first cell of the boat
+	 * @param y is the row of the first cell of the boat
+	 *
+	 * @return true if the boat was placed, false if it does not fit or one of its cells is occupied
+	 *
+	 * */
+	public boolean tryPlace(final BoatType type, final BoatOrientation orientation, int x, int y) {
+		GameMetrics.placements(1);
+
+		if(!this.placements.fits(type, orientation, x, y)) {
+			GameMetrics.rejection(PlacementError.OUT_OF_BOUNDS);
+			placement(type, orientation, x, y, PlacementError.OUT_OF_BOUNDS.name());
+			return false;
+		}
+
+		final int firstCell = index(x, y);
+		final int footprint = this.placements.footprint(type, orientation, firstCell & 63);
+
+		if(this.collision(footprint, firstCell >>> 6) >= 0) {
+			GameMetrics.rejection(PlacementError.OCCUPIED);
+			placement(type, orientation, x, y, PlacementError.OCCUPIED.name());
+			return false;
+		}
+
+		if(this.boatCount == CellStorage.MAX_BOATS) throw new IllegalStateException("O tabuleiro não comporta mais barcos");
+
+		this.place(type, orientation, firstCell, footprint);
+
+		return true;
+	}
+
+	/**
+	 * collision ANDs each word of a footprint against the occupied plane
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param footprint is the footprint of the boat on the placement table
+	 * @param word is the word of the first cell of the boat
+	 *
+	 * @return the bit index of the first occupied cell or -1 if none is occupied
+	 *
+	 * */
+	private int collision(int footprint, int word) {
+		final int end = this.placements.end(footprint);
+
+		for(int e = this.placements.first(footprint); e < end; e++) {
+			final int w = word + this.placements.delta(e);
+			final long collision = this.cells.word(CellStorage.OCCUPIED, w) & this.placements.mask(e);
+
+			if(collision != 0) return (w << 6) + Long.numberOfTrailingZeros(collision);
+		}
+
+		return -1;
+	}
+
+	/**
+	 * commit ORs each word of a footprint into a plane
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param plane is the plane to be written
+	 * @param footprint is the footprint of the boat on the placement table
+	 * @param word is the word of the first cell of the boat
+	 *
+	 * */
+	private void commit(int plane, int footprint, int word) {
+		final int end = this.placements.end(footprint);
+
+		for(int e = this.placements.first(footprint); e < end; e++) {
+			this.cells.or(plane, word + this.placements.delta(e), this.placements.mask(e));
+		}
+	}
+
+	/**
+	 * shoot shoots a point of a player board
+	 *
+	 * @since 1.0
+	 * @access public
+	 * 
+	 * @throws InvalidPosition if the given position if not on the board
+	 * @throws ShootedPoint if the given position has been shot
+	 *
+	 * @param point is the point to be shooted
+	 * 
+	 * @return true if has boat on point and false if not
+	 *
+	 * */
+	public boolean shot(final Point point) throws InvalidPosition, ShootedPoint {
+		switch(this.fire(point.getX(), point.getY())) {
+			case OUT_OF_BOUNDS:
+				throw new InvalidPosition(point);
+
+			case REPEAT:
+				throw new ShootedPoint(point);
+
+			case MISS:
+				return false;
+
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * fire shoots a cell of the board without throwing, nor allocating unless a recording has the Shot event on
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column to be shot
+	 * @param y is the row to be shot
+	 *
+	 * @return the result of the shot
+	 *
+	 * */
+	public ShotResult fire(int x, int y) {
+		final ShotEvent event = new ShotEvent();
+
+		event.begin();
+
+		final ShotResult result = this.resolve(x, y);
+
+		GameMetrics.shot(result);
+
+		if(event.shouldCommit()) {
+			event.x = x;
+			event.y = y;
+			event.result = result.name();
+			event.commit();
+		}
+
+		if(this.listener != null) this.listener.shotFired(x, y, result);
+
+		return result;
+	}
+
+	/**
+	 * salvo fires at every cell of a target mask in one pass, a word at a time: the cells already shot
+	 * are dropped, the rest are set on the shot plane at once and split against the occupied plane, and
+	 * only the hit cells touch the counters of their boats. The masks hold a bit per cell, bit
+	 * y * width + x, and have at least getMaskLength words
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param targets are the cells to be shot, the bits past the last cell are ignored
+	 * @param hits is where the cells which hit a boat are written, the sunk ones included
+	 * @param misses is where the cells which hit the water are written, it may be targets itself
+	 * @param sunk is where the cells whose shot sank their boat are written
+	 *
+	 * @return the number of cells which hit a boat
+	 *
+	 * */
+	public int salvo(final long[] targets, final long[] hits, final long[] misses, final long[] sunk) {
+		final int words = this.words();
+		final int rest = (int) ((long) this.width * this.height & 63);
+		int hitCount = 0;
+		int missCount = 0;
+		int sunkCount = 0;
+
+		for(int w = 0; w < words; w++) {
+			long shots = targets[w] & ~this.cells.word(CellStorage.SHOT, w);
+
+			if(w == words - 1 && rest != 0) shots &= (1L << rest) - 1;
+
+			if(shots == 0) {
+				hits[w] = 0;
+				misses[w] = 0;
+				sunk[w] = 0;
+				continue;
+			}
+
+			final long occupied = this.cells.word(CellStorage.OCCUPIED, w);
+			final long hit = shots & occupied;
+			final long miss = shots & ~occupied;
+			long sank = 0;
+
+			this.cells.or(CellStorage.SHOT, w, shots);
+
+			for(long bits = hit; bits != 0; bits &= bits - 1) {
+				final int cell = w << 6 | Long.numberOfTrailingZeros(bits);
+
+				if(--this.boatRemaining[this.cells.boatId(cell)] > 0) continue;
+
+				this.remainingBoats--;
+				sank |= Long.lowestOneBit(bits);
+			}
+
+			hits[w] = hit;
+			misses[w] = miss;
+			sunk[w] = sank;
+
+			hitCount += Long.bitCount(hit);
+			missCount += Long.bitCount(miss);
+			sunkCount += Long.bitCount(sank);
+		}
+
+		if(hitCount + missCount == 0) return 0;
+
+		this.version++;
+
+		GameMetrics.shots(ShotResult.MISS, missCount);
+		GameMetrics.shots(ShotResult.HIT, hitCount - sunkCount);
+		GameMetrics.shots(ShotResult.SUNK, sunkCount);
+
+		this.salvoFired(hits, misses, sunk, words);
+
+		return hitCount;
+	}
+
+	/**
+	 * salvo fires at the given cells in one pass, a cell given twice is shot once and the cells which
+	 * are not on the board are ignored. The misses mask is used to gather the targets, so nothing is
+	 * allocated
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param xs are the columns to be shot
+	 * @param ys are the rows to be shot
+	 * @param count is how many cells of xs and ys are shot
+	 * @param hits is where the cells which hit a boat are written, the sunk ones included
+	 * @param misses is where the cells which hit the water are written
+	 * @param sunk is where the cells whose shot sank their boat are written
+	 *
+	 * @return the number of cells which hit a boat
+	 *
+	 * */
+	public int salvo(final int[] xs, final int[] ys, int count, final long[] hits, final long[] misses, final long[] sunk) {
+		Arrays.fill(misses, 0, this.words(), 0);
+
+		for(int k = 0; k < count; k++) {
+			if(!isValidPosition(xs[k], ys[k])) continue;
+
+			final int cell = index(xs[k], ys[k]);
+
+			misses[cell >>> 6] |= 1L << cell;
+		}
+
+		return this.salvo(misses, hits, misses, sunk);
+	}
+
+	/**
+	 * salvoFired tells the listener and the flight recorder about each shot of a salvo, in the order of
+	 * the cells and with the sunk ones last, which is only walked when one of them wants it
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param hits are the cells which hit a boat
+	 * @param misses are the cells which hit the water
+	 * @param sunk are the cells whose shot sank their boat
+	 * @param words is the number of words of the masks
+	 *
+	 * */
+	private void salvoFired(final long[] hits, final long[] misses, final long[] sunk, int words) {
+		final ShotEvent probe = new ShotEvent();
+
+		if(this.listener == null && !probe.isEnabled()) return;
+
+		for(int w = 0; w < words; w++) this.salvoFired(misses[w], w, ShotResult.MISS);
+		for(int w = 0; w < words; w++) this.salvoFired(hits[w] & ~sunk[w], w, ShotResult.HIT);
+		for(int w = 0; w < words; w++) this.salvoFired(sunk[w], w, ShotResult.SUNK);
+	}
+
+	/**
+	 * salvoFired tells the listener and the flight recorder about the shots of a salvo on a word
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param bits are the cells of the word which were shot with the result
+	 * @param w is the index of the word
+	 * @param result is the result of the shots
+	 *
+	 * */
+	private void salvoFired(long bits, int w, final ShotResult result) {
+		for(; bits != 0; bits &= bits - 1) {
+			final int cell = w << 6 | Long.numberOfTrailingZeros(bits);
+			final int x = cell % this.width;
+			final int y = cell / this.width;
+			final ShotEvent event = new ShotEvent();
+
+			if(event.isEnabled()) {
+				event.x = x;
+				event.y = y;
+				event.result = result.name();
+				event.commit();
+			}
+
+			if(this.listener != null) this.listener.shotFired(x, y, result);
+		}
+	}
+
+	/**
+	 * resolve applies a shot to the bit planes and to the counters of the boats
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param x is the column to be shot
+	 * @param y is the row to be shot
+	 *
+	 * @return the result of the shot
+	 *
+	 * */
+	private ShotResult resolve(int x, int y) {
+		if(!isValidPosition(x, y)) return ShotResult.OUT_OF_BOUNDS;
+
+		final int i = index(x, y);
+
+		if(this.test(CellStorage.SHOT, i)) return ShotResult.REPEAT;
+
+		this.set(CellStorage.SHOT, i);
+		this.version++;
+
+		if(!this.test(CellStorage.OCCUPIED, i)) return ShotResult.MISS;
+
+		if(--this.boatRemaining[this.cells.boatId(i)] > 0) return ShotResult.HIT;
+
+		this.remainingBoats--;
+
+		return ShotResult.SUNK;
+	}
+
+	/**
+	 * sunkBoatAt returns the id of the boat on the given cell if it was sunk, it only reveals sunk
+	 * boats so it is safe to be used by the opponent
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of a cell of the boat
+	 * @param y is the row of a cell of the boat
+	 *
+	 * @return the id of the boat or -1 if there is no sunk boat on the cell
+	 *
+	 * */
+	public int sunkBoatAt(int x, int y) {
+		if(!this.isValidPosition(x, y)) return -1;
+
+		final int cell = index(x, y);
+
+		if(!this.test(CellStorage.OCCUPIED, cell)) return -1;
+
+		final int id = this.cells.boatId(cell);
+
+		return this.boatRemaining[id] == 0 ? id : -1;
+	}
+
+	/**
+	 * sunkBoatCells writes the cells of the boat on the given cell if it was sunk, it only reveals
+	 * sunk boats so it is safe to be used by the opponent
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of a cell of the boat
+	 * @param y is the row of a cell of the boat
+	 * @param cells is where the bit index, y * width + x, of each cell is written
+	 *
+	 * @return the number of cells written or 0 if there is no sunk boat on the cell
+	 *
+	 * */
+	public int sunkBoatCells(int x, int y, final int[] cells) {
+		final int id = this.sunkBoatAt(x, y);
+
+		if(id < 0) return 0;
+
+		final int length = PlacementTable.length(this.boatTypes[id], this.boatOrientations[id]);
+		final int step = this.boatOrientations[id] == BoatOrientation.VERTICAL ? this.width : 1;
+
+		for(int k = 0; k < length; k++) cells[k] = this.boatOrigins[id] + k * step;
+
+		return length;
+	}
+
+	/**
+	 * getBoatType returns the type of a boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param id is the id of the boat
+	 *
+	 * @return the type of the boat
+	 *
+	 * */
+	public BoatType getBoatType(int id) { return this.boatTypes[id]; }
+
+	/**
+	 * setListener sets who is told about the boats placed and the shots fired on the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param listener is the listener or null to stop telling anyone
+	 *
+	 * */
+	public void setListener(final BoardListener listener) { this.listener = listener; }
 
-			System.out.print("|");
-			System.out.println();
+	/**
+	 * getListener returns who is told about the boats placed and the shots fired on the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the listener or null if nobody listens
+	 *
+	 * */
+	public BoardListener getListener() { return this.listener; }
+
+	/**
+	 * getBoatCount returns how many boats were placed on the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of boats
+	 *
+	 * */
+	public int getBoatCount() { return this.boatCount; }
+
+	/**
+	 * getRemainingBoats returns how many boats of the board were not sunk yet
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of boats afloat
+	 *
+	 * */
+	public int getRemainingBoats() { return this.remainingBoats; }
+
+	/**
+	 * getVersion returns the number of changes of the board, it only changes when a boat is placed or a
+	 * cell is shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the version of the board
+	 *
+	 * */
+	public int getVersion() { return this.version; }
+
+	/**
+	 * getWidth returns the number of columns of the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of columns
+	 *
+	 * */
+	public int getWidth() { return this.width; }
+
+	/**
+	 * getHeight returns the number of rows of the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of rows
+	 *
+	 * */
+	public int getHeight() { return this.height; }
+
+	/**
+	 * isShot returns if a cell was already shot, it is part of what the opponent can see
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of the cell
+	 * @param y is the row of the cell
+	 *
+	 * @return true if the cell was shot
+	 *
+	 * */
+	public boolean isShot(int x, int y) { return this.test(CellStorage.SHOT, index(x, y)); }
+
+	/**
+	 * isHit returns if a cell was shot and had a boat, it is part of what the opponent can see
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of the cell
+	 * @param y is the row of the cell
+	 *
+	 * @return true if a boat was hit on the cell
+	 *
+	 * */
+	public boolean isHit(int x, int y) {
+		final int i = index(x, y);
+
+		return this.test(CellStorage.SHOT, i) && this.test(CellStorage.OCCUPIED, i);
+	}
+
+	/**
+	 * isAllSunk checks if every boat of the board was sunk, the fleet counter makes it O(1)
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return true if there is no boat cell left to be hit
+	 *
+	 * */
+	public boolean isAllSunk() { return this.remainingBoats == 0; }
+
+	/**
+	 * save writes the board on a snapshot: its size, the first cell and kind of each boat and the shot
+	 * cells, as a bitmap or as the gaps between them, whichever is smaller
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param out is where the board is written
+	 *
+	 * */
+	void save(final ByteBuffer out) {
+		final int words = this.words();
+		final int bitmap = (int) (((long) this.width * this.height + 7) >>> 3);
+		int shots = 0;
+		int list = 0;
+		int previous = 0;
+
+		for(int w = 0; w < words; w++) {
+			long bits = this.cells.word(CellStorage.SHOT, w);
+
+			while(bits != 0 && list < bitmap) {
+				final int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+				list += GameSnapshot.varintSize(cell - previous);
+				previous = cell;
+				shots++;
+				bits &= bits - 1;
+			}
+		}
+
+		final boolean asList = list + GameSnapshot.varintSize(shots) < bitmap;
+
+		out.put((byte) ((this.cells instanceof SparseCellStorage ? SPARSE : 0) | (asList ? SHOT_LIST : 0)));
+		GameSnapshot.putVarint(out, this.width);
+		GameSnapshot.putVarint(out, this.height);
+		GameSnapshot.putVarint(out, this.boatCount);
+
+		for(int id = 0; id < this.boatCount; id++) {
+			GameSnapshot.putVarint(out, this.boatOrigins[id]);
+			out.put((byte) (this.boatTypes[id].ordinal() << 2 | this.boatOrientations[id].ordinal()));
+		}
+
+		if(asList) {
+			GameSnapshot.putVarint(out, shots);
+			previous = 0;
+
+			for(int w = 0; w < words; w++) {
+				for(long bits = this.cells.word(CellStorage.SHOT, w); bits != 0; bits &= bits - 1) {
+					final int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+					GameSnapshot.putVarint(out, cell - previous);
+					previous = cell;
+				}
+			}
+
+			return;
+		}
+
+		for(int i = 0; i < bitmap; i++) out.put((byte) (this.cells.word(CellStorage.SHOT, i >>> 3) >>> ((i & 7) << 3)));
+	}
+
+	/**
+	 * maxSize returns how many bytes save writes at most for the board
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @return the bound of the size of the board on a snapshot
+	 *
+	 * */
+	int maxSize() {
+		return 16 + this.boatCount * 6 + (int) (((long) this.width * this.height + 7) >>> 3);
+	}
+
+	/**
+	 * load reads a board written by save, the boats are validated and placed as placeBoat does and the
+	 * shots are ORed into the shot plane, so nothing is allocated per cell
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @throws IllegalArgumentException if the bytes are not a valid board
+	 *
+	 * @param in is where the board is read from
+	 *
+	 * @return the board
+	 *
+	 * */
+	static Board load(final ByteBuffer in) {
+		final int flags = in.get();
+		final int width = GameSnapshot.getVarint(in);
+		final int height = GameSnapshot.getVarint(in);
+		final Board board = (flags & SPARSE) != 0 ? new SparseBoard(width, height) : new Board(width, height);
+		final int cells = width * height;
+		final int boats = GameSnapshot.getVarint(in);
+		final BoatType[] types = BoatType.values();
+		final BoatOrientation[] orientations = BoatOrientation.values();
+
+		if(boats > CellStorage.MAX_BOATS) throw new IllegalArgumentException("Snapshot inválido: barcos demais");
+
+		for(int id = 0; id < boats; id++) {
+			final int firstCell = GameSnapshot.getVarint(in);
+			final int kind = in.get() & 0xFF;
+
+			if(kind >>> 2 >= types.length || (kind & 3) >= orientations.length || firstCell >= cells)
+				throw new IllegalArgumentException("Snapshot inválido: barco " + (id + 1) + " desconhecido");
+
+			final BoatType type = types[kind >>> 2];
+			final BoatOrientation orientation = orientations[kind & 3];
+
+			if(!board.placements.fits(type, orientation, firstCell % width, firstCell / width))
+				throw new IllegalArgumentException("Snapshot inválido: barco " + (id + 1) + " fora do tabuleiro");
+
+			final int footprint = board.placements.footprint(type, orientation, firstCell & 63);
+
+			if(board.collision(footprint, firstCell >>> 6) >= 0)
+				throw new IllegalArgumentException("Snapshot inválido: barco " + (id + 1) + " sobreposto");
+
+			board.place(type, orientation, firstCell, footprint);
+		}
+
+		if((flags & SHOT_LIST) != 0) {
+			final int shots = GameSnapshot.getVarint(in);
+			int cell = 0;
+
+			for(int i = 0; i < shots; i++) {
+				cell += GameSnapshot.getVarint(in);
+
+				if(cell < 0 || cell >= cells) throw new IllegalArgumentException("Snapshot inválido: tiro fora do tabuleiro");
+
+				board.set(CellStorage.SHOT, cell);
+			}
+
+		} else {
+			final int bitmap = (int) (((long) cells + 7) >>> 3);
+			long bits = 0;
+
+			for(int i = 0; i < bitmap; i++) {
+				bits |= (in.get() & 0xFFL) << ((i & 7) << 3);
+
+				if((i & 7) == 7 || i == bitmap - 1) {
+					if(bits != 0) board.cells.or(CellStorage.SHOT, i >>> 3, bits);
+
+					bits = 0;
+				}
+			}
+
+			if((cells & 63) != 0 && (board.cells.word(CellStorage.SHOT, cells >>> 6) & -1L << cells) != 0)
+				throw new IllegalArgumentException("Snapshot inválido: tiro fora do tabuleiro");
+		}
+
+		for(int w = 0; w < board.words(); w++) {
+			for(long hits = board.cells.word(CellStorage.SHOT, w) & board.cells.word(CellStorage.OCCUPIED, w); hits != 0; hits &= hits - 1) {
+				if(--board.boatRemaining[board.cells.boatId((w << 6) + Long.numberOfTrailingZeros(hits))] == 0) board.remainingBoats--;
+			}
+		}
+
+		return board;
+	}
+
+	/**
+	 * getMaskLength returns how many words a cell mask of the board has, the size the masks of salvo need
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of longs of a mask
+	 *
+	 * */
+	public int getMaskLength() { return this.words(); }
+
+	/**
+	 * words returns how many words each bit plane of the board has
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the number of words
+	 *
+	 * */
+	private int words() {
+		return (int) (((long) this.width * this.height + Long.SIZE - 1) / Long.SIZE);
+	}
+
+	/**
+	 * printBoard renders the board on screen with the boats has hit, the whole frame is written at once
+	 *
+	 * @since 1.0
+	 * @access public
+	 *
+	 * @param withBoats is if the boats should be displayed
+	 *
+	 * */
+	public void printBoard(boolean withBoats) {
+		BoardRenderer.forCurrentThread().print(this, withBoats, System.out);
+	}
+
+	/**
+	 * appendTo composes the frame of the board, the same one printBoard shows. The frame is the template
+	 * of the board size with the glyph of each cell written over it, the glyph coming from the table
+	 * indexed by the state of the cell
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param frame is where the frame is appended
+	 * @param withBoats is if the boats should be displayed
+	 *
+	 * */
+	public void appendTo(final StringBuilder frame, boolean withBoats) {
+		if(this.frameTemplate == null) this.frameTemplate = this.frameTemplate();
+
+		final int colDigits = digits(this.width - 1);
+		final int rowDigits = digits(this.height - 1);
+		final int cellLength = colDigits + 5;
+		final int rowLength = 5 + rowDigits + this.width * cellLength + 1 + NEW_LINE.length();
+		final int view = withBoats ? VIEW_BOATS : 0;
+		int position = frame.length() + 6 + rowDigits + this.width * cellLength + NEW_LINE.length() + 5 + rowDigits + colDigits + 2;
+		int loaded = -1;
+		long occupied = 0, shot = 0, edge = 0, first = 0, vertical = 0, single = 0;
+
+		frame.append(this.frameTemplate);
+
+		for(int i = 0; i < this.height; i++, position += rowLength) {
+			for(int j = 0, at = position; j < this.width; j++, at += cellLength) {
+				final int cell = index(j, i);
+
+				//the words of the planes are read once for the 64 cells they hold
+				if(cell >>> 6 != loaded) {
+					loaded = cell >>> 6;
+					occupied = this.cells.word(CellStorage.OCCUPIED, loaded);
+					shot = this.cells.word(CellStorage.SHOT, loaded);
+					edge = this.cells.word(CellStorage.EDGE, loaded);
+					first = this.cells.word(CellStorage.FIRST, loaded);
+					vertical = this.cells.word(CellStorage.VERTICAL, loaded);
+					single = this.cells.word(CellStorage.SINGLE, loaded);
+				}
+
+				final int state = (int) ((occupied >>> cell & 1) << CellStorage.OCCUPIED
+						| (shot >>> cell & 1) << CellStorage.SHOT
+						| (edge >>> cell & 1) << CellStorage.EDGE
+						| (first >>> cell & 1) << CellStorage.FIRST
+						| (vertical >>> cell & 1) << CellStorage.VERTICAL
+						| (single >>> cell & 1) << CellStorage.SINGLE);
+
+				//the template already holds the water, only the other glyphs are written
+				if(GLYPHS[state | view] != '~') frame.setCharAt(at, GLYPHS[state | view]);
+			}
 		}
 	}
+
+	/**
+	 * frameTemplate composes the frame of an empty board of this size, with the coordinates and the
+	 * separators, which appendTo fills with the glyphs of the cells
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the template of the frame
+	 *
+	 * */
+	private String frameTemplate() {
+		final StringBuilder frame = new StringBuilder();
+		final int colDigits = digits(this.width - 1);
+		final int rowDigits = digits(this.height - 1);
+
+		pad(frame, ' ', 5 + rowDigits).append('|');
+
+		for(int i = 0; i < this.width; i++){
+			pad(frame.append("  "), ' ', colDigits - digits(i)).append(i).append("  |");
+		}
+
+		frame.append(NEW_LINE);
+
+		for(int i = 0; i < this.height; i++) {
+			pad(frame.append("|  "), ' ', rowDigits - digits(i)).append(i).append("  ");
+
+			for(int j = 0; j < this.width; j++) {
+				pad(frame.append("|  "), ' ', colDigits - 1).append('~').append("  ");
+			}
+
+			frame.append('|').append(NEW_LINE);
+		}
+
+		return frame.toString();
+	}
+
+	/**
+	 * digits returns how many digits a coordinate has when rendered
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param value is the coordinate
+	 *
+	 * @return the number of digits
+	 *
+	 * */
+	private static int digits(int value) {
+		int digits = 1;
+
+		while(value >= 10) {
+			value /= 10;
+			digits++;
+		}
+
+		return digits;
+	}
+
+	/**
+	 * pad appends a character many times
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param frame is where the characters are appended
+	 * @param c is the character to be appended
+	 * @param count is how many times it is appended
+	 *
+	 * @return the frame
+	 *
+	 * */
+	private static StringBuilder pad(final StringBuilder frame, char c, int count) {
+		for(int i = 0; i < count; i++) frame.append(c);
+
+		return frame;
+	}
+
+	/**
+	 * glyphs builds the table of the characters of the cells, indexed by the state of a cell, one bit per
+	 * plane, plus VIEW_BOATS when the boats are displayed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the table of glyphs
+	 *
+	 * */
+	private static char[] glyphs() {
+		final char[] glyphs = new char[VIEW_BOATS << 1];
+
+		for(int state = 0; state < glyphs.length; state++) glyphs[state] = glyph(state);
+
+		return glyphs;
+	}
+
+	/**
+	 * glyph returns the character which represents a cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param state is the bit of each plane on the cell plus VIEW_BOATS if the boats should be displayed
+	 *
+	 * @return the character of the cell
+	 *
+	 * */
+	private static char glyph(int state) {
+		final boolean isShot = has(state, CellStorage.SHOT);
+		final boolean isOccupied = has(state, CellStorage.OCCUPIED);
+
+		if(!isOccupied || (!isShot && (state & VIEW_BOATS) == 0)) return '~';
+
+		if(has(state, CellStorage.SINGLE)) return '◙';
+
+		if(!has(state, CellStorage.EDGE)) return '█';
+
+		if(has(state, CellStorage.VERTICAL)) return has(state, CellStorage.FIRST) ? '▲' : '▼';
+
+		return has(state, CellStorage.FIRST) ? '◄' : '►';
+	}
+
+	/**
+	 * has returns if the bit of a plane is set on the state of a cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param state is the state of the cell
+	 * @param plane is the plane to be checked
+	 *
+	 * @return if the bit is set
+	 *
+	 * */
+	private static boolean has(int state, int plane) { return (state >>> plane & 1) != 0; }
 }
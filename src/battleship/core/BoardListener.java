@@ -0,0 +1,40 @@
+package battleship.core;
+
+/**
+ * BoardListener is told about every boat placed and every shot fired on a board, it is the hook of
+ * the journals and the statistics which follow a match without changing the rules
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public interface BoardListener {
+
+	/**
+	 * boatPlaced is called after a boat was placed on the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the first cell of the boat
+	 * @param y is the row of the first cell of the boat
+	 *
+	 * */
+	void boatPlaced(BoatType type, BoatOrientation orientation, int x, int y);
+
+	/**
+	 * shotFired is called after a shot was resolved by the board, whatever its result was
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column shot
+	 * @param y is the row shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	void shotFired(int x, int y, ShotResult result);
+}
@@ -0,0 +1,158 @@
+package battleship.core;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * BoardRenderer composes a whole board frame into a reusable buffer and writes it with a single call,
+ * instead of one print per cell going through the synchronized PrintStream. The encoded frame of each
+ * view is kept with the version of its board, so a board which did not change is written again without
+ * being composed or encoded
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class BoardRenderer {
+
+	/**
+	 * RENDERERS holds the renderer of each thread used by Board.printBoard
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final ThreadLocal<BoardRenderer> RENDERERS = ThreadLocal.withInitial(BoardRenderer::new);
+
+	/**
+	 * frame is where the characters of the frame are composed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final StringBuilder frame = new StringBuilder(1024);
+
+	/**
+	 * encoder turns the frame into the bytes of the platform charset, the same one System.out uses
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+	/**
+	 * frames are the reusable buffers with the encoded frame of the fog and of the boats views
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final ByteBuffer[] frames = { ByteBuffer.allocate(4096), ByteBuffer.allocate(4096) };
+
+	/**
+	 * boards are the boards whose frames are on frames, null while a view was not rendered
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Board[] boards = new Board[2];
+
+	/**
+	 * versions are the versions the boards had when their frames were rendered
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] versions = new int[2];
+
+	/**
+	 * chars is the reusable copy of the frame, an array backed buffer is what lets the encoder take its fast path
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private CharBuffer chars = CharBuffer.allocate(1024);
+
+	/**
+	 * forCurrentThread returns the renderer of the current thread
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the renderer of the thread
+	 *
+	 * */
+	public static BoardRenderer forCurrentThread() { return RENDERERS.get(); }
+
+	/**
+	 * print renders a board and writes it to the stream with a single write, the frame is only composed
+	 * again if the board changed since the last time this view of it was printed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param board is the board to be rendered
+	 * @param withBoats is if the boats should be displayed
+	 * @param out is where the frame is written
+	 *
+	 * */
+	public void print(final Board board, boolean withBoats, final PrintStream out) {
+		final int view = withBoats ? 1 : 0;
+		final long start = GameMetrics.start();
+
+		if(this.boards[view] != board || this.versions[view] != board.getVersion()) {
+			this.frame.setLength(0);
+			board.appendTo(this.frame, withBoats);
+
+			this.encode(view);
+			this.boards[view] = board;
+			this.versions[view] = board.getVersion();
+		}
+
+		out.write(this.frames[view].array(), 0, this.frames[view].position());
+		out.flush();
+
+		GameMetrics.render(start);
+	}
+
+	/**
+	 * encode encodes the composed frame into the buffer of a view
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param view is 1 for the boats view and 0 for the fog one
+	 *
+	 * */
+	private void encode(int view) {
+		if(this.chars.capacity() < this.frame.length()) this.chars = CharBuffer.allocate(this.frame.length() * 2);
+
+		this.chars.clear();
+		this.frame.getChars(0, this.frame.length(), this.chars.array(), 0);
+		this.chars.limit(this.frame.length());
+
+		while(true) {
+			final ByteBuffer bytes = this.frames[view];
+
+			bytes.clear();
+			this.encoder.reset();
+
+			if(!this.encoder.encode(this.chars, bytes, true).isOverflow() && !this.encoder.flush(bytes).isOverflow()) break;
+
+			this.chars.rewind();
+			this.frames[view] = ByteBuffer.allocate(bytes.capacity() * 2);
+		}
+	}
+}
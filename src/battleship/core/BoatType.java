@@ -54,4 +54,17 @@ public enum BoatType {
 	 * 
 	 * */
 	public int getSize() { return this.size; }
+
+	/**
+	 * standardFleet returns the boats each player places in a standard game, from the largest to the smallest
+	 * 
+	 * @since 1.1
+	 * @access public
+	 * 
+	 * @returns a new array with 1 LARGE, 2 BIG, 3 MEDIUM and 4 SMALL boats
+	 * 
+	 * */
+	public static BoatType[] standardFleet() {
+		return new BoatType[] { LARGE, BIG, BIG, MEDIUM, MEDIUM, MEDIUM, SMALL, SMALL, SMALL, SMALL };
+	}
 }
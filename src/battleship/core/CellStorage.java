@@ -0,0 +1,90 @@
+package battleship.core;
+
+/**
+ * CellStorage keeps the bit planes of a board as 64 bit words, where the cell (x, y) of a board
+ * with the given width is the bit y * width + x of each plane. Board only reads and writes whole
+ * words, so every storage gives the same placement and shot semantics
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access default
+ *
+ * */
+abstract class CellStorage {
+
+	//OCCUPIED is the plane of the cells that have a boat
+	static final int OCCUPIED = 0;
+
+	//SHOT is the plane of the cells that were shot
+	static final int SHOT = 1;
+
+	//EDGE is the plane of the cells that are the bow or the stern of a boat
+	static final int EDGE = 2;
+
+	//FIRST is the plane of the cells that are the first edge of a boat
+	static final int FIRST = 3;
+
+	//VERTICAL is the plane of the cells that belong to a vertical boat
+	static final int VERTICAL = 4;
+
+	//SINGLE is the plane of the cells that belong to a boat without orientation
+	static final int SINGLE = 5;
+
+	//PLANES is the number of planes
+	static final int PLANES = 6;
+
+	//MAX_BOATS is the number of boat ids a storage can hold, an id is kept as a char per cell
+	static final int MAX_BOATS = Character.MAX_VALUE + 1;
+
+	/**
+	 * word returns a word of a plane
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param plane is the plane to be read
+	 * @param w is the index of the word, the bit index of a cell divided by 64
+	 *
+	 * @return the 64 bits of the word
+	 *
+	 * */
+	abstract long word(int plane, int w);
+
+	/**
+	 * or sets bits of a word of a plane
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param plane is the plane to be written
+	 * @param w is the index of the word
+	 * @param mask are the bits to be set
+	 *
+	 * */
+	abstract void or(int plane, int w, long mask);
+
+	/**
+	 * boatId returns the id of the boat on a cell, it is only meaningful for occupied cells
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param cell is the bit index of the cell
+	 *
+	 * @return the id of the boat
+	 *
+	 * */
+	abstract int boatId(int cell);
+
+	/**
+	 * setBoatId sets the id of the boat on a cell
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param cell is the bit index of the cell
+	 * @param id is the id of the boat, from 0 to MAX_BOATS - 1
+	 *
+	 * */
+	abstract void setBoatId(int cell, int id);
+}
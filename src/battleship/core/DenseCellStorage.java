@@ -0,0 +1,103 @@
+package battleship.core;
+
+/**
+ * DenseCellStorage keeps every word of every plane in one array, it is the storage of regular boards.
+ * The boat ids are kept as a byte per cell while they fit one and as a char per cell after that, so a
+ * board with a regular fleet does not pay for the ids of the largest fleets
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access default
+ *
+ * */
+class DenseCellStorage extends CellStorage {
+
+	/**
+	 * SMALL_IDS is a constant which holds how many boat ids a byte per cell can tell apart
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int SMALL_IDS = 1 << Byte.SIZE;
+
+	/**
+	 * words is the number of words of each plane
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int words;
+
+	/**
+	 * planes holds the words of every plane one after the other, the word w of a plane is at plane * words + w
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] planes;
+
+	/**
+	 * smallIds holds the id of the boat on each cell while every id fits a byte, null after that
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private byte[] smallIds;
+
+	/**
+	 * ids holds the id of the boat on each cell once an id does not fit a byte, null before that
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private char[] ids;
+
+	/**
+	 * DenseCellStorage is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param words is the number of words of each plane
+	 *
+	 * */
+	DenseCellStorage(int words) {
+		this.words = words;
+		this.planes = new long[PLANES * words];
+		this.smallIds = new byte[words * Long.SIZE];
+	}
+
+	@Override
+	long word(int plane, int w) { return this.planes[plane * this.words + w]; }
+
+	@Override
+	void or(int plane, int w, long mask) { this.planes[plane * this.words + w] |= mask; }
+
+	@Override
+	int boatId(int cell) {
+		return this.ids == null ? this.smallIds[cell] & 0xFF : this.ids[cell];
+	}
+
+	@Override
+	void setBoatId(int cell, int id) {
+		if(this.ids == null && id < SMALL_IDS) {
+			this.smallIds[cell] = (byte) id;
+			return;
+		}
+
+		if(this.ids == null) {
+			this.ids = new char[this.smallIds.length];
+
+			for(int i = 0; i < this.smallIds.length; i++) this.ids[i] = (char) (this.smallIds[i] & 0xFF);
+
+			this.smallIds = null;
+		}
+
+		this.ids[cell] = (char) id;
+	}
+}
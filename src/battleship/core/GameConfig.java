@@ -0,0 +1,615 @@
+package battleship.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GameConfig holds the size of the boards and the fleet of each player for a game
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class GameConfig {
+
+	/**
+	 * MAX_SIZE is a constant which holds the largest number of columns or rows of a board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final int MAX_SIZE = 1000;
+
+	/**
+	 * STANDARD_SIZE is a constant which holds the number of columns and rows of a standard board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int STANDARD_SIZE = 10;
+
+	/**
+	 * SEARCH_BUDGET is a constant which holds how many steps the search of a layout takes at most, some tens
+	 * of milliseconds, so an unplaceable fleet on a large board does not hold up the start of the game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int SEARCH_BUDGET = 100_000;
+
+	/**
+	 * width is the number of columns of the boards
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int width;
+
+	/**
+	 * height is the number of rows of the boards
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int height;
+
+	/**
+	 * fleet are the boats each player places, in the order they are placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final BoatType[] fleet;
+
+	/**
+	 * GameConfig is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if the size is out of range, the fleet is empty or it can not be placed on the board
+	 *
+	 * @param width is the number of columns of the boards
+	 * @param height is the number of rows of the boards
+	 * @param fleet are the boats each player places
+	 *
+	 * */
+	public GameConfig(int width, int height, final BoatType... fleet) {
+		if(width < 1 || height < 1 || width > MAX_SIZE || height > MAX_SIZE)
+			throw new IllegalArgumentException("O tabuleiro deve ter de 1x1 até " + MAX_SIZE + "x" + MAX_SIZE);
+
+		if(fleet.length == 0)
+			throw new IllegalArgumentException("A frota deve ter ao menos um barco");
+
+		if(fleet.length > CellStorage.MAX_BOATS)
+			throw new IllegalArgumentException("A frota deve ter no máximo " + CellStorage.MAX_BOATS + " barcos");
+
+		long cells = 0;
+
+		for(final BoatType type : fleet) {
+			if(type.getSize() > Math.max(width, height))
+				throw new IllegalArgumentException("O barco de " + type.getSize() + " espaços não cabe no tabuleiro");
+
+			cells += type.getSize();
+		}
+
+		if(cells > (long) width * height)
+			throw new IllegalArgumentException("A frota ocupa mais espaços do que o tabuleiro tem");
+
+		if(layout(width, height, fleet) == null)
+			throw new IllegalArgumentException("Os barcos da frota não cabem juntos no tabuleiro");
+
+		this.width = width;
+		this.height = height;
+		this.fleet = fleet.clone();
+	}
+
+	/**
+	 * layout lays the fleet out on a board, the area alone lets through fleets whose boats can not be laid
+	 * out together and a random placement would draw positions for them forever. It first places the boats
+	 * from the largest to the smallest, each on the first free position by rows, and when that fails, as on
+	 * boards the fleet fills up, it searches every layout for up to SEARCH_BUDGET steps. Only a fleet the
+	 * search could not place within the budget is refused without a proof
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 * @param fleet are the boats to be placed
+	 *
+	 * @return the boats in the order of the fleet or null if no layout was found
+	 *
+	 * */
+	public static List<Boat> layout(int width, int height, final BoatType... fleet) {
+		final Packing packing = new Packing(width, height, fleet);
+
+		if(!packing.greedy() && !packing.search()) return null;
+
+		return packing.boats();
+	}
+
+	/**
+	 * standard returns the configuration of a standard game, a 10x10 board and the standard fleet
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the standard configuration
+	 *
+	 * */
+	public static GameConfig standard() {
+		return new GameConfig(STANDARD_SIZE, STANDARD_SIZE, BoatType.standardFleet());
+	}
+
+	/**
+	 * fleetOf builds a fleet from the number of boats of each type, from the largest to the smallest
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param large is the number of LARGE boats
+	 * @param big is the number of BIG boats
+	 * @param medium is the number of MEDIUM boats
+	 * @param small is the number of SMALL boats
+	 *
+	 * @return the fleet
+	 *
+	 * */
+	public static BoatType[] fleetOf(int large, int big, int medium, int small) {
+		final int[] counts = { large, big, medium, small };
+		final BoatType[] types = { BoatType.LARGE, BoatType.BIG, BoatType.MEDIUM, BoatType.SMALL };
+
+		int total = 0;
+
+		for(final int count : counts) {
+			if(count < 0) throw new IllegalArgumentException("A quantidade de barcos não pode ser negativa");
+
+			total += count;
+		}
+
+		final BoatType[] fleet = new BoatType[total];
+		int next = 0;
+
+		for(int t = 0; t < types.length; t++) {
+			for(int i = 0; i < counts[t]; i++) fleet[next++] = types[t];
+		}
+
+		return fleet;
+	}
+
+	/**
+	 * getWidth returns the number of columns of the boards
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of columns
+	 *
+	 * */
+	public int getWidth() { return this.width; }
+
+	/**
+	 * getHeight returns the number of rows of the boards
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of rows
+	 *
+	 * */
+	public int getHeight() { return this.height; }
+
+	/**
+	 * getFleet returns the boats each player places
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return a copy of the fleet
+	 *
+	 * */
+	public BoatType[] getFleet() { return this.fleet.clone(); }
+
+	/**
+	 * newBoard creates an empty board with the configured size
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the new board
+	 *
+	 * */
+	public Board newBoard() { return new Board(this.width, this.height); }
+
+	/**
+	 * toString describes the configuration
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the configuration in a form like 10x10 com 10 barcos
+	 *
+	 * */
+	@Override
+	public String toString() {
+		return this.width + "x" + this.height + " com " + this.fleet.length + " barcos";
+	}
+
+	/**
+	 * Packing lays a fleet out on a board of booleans for layout, the boats are kept from the largest to the
+	 * smallest and each one takes a slot of that order
+	 *
+	 * @author Gustavo Reis Bauer
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final class Packing {
+
+		/**
+		 * width is the number of columns of the board
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int width;
+
+		/**
+		 * height is the number of rows of the board
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int height;
+
+		/**
+		 * fleet are the boats to be placed
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final BoatType[] fleet;
+
+		/**
+		 * order holds the indexes of the fleet from the largest boat to the smallest, a slot is a position of it
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int[] order;
+
+		/**
+		 * first holds the first slot of each size, indexed by the size
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int[] first;
+
+		/**
+		 * counts holds how many boats of each size are still to be placed by the search, indexed by the size
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int[] counts;
+
+		/**
+		 * taken are the cells taken by a boat, or left empty by the search, indexed by y * width + x
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final boolean[] taken;
+
+		/**
+		 * cells holds the first cell of the boat of each slot
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int[] cells;
+
+		/**
+		 * steps holds the distance between two cells of the boat of each slot, 1 across and width down
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final int[] steps;
+
+		/**
+		 * budget is how many steps the search has left
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int budget = SEARCH_BUDGET;
+
+		/**
+		 * Packing is the constructor of the class
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param width is the number of columns of the board
+		 * @param height is the number of rows of the board
+		 * @param fleet are the boats to be placed
+		 *
+		 * */
+		private Packing(int width, int height, final BoatType[] fleet) {
+			int largest = 0;
+
+			for(final BoatType type : fleet) largest = Math.max(largest, type.getSize());
+
+			this.width = width;
+			this.height = height;
+			this.fleet = fleet;
+			this.order = new int[fleet.length];
+			this.first = new int[largest + 1];
+			this.counts = new int[largest + 1];
+			this.taken = new boolean[width * height];
+			this.cells = new int[fleet.length];
+			this.steps = new int[fleet.length];
+
+			int slot = 0;
+
+			for(int size = largest; size > 0; size--) {
+				this.first[size] = slot;
+
+				for(int i = 0; i < fleet.length; i++) {
+					if(fleet[i].getSize() == size) this.order[slot++] = i;
+				}
+			}
+		}
+
+		/**
+		 * size returns the size of the boat of a slot
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param slot is the position of the boat from the largest to the smallest
+		 *
+		 * @return the number of cells of the boat
+		 *
+		 * */
+		private int size(int slot) { return this.fleet[this.order[slot]].getSize(); }
+
+		/**
+		 * greedy places each boat, from the largest to the smallest, on the first free position by rows
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @return true if every boat found a position
+		 *
+		 * */
+		private boolean greedy() {
+			int cell = 0;
+
+			for(int slot = 0; slot < this.order.length; slot++) {
+				final int size = this.size(slot);
+
+				//a position which did not fit a size never fits it later, so the search only starts over on a new size
+				if(slot == this.first[size]) cell = 0;
+
+				while(cell < this.taken.length && this.fit(cell, size) == 0) cell++;
+
+				if(cell == this.taken.length) return false;
+
+				this.take(slot, cell, this.fit(cell, size), true);
+			}
+
+			return true;
+		}
+
+		/**
+		 * search looks for a layout by backtracking, on a board cleared of what greedy placed
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @return true if a layout was found within SEARCH_BUDGET steps
+		 *
+		 * */
+		private boolean search() {
+			int empty = this.taken.length;
+
+			Arrays.fill(this.taken, false);
+
+			for(int slot = 0; slot < this.order.length; slot++) {
+				this.counts[this.size(slot)]++;
+				empty -= this.size(slot);
+			}
+
+			return this.search(0, this.order.length, empty);
+		}
+
+		/**
+		 * search places the boats left from the first free cell on, which is either the first cell of a
+		 * boat, across or down, or a cell left empty, so every layout is tried once
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param cell is where the search for the first free cell starts
+		 * @param boats is how many boats are left
+		 * @param empty is how many more cells can be left empty
+		 *
+		 * @return true if the boats left were placed
+		 *
+		 * */
+		private boolean search(int cell, int boats, int empty) {
+			if(boats == 0) return true;
+
+			while(this.taken[cell]) cell++;
+
+			if(--this.budget < 0) return false;
+
+			final int x = cell % this.width;
+			final int y = cell / this.width;
+
+			for(int size = this.counts.length - 1; size > 0; size--) {
+				if(this.counts[size] == 0) continue;
+
+				//the boats of a size are alike, so the next one takes the next slot of the size
+				final int slot = this.first[size] + this.counts[size] - 1;
+
+				this.counts[size]--;
+
+				if(x + size <= this.width && this.free(cell, size, 1) && this.place(slot, cell, 1, boats, empty)) return true;
+
+				//a boat of one cell is the same across and down
+				if(size > 1 && y + size <= this.height && this.free(cell, size, this.width)
+						&& this.place(slot, cell, this.width, boats, empty)) return true;
+
+				this.counts[size]++;
+			}
+
+			if(empty == 0) return false;
+
+			this.taken[cell] = true;
+
+			final boolean placed = this.search(cell + 1, boats, empty - 1);
+
+			this.taken[cell] = false;
+
+			return placed;
+		}
+
+		/**
+		 * place puts a boat on the board, searches for the rest of the fleet and takes the boat back when they do not fit
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param slot is the slot of the boat
+		 * @param cell is the first cell of the boat
+		 * @param step is the distance between two cells of the boat
+		 * @param boats is how many boats are left, with this one
+		 * @param empty is how many more cells can be left empty
+		 *
+		 * @return true if the rest of the fleet was placed
+		 *
+		 * */
+		private boolean place(int slot, int cell, int step, int boats, int empty) {
+			this.take(slot, cell, step, true);
+
+			if(this.search(cell + 1, boats - 1, empty)) return true;
+
+			this.take(slot, cell, step, false);
+
+			return false;
+		}
+
+		/**
+		 * take marks or clears the cells of the boat of a slot and keeps where it is
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param slot is the slot of the boat
+		 * @param cell is the first cell of the boat
+		 * @param step is the distance between two cells of the boat
+		 * @param taken is true to mark the cells and false to clear them
+		 *
+		 * */
+		private void take(int slot, int cell, int step, boolean taken) {
+			for(int k = 0; k < this.size(slot); k++) this.taken[cell + k * step] = taken;
+
+			this.cells[slot] = cell;
+			this.steps[slot] = step;
+		}
+
+		/**
+		 * fit tells if a boat fits a position of the board, across first
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param cell is the first cell of the boat
+		 * @param size is the number of cells of the boat
+		 *
+		 * @return 1 if the boat fits across, width if it only fits down and 0 if it does not fit
+		 *
+		 * */
+		private int fit(int cell, int size) {
+			final int x = cell % this.width;
+			final int y = cell / this.width;
+
+			if(x + size <= this.width && this.free(cell, size, 1)) return 1;
+
+			if(y + size <= this.height && this.free(cell, size, this.width)) return this.width;
+
+			return 0;
+		}
+
+		/**
+		 * free tells if every cell of a boat is free
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param cell is the first cell of the boat
+		 * @param size is the number of cells of the boat
+		 * @param step is the distance between two cells of the boat
+		 *
+		 * @return true if no cell is taken
+		 *
+		 * */
+		private boolean free(int cell, int size, int step) {
+			for(int k = 0; k < size; k++) {
+				if(this.taken[cell + k * step]) return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * boats returns the boats where the layout put them
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @return the boats in the order of the fleet
+		 *
+		 * */
+		private List<Boat> boats() {
+			final Boat[] boats = new Boat[this.order.length];
+
+			for(int slot = 0; slot < this.order.length; slot++) {
+				final BoatType type = this.fleet[this.order[slot]];
+				final int cell = this.cells[slot];
+				final Point point = new Point(cell % this.width, cell / this.width);
+
+				//on a board of one column the step down is 1 as well, so across is told by the room on the row
+				final BoatOrientation orientation = type.getSize() == 1 ? BoatOrientation.NONE
+						: this.steps[slot] == 1 && point.getX() + type.getSize() <= this.width ? BoatOrientation.HORIZONTAL
+						: BoatOrientation.VERTICAL;
+
+				boats[this.order[slot]] = new Boat(type, orientation, point);
+			}
+
+			return Arrays.asList(boats);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package battleship.core;
+
+import battleship.metrics.Histogram;
+import battleship.metrics.MetricsRegistry;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GameMetrics holds the metrics of the hot paths of the game: the shots by result, the placements and
+ * their rejections, the time to render a board and the time of each turn. They are off by default, so
+ * each hot path only pays the read of a boolean, and are turned on with -Dbattleship.metrics=true, with
+ * setEnabled or by asking for an endpoint or a dump on the command line, see Options.metrics
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class GameMetrics {
+
+	/**
+	 * REGISTRY is the registry where the metrics of the game are registered
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+	/**
+	 * SHOTS counts the shots fired by result, indexed by the ordinal of the ShotResult
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final LongAdder[] SHOTS = new LongAdder[ShotResult.values().length];
+
+	/**
+	 * PLACEMENTS counts the boats which were tried on a board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final LongAdder PLACEMENTS = REGISTRY.counter("battleship_placements_total", "Boats tried on a board");
+
+	/**
+	 * REJECTIONS counts the boats rejected by reason, indexed by the ordinal of the PlacementError
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final LongAdder[] REJECTIONS = new LongAdder[PlacementError.values().length];
+
+	/**
+	 * RENDER is the histogram of the time to render a board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final Histogram RENDER;
+
+	/**
+	 * TURN is the histogram of the time of a turn, from the first shot of a player until the turn passes
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final Histogram TURN;
+
+	static {
+		for(final PlacementError error : PlacementError.values()) {
+			REJECTIONS[error.ordinal()] = REGISTRY.counter("battleship_placement_rejections_total{reason=\"" + label(error) + "\"}",
+					"Boats rejected by reason");
+		}
+
+		for(final ShotResult result : ShotResult.values()) {
+			SHOTS[result.ordinal()] = REGISTRY.counter("battleship_shots_total{result=\"" + label(result) + "\"}", "Shots fired by result");
+		}
+
+		RENDER = REGISTRY.histogram("battleship_render_seconds", "Time to render a board");
+		TURN = REGISTRY.histogram("battleship_turn_seconds", "Time of a turn");
+	}
+
+	/**
+	 * enabled is if the metrics are recorded, it is volatile so a change is seen by every thread
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static volatile boolean enabled = Boolean.getBoolean("battleship.metrics");
+
+	/**
+	 * GameMetrics is private because the class only has static methods
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private GameMetrics() {}
+
+	/**
+	 * label returns the label value of an enum constant
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param constant is the constant
+	 *
+	 * @return the name of the constant in lower case
+	 *
+	 * */
+	private static String label(final Enum<?> constant) { return constant.name().toLowerCase(Locale.ROOT); }
+
+	/**
+	 * isEnabled returns if the metrics are recorded
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return true if the hot paths record their metrics
+	 *
+	 * */
+	public static boolean isEnabled() { return enabled; }
+
+	/**
+	 * setEnabled turns the recording of the metrics on or off, the operations already running may still
+	 * record or skip their metrics by the former value
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param on is true to record the metrics
+	 *
+	 * */
+	public static void setEnabled(boolean on) { enabled = on; }
+
+	/**
+	 * shot counts a shot
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param result is the result of the shot
+	 *
+	 * */
+	static void shot(final ShotResult result) {
+		if(enabled) SHOTS[result.ordinal()].increment();
+	}
+
+	/**
+	 * shots counts the shots of a salvo with the same result
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param result is the result of the shots
+	 * @param count is the number of shots
+	 *
+	 * */
+	static void shots(final ShotResult result, int count) {
+		if(enabled && count > 0) SHOTS[result.ordinal()].add(count);
+	}
+
+	/**
+	 * placements counts boats tried on a board
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param boats is the number of boats
+	 *
+	 * */
+	static void placements(int boats) {
+		if(enabled) PLACEMENTS.add(boats);
+	}
+
+	/**
+	 * rejection counts a rejected boat
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param error is why the boat was rejected
+	 *
+	 * */
+	static void rejection(final PlacementError error) {
+		if(enabled) REJECTIONS[error.ordinal()].increment();
+	}
+
+	/**
+	 * start returns the time a measured operation starts at
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the System.nanoTime() or 0 if the metrics are off
+	 *
+	 * */
+	public static long start() { return enabled ? System.nanoTime() : 0; }
+
+	/**
+	 * render records the time to render a board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param start is what start returned before the rendering
+	 *
+	 * */
+	public static void render(long start) {
+		if(start != 0) RENDER.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * turn records the time of a turn
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param start is what start returned before the first shot of the turn
+	 *
+	 * */
+	public static void turn(long start) {
+		if(start != 0) TURN.record(System.nanoTime() - start);
+	}
+}
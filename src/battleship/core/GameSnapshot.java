@@ -0,0 +1,214 @@
+package battleship.core;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * GameSnapshot saves a game in progress, both players and their boards, on a compact binary format and
+ * loads it back. Numbers are written as varints, a boat is its first cell and one byte for its type and
+ * orientation, and the shot cells are written either as a bitmap or as the gaps between them, whichever
+ * is smaller, so a 10x10 game takes around a hundred bytes. Loading places the boats and ORs the shots
+ * straight into the bit planes, nothing is allocated per cell
+ *
+ * Layout: MAGIC, VERSION, then for each player
+ *   name (varint length and UTF-8 bytes), score, wrongAttempts, hitBoatsPoints, boatsPoints, turn
+ *   board flags, width, height, boat count, (first cell, kind) per boat, shots
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class GameSnapshot {
+
+	/**
+	 * MAGIC is a constant which holds the first byte of every snapshot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final byte MAGIC = (byte) 0xBA;
+
+	/**
+	 * VERSION is a constant which holds the version of the layout of the snapshot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final byte VERSION = 1;
+
+	/**
+	 * GameSnapshot is private because the class only has static methods
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private GameSnapshot() {}
+
+	/**
+	 * save writes a game on a buffer
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws java.nio.BufferOverflowException if the buffer has less than maxSize bytes left and the
+	 * snapshot does not fit it
+	 *
+	 * @param first is the first player of the game
+	 * @param second is the second player of the game
+	 * @param out is where the snapshot is written
+	 *
+	 * */
+	public static void save(final Player first, final Player second, final ByteBuffer out) {
+		out.put(MAGIC).put(VERSION);
+
+		first.save(out);
+		second.save(out);
+	}
+
+	/**
+	 * save writes a game on a new array
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param first is the first player of the game
+	 * @param second is the second player of the game
+	 *
+	 * @return the snapshot
+	 *
+	 * */
+	public static byte[] save(final Player first, final Player second) {
+		final ByteBuffer out = ByteBuffer.allocate(maxSize(first, second));
+
+		save(first, second, out);
+
+		return Arrays.copyOf(out.array(), out.position());
+	}
+
+	/**
+	 * maxSize returns how many bytes the snapshot of a game takes at most
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param first is the first player of the game
+	 * @param second is the second player of the game
+	 *
+	 * @return the bound of the size of the snapshot
+	 *
+	 * */
+	public static int maxSize(final Player first, final Player second) {
+		return 2 + first.maxSize() + second.maxSize();
+	}
+
+	/**
+	 * load reads a game from a buffer
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if the bytes are not a valid snapshot
+	 *
+	 * @param in is where the snapshot is read from
+	 *
+	 * @return the first and the second player of the game
+	 *
+	 * */
+	public static Player[] load(final ByteBuffer in) {
+		try {
+			if(in.get() != MAGIC || in.get() != VERSION) throw new IllegalArgumentException("Snapshot inválido: formato desconhecido");
+
+			return new Player[] { Player.load(in), Player.load(in) };
+
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Snapshot inválido: dados incompletos");
+		}
+	}
+
+	/**
+	 * load reads a game from an array
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if the bytes are not a valid snapshot
+	 *
+	 * @param snapshot is the snapshot
+	 *
+	 * @return the first and the second player of the game
+	 *
+	 * */
+	public static Player[] load(final byte[] snapshot) {
+		return load(ByteBuffer.wrap(snapshot));
+	}
+
+	/**
+	 * putVarint writes a non negative int on 7 bit groups, the lowest first
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param out is where the number is written
+	 * @param value is the number
+	 *
+	 * */
+	static void putVarint(final ByteBuffer out, int value) {
+		while((value & ~0x7F) != 0) {
+			out.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+
+		out.put((byte) value);
+	}
+
+	/**
+	 * getVarint reads a number written by putVarint
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @throws IllegalArgumentException if the number does not fit a non negative int
+	 *
+	 * @param in is where the number is read from
+	 *
+	 * @return the number
+	 *
+	 * */
+	static int getVarint(final ByteBuffer in) {
+		int value = 0;
+
+		for(int shift = 0; shift < 32; shift += 7) {
+			final byte b = in.get();
+
+			value |= (b & 0x7F) << shift;
+
+			if(b >= 0) {
+				if(value < 0) break;
+
+				return value;
+			}
+		}
+
+		throw new IllegalArgumentException("Snapshot inválido: número fora do limite");
+	}
+
+	/**
+	 * varintSize returns how many bytes putVarint writes for a number
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param value is the number
+	 *
+	 * @return the number of bytes
+	 *
+	 * */
+	static int varintSize(int value) {
+		return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+	}
+}
@@ -0,0 +1,116 @@
+package battleship.core;
+
+/**
+ * InvalidFleet is thrown when a fleet can not be placed, it holds the reason of each rejected boat
+ * 
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ * 
+ * */
+public class InvalidFleet extends Exception {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * errors holds the reason of each boat of the fleet, null for the boats which could be placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final PlacementError[] errors;
+
+	/**
+	 * points holds the cell where each rejected boat failed, null for the boats which could be placed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Point[] points;
+
+	/**
+	 * InvalidFleet is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param errors is the reason of each boat of the fleet, null for the valid ones
+	 * @param points is the cell where each rejected boat failed, null for the valid ones
+	 *
+	 * */
+	public InvalidFleet(final PlacementError[] errors, final Point[] points) {
+		super(describe(errors, points));
+
+		this.errors = errors.clone();
+		this.points = points.clone();
+	}
+
+	/**
+	 * describe joins the reason of every rejected boat in one message
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param errors is the reason of each boat of the fleet
+	 * @param points is the cell where each rejected boat failed
+	 *
+	 * @return the message of the exception
+	 *
+	 * */
+	private static String describe(final PlacementError[] errors, final Point[] points) {
+		final StringBuilder message = new StringBuilder("Frota inválida:");
+		final int start = message.length();
+
+		for(int i = 0; i < errors.length; i++) {
+			if(errors[i] == null) continue;
+
+			message.append(" barco ").append(i + 1).append(' ').append(errors[i].getDescription())
+					.append(" em ").append(points[i]).append(';');
+		}
+
+		//with no reason there is no ';' to be dropped, only the ':' which would announce them
+		if(message.length() == start) return "Frota inválida";
+
+		message.setLength(message.length() - 1);
+
+		return message.toString();
+	}
+
+	/**
+	 * getBoatCount returns the number of boats of the rejected fleet
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the size of the fleet
+	 *
+	 * */
+	public int getBoatCount() { return this.errors.length; }
+
+	/**
+	 * getError returns why a boat of the fleet was rejected
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param boat is the index of the boat in the fleet
+	 *
+	 * @return the reason or null if the boat could be placed
+	 *
+	 * */
+	public PlacementError getError(int boat) { return this.errors[boat]; }
+
+	/**
+	 * getPoint returns the cell where a boat of the fleet failed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param boat is the index of the boat in the fleet
+	 *
+	 * @return the cell or null if the boat could be placed
+	 *
+	 * */
+	public Point getPoint(int boat) { return this.points[boat]; }
+}
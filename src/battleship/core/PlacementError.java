@@ -0,0 +1,44 @@
+package battleship.core;
+
+/**
+ * PlacementError is the reason a boat of a fleet was rejected by the board
+ * 
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ * 
+ * */
+public enum PlacementError {
+	//OUT_OF_BOUNDS will be used if a cell of the boat is not on the board
+	OUT_OF_BOUNDS("fora do tabuleiro"),
+	
+	//OCCUPIED will be used if a cell of the boat has a boat already placed on the board
+	OCCUPIED("sobre um barco do tabuleiro"),
+	
+	//OVERLAP will be used if a cell of the boat has an earlier boat of the same fleet
+	OVERLAP("sobre outro barco da frota");
+	
+	/**
+	 * description is the text shown to the player
+	 * 
+	 * @since 1.1
+	 * @access private
+	 * 
+	 * */
+	private final String description;
+	
+	PlacementError(final String description) {
+		this.description = description;
+	}
+	
+	/**
+	 * getDescription returns the text shown to the player
+	 * 
+	 * @since 1.1
+	 * @access public
+	 * 
+	 * @return the description of the error
+	 * 
+	 * */
+	public String getDescription() { return this.description; }
+}
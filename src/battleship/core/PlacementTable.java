@@ -0,0 +1,343 @@
+package battleship.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PlacementTable holds, for one board size, the footprint of every boat type and orientation as word
+ * masks of the occupied plane. The footprint of a boat only depends on the bit offset of its first cell
+ * inside a word, so each type and orientation keeps 64 footprints which are moved to the word of the
+ * origin. A table is immutable, it is built once per board size and shared by every board and thread
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class PlacementTable {
+
+	/**
+	 * TYPES is a constant which holds the boat types, their ordinal indexes the footprints
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final BoatType[] TYPES = BoatType.values();
+
+	/**
+	 * ORIENTATIONS is a constant which holds the boat orientations, their ordinal indexes the footprints
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final BoatOrientation[] ORIENTATIONS = BoatOrientation.values();
+
+	/**
+	 * TABLES is the cache of the tables already built, keyed by the width and the height of the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final ConcurrentHashMap<Long, PlacementTable> TABLES = new ConcurrentHashMap<>();
+
+	/**
+	 * width is the number of columns of the boards of the table
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int width;
+
+	/**
+	 * limitX holds, per type and orientation, the column where an origin stops fitting the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] limitX;
+
+	/**
+	 * limitY holds, per type and orientation, the row where an origin stops fitting the board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] limitY;
+
+	/**
+	 * start holds, per footprint, its first entry on deltas and masks, the entries of a footprint end where
+	 * the ones of the next footprint start
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] start;
+
+	/**
+	 * deltas holds, per entry, the distance of its word from the word of the origin
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] deltas;
+
+	/**
+	 * masks holds, per entry, the bits of the boat on its word
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] masks;
+
+	/**
+	 * PlacementTable is the constructor of the class, where every footprint is laid out
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 *
+	 * */
+	private PlacementTable(int width, int height) {
+		final int kinds = TYPES.length * ORIENTATIONS.length;
+
+		this.width = width;
+		this.limitX = new int[kinds];
+		this.limitY = new int[kinds];
+		this.start = new int[kinds * 64 + 1];
+
+		int entries = 0;
+
+		for(final BoatType type : TYPES) {
+			for(final BoatOrientation orientation : ORIENTATIONS) {
+				final int kind = kind(type, orientation);
+				final int length = length(type, orientation);
+				final int step = step(orientation);
+
+				this.limitX[kind] = orientation == BoatOrientation.HORIZONTAL ? width - length + 1 : width;
+				this.limitY[kind] = orientation == BoatOrientation.VERTICAL ? height - length + 1 : height;
+
+				for(int offset = 0; offset < 64; offset++) {
+					this.start[kind * 64 + offset] = entries;
+					entries += words(offset, step, length);
+				}
+			}
+		}
+
+		this.start[kinds * 64] = entries;
+		this.deltas = new int[entries];
+		this.masks = new long[entries];
+
+		for(final BoatType type : TYPES) {
+			for(final BoatOrientation orientation : ORIENTATIONS) {
+				final int kind = kind(type, orientation);
+				final int length = length(type, orientation);
+				final int step = step(orientation);
+
+				for(int offset = 0; offset < 64; offset++) {
+					int entry = this.start[kind * 64 + offset] - 1;
+					int word = -1;
+
+					for(int k = 0; k < length; k++) {
+						final int bit = offset + k * step;
+
+						if((bit >>> 6) != word) {
+							word = bit >>> 6;
+							this.deltas[++entry] = word;
+						}
+
+						this.masks[entry] |= 1L << bit;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * forSize returns the table of a board size, building it the first time the size is asked for
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 *
+	 * @return the shared table of the size
+	 *
+	 * */
+	public static PlacementTable forSize(int width, int height) {
+		return TABLES.computeIfAbsent(((long) width << 32) | height, key -> new PlacementTable(width, height));
+	}
+
+	/**
+	 * words returns on how many words a run of cells is spread
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param offset is the bit of the first cell
+	 * @param step is the distance between two cells of the run
+	 * @param length is the number of cells of the run
+	 *
+	 * @return the number of words
+	 *
+	 * */
+	private static int words(int offset, int step, int length) {
+		int words = 0;
+		int word = -1;
+
+		for(int k = 0; k < length; k++) {
+			if(((offset + k * step) >>> 6) != word) {
+				word = (offset + k * step) >>> 6;
+				words++;
+			}
+		}
+
+		return words;
+	}
+
+	/**
+	 * kind returns the index of a type and an orientation on the per kind arrays
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 *
+	 * @return the index of the kind
+	 *
+	 * */
+	private static int kind(final BoatType type, final BoatOrientation orientation) {
+		return type.ordinal() * ORIENTATIONS.length + orientation.ordinal();
+	}
+
+	/**
+	 * length returns the number of cells a boat occupies, a boat without orientation occupies one
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 *
+	 * @return the number of cells
+	 *
+	 * */
+	static int length(final BoatType type, final BoatOrientation orientation) {
+		return orientation == BoatOrientation.NONE ? 1 : type.getSize();
+	}
+
+	/**
+	 * step returns the distance between two cells of a boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param orientation is the orientation of the boat
+	 *
+	 * @return the distance in bits
+	 *
+	 * */
+	private int step(final BoatOrientation orientation) {
+		return orientation == BoatOrientation.VERTICAL ? this.width : 1;
+	}
+
+	/**
+	 * fits returns if a boat laid from an origin stays inside the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the origin
+	 * @param y is the row of the origin
+	 *
+	 * @return true if every cell of the boat is on the board
+	 *
+	 * */
+	public boolean fits(final BoatType type, final BoatOrientation orientation, int x, int y) {
+		final int kind = kind(type, orientation);
+
+		return x >= 0 && y >= 0 && x < this.limitX[kind] && y < this.limitY[kind];
+	}
+
+	/**
+	 * footprint returns the footprint of a boat whose origin is on a given bit of its word
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param offset is the bit of the origin inside its word
+	 *
+	 * @return the index of the footprint, its entries go from first(footprint) to end(footprint)
+	 *
+	 * */
+	int footprint(final BoatType type, final BoatOrientation orientation, int offset) {
+		return kind(type, orientation) * 64 + offset;
+	}
+
+	/**
+	 * first returns the first entry of a footprint
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param footprint is the footprint
+	 *
+	 * @return the index of its first entry
+	 *
+	 * */
+	int first(int footprint) { return this.start[footprint]; }
+
+	/**
+	 * end returns the entry after the last one of a footprint
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param footprint is the footprint
+	 *
+	 * @return the index after its last entry
+	 *
+	 * */
+	int end(int footprint) { return this.start[footprint + 1]; }
+
+	/**
+	 * delta returns the distance of the word of an entry from the word of the origin
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param entry is the entry
+	 *
+	 * @return the distance in words
+	 *
+	 * */
+	int delta(int entry) { return this.deltas[entry]; }
+
+	/**
+	 * mask returns the bits of an entry
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param entry is the entry
+	 *
+	 * @return the mask of the boat cells on the word
+	 *
+	 * */
+	long mask(int entry) { return this.masks[entry]; }
+}
@@ -1,5 +1,10 @@
 package battleship.core;
 
+import battleship.jfr.TurnEvent;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 /**
  * Player is the class that have access to each individual players data
  * 
@@ -82,6 +87,15 @@ public class Player {
 	 * */
 	private final Board board;
 
+	/**
+	 * turn is the TurnEvent of the turn being played, only while a recording has it on
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private TurnEvent turn;
+
 	/**
 	 * Player is the default constructor of the class Player
 	 *
@@ -92,7 +106,21 @@ public class Player {
 	 * 
 	 * */
 	public Player(final String name) {
-		this.board = new Board();
+		this(name, new Board());
+	}
+
+	/**
+	 * Player is the constructor of a player who plays on a given board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param name is the name of the player(cannot be changed later)
+	 * @param board is the empty board of the player
+	 *
+	 * */
+	public Player(final String name, final Board board) {
+		this.board = board;
 		this.name = name;
 		this.myTurn = false;
 		this.score = 0;
@@ -145,13 +173,67 @@ public class Player {
 	public void incrementHitBoatsPoints(){ this.hitBoatsPoints++; }
 
 	/**
-	 * swapTurn swaps the players myTurn variable, its meant to be used when the player makes a play
+	 * incrementHitBoatsPoints increments the hitBoatsPoints variable by the hits of a salvo
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param points is how many points that have a boat were shot
+	 *
+	 * */
+	public void incrementHitBoatsPoints(int points) { this.hitBoatsPoints += points; }
+
+	/**
+	 * scoreSalvo scores a salvo as if its shots were fired one at a time: a salvo without hits is one
+	 * wrong attempt, the first hit scores by the wrong attempts before it and the other hits score the
+	 * base points
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param hits is how many shots of the salvo hit a boat
+	 *
+	 * */
+	public void scoreSalvo(int hits) {
+		if(hits == 0) {
+			this.incrementWrongAttempts();
+			return;
+		}
+
+		this.incrementScore();
+		this.resetWrongAttempts();
+		this.score += (hits - 1) * BASE_POINTS;
+	}
+
+	/**
+	 * swapTurn swaps the players myTurn variable, its meant to be used when the player makes a play,
+	 * a turn that starts begins a TurnEvent and a turn that ends commits it
 	 * 
 	 * @since 1.0
 	 * @access public
 	 * 
 	 * */
-	public void swapTurn() { this.myTurn = !this.myTurn; }
+	public void swapTurn() {
+		this.myTurn = !this.myTurn;
+
+		if(this.myTurn) {
+			final TurnEvent turn = new TurnEvent();
+
+			if(turn.isEnabled()) {
+				turn.begin();
+				this.turn = turn;
+			}
+
+			return;
+		}
+
+		if(this.turn == null) return;
+
+		this.turn.player = this.name;
+		this.turn.score = this.score;
+		this.turn.commit();
+		this.turn = null;
+	}
 	
 	/**
 	 * getScore returns the player current score
@@ -219,6 +301,17 @@ public class Player {
 	 * */
 	public int getHitBoatsPoints() { return this.hitBoatsPoints; }
 
+	/**
+	 * getWrongAttempts returns how many shots in a row the player missed since the last hit
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the variable wrongAttempts of player
+	 *
+	 * */
+	public int getWrongAttempts() { return this.wrongAttempts; }
+
 	/**
 	 * addBoat add a boat to the boats array and to the player board
 	 *
@@ -242,6 +335,45 @@ public class Player {
 		return retValue;
 	}
 
+	/**
+	 * tryAddBoat adds a boat given by its primitive coordinates, without allocating or throwing, see Board.tryPlace
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param type is the type of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the first cell of the boat
+	 * @param y is the row of the first cell of the boat
+	 *
+	 * @return true if the boat was added, false if the board rejected it
+	 *
+	 * */
+	public boolean tryAddBoat(final BoatType type, final BoatOrientation orientation, int x, int y) {
+		if(!this.board.tryPlace(type, orientation, x, y)) return false;
+
+		this.boatsPoints += type.getSize();
+
+		return true;
+	}
+
+	/**
+	 * addFleet adds a whole fleet to the player board at once, if any boat is rejected none is added
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws InvalidFleet with the reason of each rejected boat
+	 *
+	 * @param fleet are the boats to be added
+	 *
+	 * */
+	public void addFleet(final List<Boat> fleet) throws InvalidFleet {
+		this.board.placeFleet(fleet);
+
+		for(final Boat boat : fleet) this.boatsPoints += boat.getType().getSize();
+	}
+
 	/**
 	 * shootPlayer shoots player
 	 *
@@ -259,4 +391,116 @@ public class Player {
 	public boolean shotPlayer(final Point point, final Player player) throws InvalidPosition, ShootedPoint {
 		return player.board.shot(point);
 	}
+
+	/**
+	 * fireAt shoots a cell of the player board without throwing
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column to be shot
+	 * @param y is the row to be shot
+	 * @param player is the player which is being shot
+	 *
+	 * @return the result of the shot
+	 *
+	 * */
+	public ShotResult fireAt(int x, int y, final Player player) {
+		return player.board.fire(x, y);
+	}
+
+	/**
+	 * salvoAt fires a salvo at the player board in one pass, see Board.salvo
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param xs are the columns to be shot
+	 * @param ys are the rows to be shot
+	 * @param count is how many cells of xs and ys are shot
+	 * @param player is the player which is being shot
+	 * @param hits is where the cells which hit a boat are written
+	 * @param misses is where the cells which hit the water are written
+	 * @param sunk is where the cells whose shot sank their boat are written
+	 *
+	 * @return the number of cells which hit a boat
+	 *
+	 * */
+	public int salvoAt(final int[] xs, final int[] ys, int count, final Player player, final long[] hits, final long[] misses, final long[] sunk) {
+		return player.board.salvo(xs, ys, count, hits, misses, sunk);
+	}
+
+	/**
+	 * save writes the player and its board on a snapshot
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param out is where the player is written
+	 *
+	 * */
+	void save(final ByteBuffer out) {
+		final byte[] name = this.name.getBytes(StandardCharsets.UTF_8);
+
+		GameSnapshot.putVarint(out, name.length);
+		out.put(name);
+		GameSnapshot.putVarint(out, this.score);
+		GameSnapshot.putVarint(out, this.wrongAttempts);
+		GameSnapshot.putVarint(out, this.hitBoatsPoints);
+		GameSnapshot.putVarint(out, this.boatsPoints);
+		out.put((byte) (this.myTurn ? 1 : 0));
+
+		this.board.save(out);
+	}
+
+	/**
+	 * maxSize returns how many bytes save writes at most for the player
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @return the bound of the size of the player on a snapshot
+	 *
+	 * */
+	int maxSize() {
+		return 26 + this.name.length() * 3 + this.board.maxSize();
+	}
+
+	/**
+	 * load reads a player written by save
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @throws IllegalArgumentException if the bytes are not a valid player
+	 *
+	 * @param in is where the player is read from
+	 *
+	 * @return the player with its board
+	 *
+	 * */
+	static Player load(final ByteBuffer in) {
+		final int length = GameSnapshot.getVarint(in);
+
+		if(length > in.remaining()) throw new IllegalArgumentException("Snapshot inválido: dados incompletos");
+
+		final byte[] name = new byte[length];
+
+		in.get(name);
+
+		final int score = GameSnapshot.getVarint(in);
+		final int wrongAttempts = GameSnapshot.getVarint(in);
+		final int hitBoatsPoints = GameSnapshot.getVarint(in);
+		final int boatsPoints = GameSnapshot.getVarint(in);
+		final boolean myTurn = in.get() != 0;
+		final Player player = new Player(new String(name, StandardCharsets.UTF_8), Board.load(in));
+
+		player.score = score;
+		player.wrongAttempts = wrongAttempts;
+		player.hitBoatsPoints = hitBoatsPoints;
+		player.boatsPoints = boatsPoints;
+		player.myTurn = myTurn;
+
+		return player;
+	}
 }
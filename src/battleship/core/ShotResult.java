@@ -0,0 +1,48 @@
+package battleship.core;
+
+/**
+ * ShotResult is the outcome of a shot on the board, it is returned by the fast path so no exception is needed
+ * 
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ * 
+ * */
+public enum ShotResult {
+	//MISS will be used if the shot hit the water
+	MISS,
+	
+	//HIT will be used if the shot hit a boat which still has cells to be hit
+	HIT,
+	
+	//SUNK will be used if the shot hit the last remaining cell of a boat
+	SUNK,
+	
+	//REPEAT will be used if the cell had already been shot
+	REPEAT,
+	
+	//OUT_OF_BOUNDS will be used if the cell is not on the board
+	OUT_OF_BOUNDS;
+	
+	/**
+	 * isHit returns if the shot hit a boat
+	 * 
+	 * @since 1.1
+	 * @access public
+	 * 
+	 * @return true if the result is HIT or SUNK
+	 * 
+	 * */
+	public boolean isHit() { return this == HIT || this == SUNK; }
+	
+	/**
+	 * isValid returns if the shot was accepted by the board
+	 * 
+	 * @since 1.1
+	 * @access public
+	 * 
+	 * @return false if the result is REPEAT or OUT_OF_BOUNDS
+	 * 
+	 * */
+	public boolean isValid() { return this != REPEAT && this != OUT_OF_BOUNDS; }
+}
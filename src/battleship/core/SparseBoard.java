@@ -0,0 +1,41 @@
+package battleship.core;
+
+/**
+ * SparseBoard is a board for very large maps, it only keeps the regions that had a boat placed or a
+ * cell shot, so its memory follows the activity instead of the area. Placement and shot rules are
+ * the ones of Board, only the storage of the bitsets changes
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class SparseBoard extends Board {
+
+	/**
+	 * SparseBoard is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if the board has no cells or more cells than a bitset can index
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 *
+	 * */
+	public SparseBoard(int width, int height) {
+		super(width, height, true);
+	}
+
+	/**
+	 * getChunkCount returns how many regions of the board were allocated
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of allocated chunks
+	 *
+	 * */
+	public int getChunkCount() { return ((SparseCellStorage) this.getCells()).getChunkCount(); }
+}
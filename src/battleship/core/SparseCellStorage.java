@@ -0,0 +1,180 @@
+package battleship.core;
+
+/**
+ * SparseCellStorage only keeps the regions of the board that were written. The words are grouped in
+ * fixed-size chunks, with the words of every plane of a chunk side by side, allocated on the first
+ * write. Chunks are found through a two level directory whose pages are also allocated on the first
+ * write, so reading any cell is O(1) and the memory follows the activity instead of the area
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access default
+ *
+ * */
+class SparseCellStorage extends CellStorage {
+
+	/**
+	 * CHUNK_WORDS is a constant which holds the number of words of each plane in a chunk, 512 cells
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int CHUNK_WORDS = 8;
+
+	/**
+	 * CHUNK_SHIFT is a constant which holds the shift that turns a word index into a chunk index
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int CHUNK_SHIFT = 3;
+
+	/**
+	 * CHUNK_CELLS is a constant which holds the number of cells in a chunk
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int CHUNK_CELLS = CHUNK_WORDS * Long.SIZE;
+
+	/**
+	 * PAGE_CHUNKS is a constant which holds the number of chunks in a page of the directory
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int PAGE_CHUNKS = 1024;
+
+	/**
+	 * PAGE_SHIFT is a constant which holds the shift that turns a chunk index into a page index
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int PAGE_SHIFT = 10;
+
+	/**
+	 * pages is the directory of chunks, a page and a chunk are null until something is written on them
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[][][] pages;
+
+	/**
+	 * idPages is the directory of the boat ids of each chunk, it follows the layout of pages and a chunk
+	 * of ids is only allocated when a boat is placed on it
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final char[][][] idPages;
+
+	/**
+	 * chunkCount counts the allocated chunks
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int chunkCount;
+
+	/**
+	 * SparseCellStorage is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param words is the number of words of each plane
+	 *
+	 * */
+	SparseCellStorage(int words) {
+		final int chunks = (words + CHUNK_WORDS - 1) >>> CHUNK_SHIFT;
+
+		this.pages = new long[(chunks + PAGE_CHUNKS - 1) >>> PAGE_SHIFT][][];
+		this.idPages = new char[this.pages.length][][];
+	}
+
+	@Override
+	long word(int plane, int w) {
+		final int chunk = w >>> CHUNK_SHIFT;
+		final long[][] page = this.pages[chunk >>> PAGE_SHIFT];
+
+		if(page == null) return 0L;
+
+		final long[] words = page[chunk & (PAGE_CHUNKS - 1)];
+
+		return words == null ? 0L : words[plane * CHUNK_WORDS + (w & (CHUNK_WORDS - 1))];
+	}
+
+	@Override
+	void or(int plane, int w, long mask) {
+		final int chunk = w >>> CHUNK_SHIFT;
+		long[][] page = this.pages[chunk >>> PAGE_SHIFT];
+
+		if(page == null) {
+			page = new long[PAGE_CHUNKS][];
+			this.pages[chunk >>> PAGE_SHIFT] = page;
+		}
+
+		long[] words = page[chunk & (PAGE_CHUNKS - 1)];
+
+		if(words == null) {
+			words = new long[PLANES * CHUNK_WORDS];
+			page[chunk & (PAGE_CHUNKS - 1)] = words;
+			this.chunkCount++;
+		}
+
+		words[plane * CHUNK_WORDS + (w & (CHUNK_WORDS - 1))] |= mask;
+	}
+
+	@Override
+	int boatId(int cell) {
+		final int chunk = cell >>> (CHUNK_SHIFT + 6);
+		final char[][] page = this.idPages[chunk >>> PAGE_SHIFT];
+
+		if(page == null) return 0;
+
+		final char[] ids = page[chunk & (PAGE_CHUNKS - 1)];
+
+		return ids == null ? 0 : ids[cell & (CHUNK_CELLS - 1)];
+	}
+
+	@Override
+	void setBoatId(int cell, int id) {
+		final int chunk = cell >>> (CHUNK_SHIFT + 6);
+		char[][] page = this.idPages[chunk >>> PAGE_SHIFT];
+
+		if(page == null) {
+			page = new char[PAGE_CHUNKS][];
+			this.idPages[chunk >>> PAGE_SHIFT] = page;
+		}
+
+		char[] ids = page[chunk & (PAGE_CHUNKS - 1)];
+
+		if(ids == null) {
+			ids = new char[CHUNK_CELLS];
+			page[chunk & (PAGE_CHUNKS - 1)] = ids;
+		}
+
+		ids[cell & (CHUNK_CELLS - 1)] = (char) id;
+	}
+
+	/**
+	 * getChunkCount returns the number of allocated chunks
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @return the number of chunks
+	 *
+	 * */
+	int getChunkCount() { return this.chunkCount; }
+}
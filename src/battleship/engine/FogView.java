@@ -0,0 +1,148 @@
+package battleship.engine;
+
+import battleship.core.Board;
+import battleship.core.BoatType;
+
+/**
+ * FogView is what a bot sees of the opponent board: its size, the cells shot, the hits and the boats
+ * already sunk. The board itself is never handed out, so a bot can not look where the boats afloat are
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class FogView {
+
+	/**
+	 * board is the opponent board seen through the fog
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Board board;
+
+	/**
+	 * FogView is the constructor of the class, only the engine creates the views
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param board is the opponent board seen through the fog
+	 *
+	 * */
+	FogView(final Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * isOf tells if the view is of the given board
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param board is the board to be compared
+	 *
+	 * @return true if the view shows that board
+	 *
+	 * */
+	boolean isOf(final Board board) { return this.board == board; }
+
+	/**
+	 * getWidth returns the number of columns of the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of columns
+	 *
+	 * */
+	public int getWidth() { return this.board.getWidth(); }
+
+	/**
+	 * getHeight returns the number of rows of the board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of rows
+	 *
+	 * */
+	public int getHeight() { return this.board.getHeight(); }
+
+	/**
+	 * isShot returns if a cell was already shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of the cell
+	 * @param y is the row of the cell
+	 *
+	 * @return true if the cell was shot
+	 *
+	 * */
+	public boolean isShot(int x, int y) { return this.board.isShot(x, y); }
+
+	/**
+	 * isHit returns if a cell was shot and had a boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of the cell
+	 * @param y is the row of the cell
+	 *
+	 * @return true if a boat was hit on the cell
+	 *
+	 * */
+	public boolean isHit(int x, int y) { return this.board.isHit(x, y); }
+
+	/**
+	 * sunkBoatAt returns the id of the boat on a cell if it was sunk, see Board.sunkBoatAt
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of a cell of the boat
+	 * @param y is the row of a cell of the boat
+	 *
+	 * @return the id of the boat or -1 if there is no sunk boat on the cell
+	 *
+	 * */
+	public int sunkBoatAt(int x, int y) { return this.board.sunkBoatAt(x, y); }
+
+	/**
+	 * sunkBoatCells writes the cells of the boat on a cell if it was sunk, see Board.sunkBoatCells
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of a cell of the boat
+	 * @param y is the row of a cell of the boat
+	 * @param cells is where the bit index, y * width + x, of each cell is written
+	 *
+	 * @return the number of cells written or 0 if there is no sunk boat on the cell
+	 *
+	 * */
+	public int sunkBoatCells(int x, int y, final int[] cells) { return this.board.sunkBoatCells(x, y, cells); }
+
+	/**
+	 * sunkBoatType returns the type of the boat on a cell if it was sunk
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param x is the column of a cell of the boat
+	 * @param y is the row of a cell of the boat
+	 *
+	 * @return the type or null if there is no sunk boat on the cell
+	 *
+	 * */
+	public BoatType sunkBoatType(int x, int y) {
+		final int id = this.board.sunkBoatAt(x, y);
+
+		return id < 0 ? null : this.board.getBoatType(id);
+	}
+}
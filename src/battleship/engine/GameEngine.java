@@ -0,0 +1,371 @@
+package battleship.engine;
+
+import battleship.core.Player;
+import battleship.core.Point;
+import battleship.core.ShotResult;
+
+/**
+ * GameEngine is the headless game, it owns both players and the turn, hit and win rules and takes
+ * the shots from a MoveSource of each player, no input or output happens here. On a salvo game each
+ * turn is a salvo of shots resolved by the board in one pass, and the turn always passes after it
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class GameEngine {
+
+	/**
+	 * SALVO_PER_BOAT is the salvo size of the variant where each player fires one shot per boat afloat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final int SALVO_PER_BOAT = -1;
+
+	/**
+	 * first is the player who starts shooting
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Player first;
+
+	/**
+	 * second is the player who shoots after the first one misses
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Player second;
+
+	/**
+	 * firstSource is where the shots of the first player come from
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final MoveSource firstSource;
+
+	/**
+	 * secondSource is where the shots of the second player come from
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final MoveSource secondSource;
+
+	/**
+	 * salvo is how many shots each turn has, 0 for the game of one shot at a time or SALVO_PER_BOAT
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int salvo;
+
+	/**
+	 * xs holds the columns of the salvo being fired, it grows with the salvo
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int[] xs = new int[0];
+
+	/**
+	 * ys holds the rows of the salvo being fired, it grows with the salvo
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int[] ys = new int[0];
+
+	/**
+	 * hits is the mask of the cells of the last salvo which hit a boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long[] hits = new long[0];
+
+	/**
+	 * misses is the mask of the cells of the last salvo which hit the water
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long[] misses = new long[0];
+
+	/**
+	 * sunk is the mask of the cells of the last salvo which sank a boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long[] sunk = new long[0];
+
+	/**
+	 * GameEngine is the constructor of the class, the boats of both players must be already placed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param first is the player who starts shooting
+	 * @param firstSource is where the shots of the first player come from
+	 * @param second is the other player
+	 * @param secondSource is where the shots of the second player come from
+	 *
+	 * */
+	public GameEngine(final Player first, final MoveSource firstSource, final Player second, final MoveSource secondSource) {
+		this(first, firstSource, second, secondSource, 0);
+	}
+
+	/**
+	 * GameEngine is the constructor of a salvo game, the boats of both players must be already placed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if the salvo size is negative and not SALVO_PER_BOAT
+	 *
+	 * @param first is the player who starts shooting
+	 * @param firstSource is where the shots of the first player come from
+	 * @param second is the other player
+	 * @param secondSource is where the shots of the second player come from
+	 * @param salvo is how many shots each turn has, 0 for one shot at a time or SALVO_PER_BOAT
+	 *
+	 * */
+	public GameEngine(final Player first, final MoveSource firstSource, final Player second, final MoveSource secondSource, int salvo) {
+		if(salvo < 0 && salvo != SALVO_PER_BOAT) throw new IllegalArgumentException("Tamanho de salva inválido: " + salvo);
+
+		this.first = first;
+		this.second = second;
+		this.firstSource = firstSource;
+		this.secondSource = secondSource;
+		this.salvo = salvo;
+
+		if(!first.isMyTurn()) first.swapTurn();
+		if(second.isMyTurn()) second.swapTurn();
+	}
+
+	/**
+	 * resolveShot applies the rules of a shot: a miss counts a wrong attempt and passes the turn,
+	 * a hit scores and keeps the turn, an invalid or repeated shot changes nothing
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who is shooting
+	 * @param target is the player who is being shot
+	 * @param x is the column to be shot
+	 * @param y is the row to be shot
+	 *
+	 * @return the result of the shot
+	 *
+	 * */
+	public static ShotResult resolveShot(final Player shooter, final Player target, int x, int y) {
+		final ShotResult result = shooter.fireAt(x, y, target);
+
+		if(result == ShotResult.MISS) {
+			shooter.incrementWrongAttempts();
+
+			shooter.swapTurn();
+			target.swapTurn();
+
+		} else if(result.isHit()) {
+			target.incrementHitBoatsPoints();
+			shooter.incrementScore();
+
+			shooter.resetWrongAttempts();
+		}
+
+		return result;
+	}
+
+	/**
+	 * resolveSalvo applies the rules of a salvo: every shot is resolved in one pass, the hits score as
+	 * Player.scoreSalvo tells and the turn passes to the target unless all of its boats were sunk
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who is shooting
+	 * @param target is the player who is being shot
+	 * @param xs are the columns to be shot
+	 * @param ys are the rows to be shot
+	 * @param count is how many cells of xs and ys are shot
+	 * @param hits is where the cells which hit a boat are written
+	 * @param misses is where the cells which hit the water are written
+	 * @param sunk is where the cells whose shot sank their boat are written
+	 *
+	 * @return the number of cells which hit a boat
+	 *
+	 * */
+	public static int resolveSalvo(final Player shooter, final Player target, final int[] xs, final int[] ys, int count,
+			final long[] hits, final long[] misses, final long[] sunk) {
+		final int hit = shooter.salvoAt(xs, ys, count, target, hits, misses, sunk);
+
+		target.incrementHitBoatsPoints(hit);
+		shooter.scoreSalvo(hit);
+
+		if(!isDefeated(target)) {
+			shooter.swapTurn();
+			target.swapTurn();
+		}
+
+		return hit;
+	}
+
+	/**
+	 * isDefeated returns if all the boats of a player were sunk, the board keeps the count of boats afloat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param player is the player to be checked
+	 *
+	 * @return true if the player lost
+	 *
+	 * */
+	public static boolean isDefeated(final Player player) {
+		return player.getBoard().isAllSunk();
+	}
+
+	/**
+	 * getShooter returns the player whose turn it is
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the player who shoots next
+	 *
+	 * */
+	public Player getShooter() { return this.first.isMyTurn() ? this.first : this.second; }
+
+	/**
+	 * getTarget returns the player who will be shot next
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the player who is shot next
+	 *
+	 * */
+	public Player getTarget() { return this.first.isMyTurn() ? this.second : this.first; }
+
+	/**
+	 * step takes one shot from the source of the current player and applies the rules to it
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the result of the shot
+	 *
+	 * */
+	public ShotResult step() {
+		final Player shooter = this.getShooter();
+		final Player target = this.getTarget();
+		final MoveSource source = shooter == this.first ? this.firstSource : this.secondSource;
+
+		final Point point = source.nextShot(shooter, target);
+		final int x = point.getX();
+		final int y = point.getY();
+
+		final ShotResult result = resolveShot(shooter, target, x, y);
+		source.shotResolved(shooter, target, x, y, result);
+
+		return result;
+	}
+
+	/**
+	 * stepSalvo takes a salvo from the source of the current player and applies the rules to it
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of cells which hit a boat
+	 *
+	 * */
+	public int stepSalvo() {
+		final Player shooter = this.getShooter();
+		final Player target = this.getTarget();
+		final MoveSource source = shooter == this.first ? this.firstSource : this.secondSource;
+		final int shots = this.salvo == SALVO_PER_BOAT ? shooter.getBoard().getRemainingBoats() : Math.max(this.salvo, 1);
+		final int words = target.getBoard().getMaskLength();
+
+		if(this.xs.length < shots) {
+			this.xs = new int[shots];
+			this.ys = new int[shots];
+		}
+
+		if(this.hits.length < words) {
+			this.hits = new long[words];
+			this.misses = new long[words];
+			this.sunk = new long[words];
+		}
+
+		final int count = source.nextSalvo(shooter, target, this.xs, this.ys, shots);
+		final int hit = resolveSalvo(shooter, target, this.xs, this.ys, count, this.hits, this.misses, this.sunk);
+
+		source.salvoResolved(shooter, target, this.hits, this.misses, this.sunk);
+
+		return hit;
+	}
+
+	/**
+	 * isOver returns if one of the players lost all of its boats
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return true if the game has ended
+	 *
+	 * */
+	public boolean isOver() { return isDefeated(this.first) || isDefeated(this.second); }
+
+	/**
+	 * getWinner returns the player who sank all the boats of the other one
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the winner or null if the game has not ended
+	 *
+	 * */
+	public Player getWinner() {
+		if(isDefeated(this.second)) return this.first;
+		if(isDefeated(this.first)) return this.second;
+
+		return null;
+	}
+
+	/**
+	 * play runs shots, or salvos on a salvo game, until the game ends
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the winner of the game
+	 *
+	 * */
+	public Player play() {
+		if(this.salvo == 0) {
+			while(!this.isOver()) this.step();
+		} else {
+			while(!this.isOver()) this.stepSalvo();
+		}
+
+		return this.getWinner();
+	}
+}
@@ -0,0 +1,108 @@
+package battleship.engine;
+
+import battleship.core.Board;
+import battleship.core.Player;
+import battleship.core.Point;
+import battleship.core.ShotResult;
+
+/**
+ * MoveSource is where the GameEngine takes the shots of a player from, it can be a console, a bot or a socket
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public interface MoveSource {
+
+	/**
+	 * nextShot chooses the next cell to be shot, implementations are free to reuse the returned point
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who is shooting
+	 * @param opponent is the player who will be shot
+	 *
+	 * @return the point to be shot, it is only read until the next call
+	 *
+	 * */
+	Point nextShot(final Player shooter, final Player opponent);
+
+	/**
+	 * shotResolved is called after the engine applied the rules to the shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who shot
+	 * @param opponent is the player who was shot
+	 * @param x is the column that was shot
+	 * @param y is the row that was shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	default void shotResolved(final Player shooter, final Player opponent, int x, int y, final ShotResult result) {}
+
+	/**
+	 * nextSalvo chooses the cells of a salvo, by default it takes them one by one from nextShot, so a
+	 * source which would choose the same cell again until it is resolved has to override it
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who is shooting
+	 * @param opponent is the player who will be shot
+	 * @param xs is where the columns to be shot are written
+	 * @param ys is where the rows to be shot are written
+	 * @param shots is how many shots the salvo has
+	 *
+	 * @return how many cells were written
+	 *
+	 * */
+	default int nextSalvo(final Player shooter, final Player opponent, final int[] xs, final int[] ys, int shots) {
+		for(int k = 0; k < shots; k++) {
+			final Point point = this.nextShot(shooter, opponent);
+
+			xs[k] = point.getX();
+			ys[k] = point.getY();
+		}
+
+		return shots;
+	}
+
+	/**
+	 * salvoResolved is called after the engine applied the rules to a salvo, by default it hands each
+	 * shot to shotResolved, the misses first and the shots which sank a boat last, so every hit on a
+	 * boat is known before it sinks
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who shot
+	 * @param opponent is the player who was shot
+	 * @param hits are the cells which hit a boat, the sunk ones included
+	 * @param misses are the cells which hit the water
+	 * @param sunk are the cells whose shot sank their boat
+	 *
+	 * */
+	default void salvoResolved(final Player shooter, final Player opponent, final long[] hits, final long[] misses, final long[] sunk) {
+		final Board board = opponent.getBoard();
+		final int width = board.getWidth();
+		final int words = board.getMaskLength();
+
+		for(int pass = 0; pass < 3; pass++) {
+			final ShotResult result = pass == 0 ? ShotResult.MISS : pass == 1 ? ShotResult.HIT : ShotResult.SUNK;
+
+			for(int w = 0; w < words; w++) {
+				long bits = pass == 0 ? misses[w] : pass == 1 ? hits[w] & ~sunk[w] : sunk[w];
+
+				for(; bits != 0; bits &= bits - 1) {
+					final int cell = w << 6 | Long.numberOfTrailingZeros(bits);
+
+					this.shotResolved(shooter, opponent, cell % width, cell / width, result);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package battleship.engine;
+
+import battleship.core.BoatType;
+import battleship.core.InvalidFleet;
+import battleship.core.Player;
+import java.util.SplittableRandom;
+
+/**
+ * PlacementStrategy chooses where the fleet of a player goes, the implementations are found by
+ * Strategies through a ServiceLoader, so they need a public constructor without parameters and a line
+ * on META-INF/services/battleship.engine.PlacementStrategy
+ *
+ * The boats are given by their primitive coordinates to Player.tryAddBoat, which neither allocates nor
+ * throws, and Board.canPlace tests a position without placing it
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public interface PlacementStrategy {
+
+	/**
+	 * getName returns the name the strategy is chosen by
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the name, like random
+	 *
+	 * */
+	String getName();
+
+	/**
+	 * place places every boat of the fleet on the empty board of the player, the same instance may place
+	 * many fleets, at once too, so the state of a placement must not be kept on fields
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws InvalidFleet if the strategy could not place the whole fleet
+	 *
+	 * @param player is the player who will receive the boats
+	 * @param fleet are the boats to be placed, in order
+	 * @param random is the generator of the game, the only source of randomness for the result to be repeatable
+	 *
+	 * */
+	void place(final Player player, final BoatType[] fleet, final SplittableRandom random) throws InvalidFleet;
+}
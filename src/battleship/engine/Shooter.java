@@ -0,0 +1,69 @@
+package battleship.engine;
+
+import battleship.core.Point;
+import battleship.core.ShotResult;
+
+/**
+ * Shooter is a bot which chooses the shots of a player, it is created by a TargetingStrategy and only
+ * sees the opponent through a FogView. The engine plays it through a ShooterMoves
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public interface Shooter {
+
+	/**
+	 * nextShot chooses the next cell to be shot, implementations are free to reuse the returned point
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 *
+	 * @return the point to be shot, it is only read until the next call
+	 *
+	 * */
+	Point nextShot(final FogView opponent);
+
+	/**
+	 * shotResolved is called after the engine applied the rules to the shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which was shot
+	 * @param x is the column that was shot
+	 * @param y is the row that was shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	default void shotResolved(final FogView opponent, int x, int y, final ShotResult result) {}
+
+	/**
+	 * nextSalvo chooses the cells of a salvo, by default it takes them one by one from nextShot, so a
+	 * bot which would choose the same cell again until it is resolved has to override it
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 * @param xs is where the columns to be shot are written
+	 * @param ys is where the rows to be shot are written
+	 * @param shots is how many shots the salvo has
+	 *
+	 * @return how many cells were written
+	 *
+	 * */
+	default int nextSalvo(final FogView opponent, final int[] xs, final int[] ys, int shots) {
+		for(int k = 0; k < shots; k++) {
+			final Point point = this.nextShot(opponent);
+
+			xs[k] = point.getX();
+			ys[k] = point.getY();
+		}
+
+		return shots;
+	}
+}
@@ -0,0 +1,123 @@
+package battleship.engine;
+
+import battleship.core.Board;
+import battleship.core.Player;
+import battleship.core.Point;
+import battleship.core.ShotResult;
+
+/**
+ * ShooterMoves plays a Shooter as the MoveSource of a player, handing it a FogView of the opponent
+ * board instead of the opponent, the view is kept while the opponent board stays the same
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class ShooterMoves implements MoveSource {
+
+	/**
+	 * shooter is the bot which chooses the shots
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Shooter shooter;
+
+	/**
+	 * view is the view of the last opponent board, null before the first shot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private FogView view;
+
+	/**
+	 * ShooterMoves is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the bot which chooses the shots
+	 *
+	 * */
+	public ShooterMoves(final Shooter shooter) {
+		this.shooter = shooter;
+	}
+
+	/**
+	 * view returns the view of the board of an opponent
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param opponent is the player who is shot
+	 *
+	 * @return the view of its board
+	 *
+	 * */
+	private FogView view(final Player opponent) {
+		final Board board = opponent.getBoard();
+
+		if(this.view == null || !this.view.isOf(board)) this.view = new FogView(board);
+
+		return this.view;
+	}
+
+	/**
+	 * nextShot asks the bot for its shot through the view of the opponent board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who is shooting
+	 * @param opponent is the player who will be shot
+	 *
+	 * @return the point to be shot
+	 *
+	 * */
+	@Override
+	public Point nextShot(final Player shooter, final Player opponent) {
+		return this.shooter.nextShot(this.view(opponent));
+	}
+
+	/**
+	 * shotResolved hands the result of a shot to the bot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who shot
+	 * @param opponent is the player who was shot
+	 * @param x is the column that was shot
+	 * @param y is the row that was shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	@Override
+	public void shotResolved(final Player shooter, final Player opponent, int x, int y, final ShotResult result) {
+		this.shooter.shotResolved(this.view(opponent), x, y, result);
+	}
+
+	/**
+	 * nextSalvo asks the bot for the cells of a salvo through the view of the opponent board
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param shooter is the player who is shooting
+	 * @param opponent is the player who will be shot
+	 * @param xs is where the columns to be shot are written
+	 * @param ys is where the rows to be shot are written
+	 * @param shots is how many shots the salvo has
+	 *
+	 * @return how many cells were written
+	 *
+	 * */
+	@Override
+	public int nextSalvo(final Player shooter, final Player opponent, final int[] xs, final int[] ys, int shots) {
+		return this.shooter.nextSalvo(this.view(opponent), xs, ys, shots);
+	}
+}
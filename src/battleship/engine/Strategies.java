@@ -0,0 +1,159 @@
+package battleship.engine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.ServiceLoader;
+
+/**
+ * Strategies finds the placement and targeting strategies on the class path through a ServiceLoader,
+ * the ones of the game and the ones of any jar added to it. The ones of the game are also looked up by
+ * class name when no provider file names them, since a plain javac -d out does not copy src/META-INF
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class Strategies {
+
+	/**
+	 * BUILT_IN_PLACEMENTS is a constant which holds the class names of the placement strategies of the game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final String[] BUILT_IN_PLACEMENTS = { "battleship.sim.RandomPlacement" };
+
+	/**
+	 * BUILT_IN_TARGETINGS is a constant which holds the class names of the targeting strategies of the game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final String[] BUILT_IN_TARGETINGS = { "battleship.sim.HuntTargeting", "battleship.sim.DensityTargeting" };
+
+	/**
+	 * Strategies is private because the class only has static methods
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private Strategies() {}
+
+	/**
+	 * load returns the strategies of a kind which a ServiceLoader finds, followed by the ones of the game
+	 * which it did not find
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param kind is the interface of the strategies
+	 * @param builtIns are the class names of the strategies of the game
+	 *
+	 * @return a new instance of each strategy
+	 *
+	 * */
+	private static <T> List<T> load(final Class<T> kind, final String[] builtIns) {
+		final List<T> strategies = new ArrayList<>();
+		final Set<String> found = new HashSet<>();
+
+		for(final T strategy : ServiceLoader.load(kind)) {
+			strategies.add(strategy);
+			found.add(strategy.getClass().getName());
+		}
+
+		for(final String name : builtIns) {
+			if(found.contains(name)) continue;
+
+			try {
+				strategies.add(kind.cast(Class.forName(name).getConstructor().newInstance()));
+
+			} catch (ReflectiveOperationException e) {
+				//a trimmed class path may leave a strategy of the game out, the others are still offered
+			}
+		}
+
+		return strategies;
+	}
+
+	/**
+	 * placements returns every placement strategy found
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return a new instance of each strategy
+	 *
+	 * */
+	public static List<PlacementStrategy> placements() {
+		return load(PlacementStrategy.class, BUILT_IN_PLACEMENTS);
+	}
+
+	/**
+	 * targetings returns every targeting strategy found
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return a new instance of each strategy
+	 *
+	 * */
+	public static List<TargetingStrategy> targetings() {
+		return load(TargetingStrategy.class, BUILT_IN_TARGETINGS);
+	}
+
+	/**
+	 * placement returns the placement strategy of a name
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if no strategy has the name, with the names there are
+	 *
+	 * @param name is the name of the strategy, upper and lower case are the same
+	 *
+	 * @return the strategy
+	 *
+	 * */
+	public static PlacementStrategy placement(final String name) {
+		final StringBuilder names = new StringBuilder();
+
+		for(final PlacementStrategy strategy : placements()) {
+			if(strategy.getName().equalsIgnoreCase(name)) return strategy;
+
+			names.append(names.length() == 0 ? "" : ", ").append(strategy.getName());
+		}
+
+		throw new IllegalArgumentException("Estratégia de posicionamento desconhecida: " + name + " (disponíveis: " + names + ")");
+	}
+
+	/**
+	 * targeting returns the targeting strategy of a name
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if no strategy has the name, with the names there are
+	 *
+	 * @param name is the name of the strategy, upper and lower case are the same
+	 *
+	 * @return the strategy
+	 *
+	 * */
+	public static TargetingStrategy targeting(final String name) {
+		final StringBuilder names = new StringBuilder();
+
+		for(final TargetingStrategy strategy : targetings()) {
+			if(strategy.getName().equalsIgnoreCase(name)) return strategy;
+
+			names.append(names.length() == 0 ? "" : ", ").append(strategy.getName());
+		}
+
+		throw new IllegalArgumentException("Estratégia de tiro desconhecida: " + name + " (disponíveis: " + names + ")");
+	}
+}
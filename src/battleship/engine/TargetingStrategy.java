@@ -0,0 +1,46 @@
+package battleship.engine;
+
+import battleship.core.GameConfig;
+import java.util.SplittableRandom;
+
+/**
+ * TargetingStrategy creates the bots which choose the shots of a player, the implementations are found
+ * by Strategies through a ServiceLoader, so they need a public constructor without parameters and a
+ * line on META-INF/services/battleship.engine.TargetingStrategy
+ *
+ * The bot is a Shooter of its own game, so it keeps its state on fields and returns the same point
+ * from every nextShot. It sees the opponent through the fog of war, the results handed to shotResolved
+ * and a FogView of the opponent board, which never tells where the boats that are afloat are
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public interface TargetingStrategy {
+
+	/**
+	 * getName returns the name the strategy is chosen by
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the name, like hunt
+	 *
+	 * */
+	String getName();
+
+	/**
+	 * newShooter creates the bot of one game, the expensive setup belongs here and not on nextShot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the opponent board and the fleet placed on it
+	 * @param random is the generator of the game, the only source of randomness for the game to be repeatable
+	 *
+	 * @return the bot, used by a single game
+	 *
+	 * */
+	Shooter newShooter(final GameConfig config, final SplittableRandom random);
+}
@@ -0,0 +1,65 @@
+package battleship.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * GameEvent is the JFR event of a whole console game, from the players being named until the winner
+ * is shown, so the placements and every turn fall inside it
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+@Name("battleship.Game")
+@Label("Game")
+@Description("A whole game, from the placements until there is a winner")
+@Category("Battleship")
+@StackTrace(false)
+public class GameEvent extends Event {
+
+	/**
+	 * width is the number of columns of the boards
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Width")
+	public int width;
+
+	/**
+	 * height is the number of rows of the boards
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Height")
+	public int height;
+
+	/**
+	 * winner is the name of the winner
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Winner")
+	public String winner;
+
+	/**
+	 * score is the score of the winner
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Score")
+	public int score;
+}
@@ -0,0 +1,86 @@
+package battleship.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * PlacementEvent is the JFR event of a boat tried on a board, placed or rejected. It is off unless the
+ * recording settings turn it on, like jfr/battleship.jfc does
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+@Name("battleship.Placement")
+@Label("Placement")
+@Description("A boat tried on a board")
+@Category("Battleship")
+@Enabled(false)
+@StackTrace(false)
+public class PlacementEvent extends Event {
+
+	/**
+	 * PLACED is the outcome of a boat which was placed, the rejected ones have the name of their PlacementError
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final String PLACED = "PLACED";
+
+	/**
+	 * type is the name of the BoatType of the boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Type")
+	public String type;
+
+	/**
+	 * orientation is the name of the BoatOrientation of the boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Orientation")
+	public String orientation;
+
+	/**
+	 * x is the column of the first cell of the boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("X")
+	public int x;
+
+	/**
+	 * y is the row of the first cell of the boat
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Y")
+	public int y;
+
+	/**
+	 * outcome is PLACED or why the boat was rejected
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Outcome")
+	public String outcome;
+}
@@ -0,0 +1,57 @@
+package battleship.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ShotEvent is the JFR event of a shot resolved by a board. It is off unless the recording settings turn
+ * it on, like jfr/battleship.jfc does, and then it is committed once per shot
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+@Name("battleship.Shot")
+@Label("Shot")
+@Description("A shot resolved by a board")
+@Category("Battleship")
+@Enabled(false)
+@StackTrace(false)
+public class ShotEvent extends Event {
+
+	/**
+	 * x is the column of the shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("X")
+	public int x;
+
+	/**
+	 * y is the row of the shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Y")
+	public int y;
+
+	/**
+	 * result is the name of the ShotResult of the shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Result")
+	public String result;
+}
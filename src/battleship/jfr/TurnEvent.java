@@ -0,0 +1,45 @@
+package battleship.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * TurnEvent is the JFR event of a turn of a player, from when the turn is given to the player until it
+ * passes to the opponent, so its duration covers the thinking or typing and every shot of the turn
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+@Name("battleship.Turn")
+@Label("Turn")
+@Description("The turn of a player, until it passes to the opponent")
+@Category("Battleship")
+@StackTrace(false)
+public class TurnEvent extends Event {
+
+	/**
+	 * player is the name of the player of the turn
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Player")
+	public String player;
+
+	/**
+	 * score is the score of the player when the turn ended
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Label("Score")
+	public int score;
+}
@@ -0,0 +1,153 @@
+package battleship.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram counts durations in power of two buckets of nanoseconds, the bucket of a duration is found
+ * from its leading zeros and counted on a striped LongAdder, so recording costs a few nanoseconds and
+ * does not contend between threads. The buckets are coarse, a quantile is known within a factor of two
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class Histogram {
+
+	/**
+	 * BUCKETS is a constant which holds the number of buckets, the last one holds everything above 2^38 ns
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final int BUCKETS = 40;
+
+	/**
+	 * counts holds how many durations fell on each bucket, bucket i holds the durations below 2^(i+1) ns
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+	/**
+	 * sum is the sum of every duration recorded, in nanoseconds
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * Histogram is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public Histogram() {
+		for(int i = 0; i < BUCKETS; i++) this.counts[i] = new LongAdder();
+	}
+
+	/**
+	 * record counts a duration
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param nanos is the duration in nanoseconds
+	 *
+	 * */
+	public void record(long nanos) {
+		if(nanos < 0) nanos = 0;
+
+		this.counts[Math.min(63 - Long.numberOfLeadingZeros(nanos | 1), BUCKETS - 1)].increment();
+		this.sum.add(nanos);
+	}
+
+	/**
+	 * getCount returns how many durations were recorded
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of durations
+	 *
+	 * */
+	public long getCount() {
+		long count = 0;
+
+		for(final LongAdder bucket : this.counts) count += bucket.sum();
+
+		return count;
+	}
+
+	/**
+	 * getSum returns the sum of the durations recorded
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the sum in nanoseconds
+	 *
+	 * */
+	public long getSum() { return this.sum.sum(); }
+
+	/**
+	 * getBucket returns how many durations fell on a bucket
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param bucket is the index of the bucket
+	 *
+	 * @return the count of the bucket
+	 *
+	 * */
+	public long getBucket(int bucket) { return this.counts[bucket].sum(); }
+
+	/**
+	 * upperBound returns the duration every value of a bucket is below
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param bucket is the index of the bucket
+	 *
+	 * @return the bound in nanoseconds, Long.MAX_VALUE for the last bucket
+	 *
+	 * */
+	public static long upperBound(int bucket) { return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 2L << bucket; }
+
+	/**
+	 * quantile returns the upper bound of the bucket where a quantile of the durations falls
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param q is the quantile, between 0 and 1
+	 *
+	 * @return the bound in nanoseconds or 0 if nothing was recorded
+	 *
+	 * */
+	public long quantile(double q) {
+		final long[] counts = new long[BUCKETS];
+		long total = 0;
+
+		for(int i = 0; i < BUCKETS; i++) total += counts[i] = this.counts[i].sum();
+
+		final long rank = (long) Math.ceil(q * total);
+		long seen = 0;
+
+		for(int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+
+			if(seen >= rank && seen > 0) return upperBound(i);
+		}
+
+		return 0;
+	}
+}
@@ -0,0 +1,263 @@
+package battleship.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRegistry holds named counters and histograms and writes them in the Prometheus text format,
+ * either dumped to a stream from time to time or served over HTTP on /metrics. The metrics are created
+ * once, when the registry is set up, so the hot paths only touch their LongAdders
+ *
+ * A name may carry labels, like shots_total{result="hit"}, every metric with the same name before the
+ * labels shares one HELP and TYPE line, so they should be registered next to each other
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class MetricsRegistry {
+
+	/**
+	 * Entry is a registered metric with its name and description
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final class Entry {
+
+		/**
+		 * name is the name of the metric with its labels
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final String name;
+
+		/**
+		 * help is the description of the metric
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final String help;
+
+		/**
+		 * metric is the LongAdder of a counter or the Histogram
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final Object metric;
+
+		/**
+		 * Entry is the constructor of the class
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param name is the name of the metric with its labels
+		 * @param help is the description of the metric
+		 * @param metric is the LongAdder of a counter or the Histogram
+		 *
+		 * */
+		private Entry(final String name, final String help, final Object metric) {
+			this.name = name;
+			this.help = help;
+			this.metric = metric;
+		}
+	}
+
+	/**
+	 * entries are the metrics in the order they were registered
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final List<Entry> entries = new ArrayList<>();
+
+	/**
+	 * counter registers a counter
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param name is the name of the counter, it may end with labels in braces
+	 * @param help is the description of the counter
+	 *
+	 * @return the counter
+	 *
+	 * */
+	public synchronized LongAdder counter(final String name, final String help) {
+		final LongAdder counter = new LongAdder();
+
+		this.entries.add(new Entry(name, help, counter));
+
+		return counter;
+	}
+
+	/**
+	 * histogram registers a histogram of durations
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param name is the name of the histogram, written in seconds like Prometheus expects
+	 * @param help is the description of the histogram
+	 *
+	 * @return the histogram
+	 *
+	 * */
+	public synchronized Histogram histogram(final String name, final String help) {
+		final Histogram histogram = new Histogram();
+
+		this.entries.add(new Entry(name, help, histogram));
+
+		return histogram;
+	}
+
+	/**
+	 * appendTo writes every metric in the Prometheus text format
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param text is where the metrics are appended
+	 *
+	 * */
+	public synchronized void appendTo(final StringBuilder text) {
+		String family = null;
+
+		for(final Entry entry : this.entries) {
+			final int braces = entry.name.indexOf('{');
+			final String name = braces < 0 ? entry.name : entry.name.substring(0, braces);
+			final String labels = braces < 0 ? "" : entry.name.substring(braces + 1, entry.name.length() - 1);
+
+			if(!name.equals(family)) {
+				family = name;
+				text.append("# HELP ").append(name).append(' ').append(entry.help).append('\n');
+				text.append("# TYPE ").append(name).append(entry.metric instanceof Histogram ? " histogram\n" : " counter\n");
+			}
+
+			if(entry.metric instanceof LongAdder) {
+				text.append(entry.name).append(' ').append(((LongAdder) entry.metric).sum()).append('\n');
+				continue;
+			}
+
+			final Histogram histogram = (Histogram) entry.metric;
+			final String separator = labels.isEmpty() ? "" : ",";
+			long cumulative = 0;
+
+			for(int i = 0; i < Histogram.BUCKETS - 1; i++) {
+				cumulative += histogram.getBucket(i);
+
+				text.append(name).append("_bucket{").append(labels).append(separator).append("le=\"")
+						.append(Histogram.upperBound(i) / 1e9).append("\"} ").append(cumulative).append('\n');
+			}
+
+			cumulative += histogram.getBucket(Histogram.BUCKETS - 1);
+
+			text.append(name).append("_bucket{").append(labels).append(separator).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+			text.append(name).append("_sum").append(braces < 0 ? "" : "{" + labels + "}").append(' ').append(histogram.getSum() / 1e9).append('\n');
+			text.append(name).append("_count").append(braces < 0 ? "" : "{" + labels + "}").append(' ').append(cumulative).append('\n');
+		}
+	}
+
+	/**
+	 * text returns every metric in the Prometheus text format
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the metrics
+	 *
+	 * */
+	public String text() {
+		final StringBuilder text = new StringBuilder(4096);
+
+		this.appendTo(text);
+
+		return text.toString();
+	}
+
+	/**
+	 * dump writes the metrics to a stream every given period, from a daemon thread
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param out is where the metrics are written
+	 * @param seconds is the period of the dumps
+	 *
+	 * @return what stops the dumps when closed
+	 *
+	 * */
+	public Closeable dump(final PrintStream out, long seconds) {
+		final ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+			final Thread thread = new Thread(task, "metrics-dump");
+
+			thread.setDaemon(true);
+
+			return thread;
+		});
+
+		dumper.scheduleAtFixedRate(() -> out.print(this.text()), seconds, seconds, TimeUnit.SECONDS);
+
+		return dumper::shutdownNow;
+	}
+
+	/**
+	 * serve answers GET /metrics with the metrics, from a daemon thread
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the port can not be bound
+	 *
+	 * @param address is where the endpoint listens
+	 *
+	 * @return what stops the endpoint when closed
+	 *
+	 * */
+	public Closeable serve(final InetSocketAddress address) throws IOException {
+		final HttpServer server = HttpServer.create(address, 0);
+
+		server.createContext("/metrics", exchange -> {
+			final byte[] body = this.text().getBytes(StandardCharsets.UTF_8);
+
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+			exchange.sendResponseHeaders(200, body.length);
+
+			try(OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+
+		server.setExecutor(Executors.newSingleThreadExecutor(task -> {
+			final Thread thread = new Thread(task, "metrics-http");
+
+			thread.setDaemon(true);
+
+			return thread;
+		}));
+		server.start();
+
+		return () -> server.stop(0);
+	}
+}
@@ -0,0 +1,151 @@
+package battleship.net;
+
+import battleship.core.Player;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connection is the state the GameServer keeps per client, its buffers are allocated once and reused
+ * for every message of every match the client plays
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access default
+ *
+ * */
+class Connection {
+
+	/**
+	 * channel is the socket of the client
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	final SocketChannel channel;
+
+	/**
+	 * key is the registration of the channel on the selector
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	final SelectionKey key;
+
+	/**
+	 * in holds the bytes received which do not form a whole message yet, it is kept in write mode
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	final ByteBuffer in;
+
+	/**
+	 * out holds the bytes to be sent, it is kept in write mode
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	final ByteBuffer out;
+
+	/**
+	 * match is the match the client is playing or null if it is not playing one
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	Match match;
+
+	/**
+	 * player is the player of the client on its match
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	Player player;
+
+	/**
+	 * placed is if the fleet of the client was placed on its match
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	boolean placed;
+
+	/**
+	 * dirty is if out has bytes which were not handed to the channel yet
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	boolean dirty;
+
+	/**
+	 * Connection is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param channel is the socket of the client
+	 * @param key is the registration of the channel on the selector
+	 * @param inSize is the size of the largest message the client may send
+	 * @param outSize is how many bytes may wait to be sent before the client is dropped
+	 *
+	 * */
+	Connection(final SocketChannel channel, final SelectionKey key, int inSize, int outSize) {
+		this.channel = channel;
+		this.key = key;
+		this.in = ByteBuffer.allocateDirect(inSize);
+		this.out = ByteBuffer.allocateDirect(outSize);
+	}
+
+	/**
+	 * reserve returns the output buffer if it has room for a message
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param bytes is the size of the message
+	 *
+	 * @return the output buffer or null if the client is not reading fast enough
+	 *
+	 * */
+	ByteBuffer reserve(int bytes) {
+		if(this.out.remaining() < bytes) return null;
+
+		this.dirty = true;
+
+		return this.out;
+	}
+
+	/**
+	 * flush hands the pending bytes to the channel and asks the selector for write readiness if some
+	 * of them did not fit the socket buffer
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @throws IOException if the channel fails
+	 *
+	 * */
+	void flush() throws IOException {
+		this.out.flip();
+		this.channel.write(this.out);
+
+		final boolean pending = this.out.hasRemaining();
+
+		this.out.compact();
+		this.dirty = false;
+
+		this.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+	}
+}
@@ -0,0 +1,713 @@
+package battleship.net;
+
+import battleship.Options;
+import battleship.core.*;
+import battleship.engine.GameEngine;
+import battleship.replay.ReplayJournal;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * GameServer hosts two player matches over TCP on a single thread. A Selector tells which sockets
+ * are ready, each connection keeps its own buffers for its whole life, and the rules of the game come
+ * from Board, Player and GameEngine, so there is no thread per connection nor a copy of the rules.
+ * The messages are the binary ones described in Protocol
+ *
+ * Run it with: java -cp out battleship.net.GameServer [--port P] [--width W] [--height H] [--fleet L,B,M,S]
+ *   [--metrics-port P] [--metrics-dump SECONDS] [--journal FILE]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class GameServer implements Runnable, Closeable {
+
+	/**
+	 * TYPES is a constant which holds the boat types, the protocol sends their ordinal
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final BoatType[] TYPES = BoatType.values();
+
+	/**
+	 * ORIENTATIONS is a constant which holds the boat orientations, the protocol sends their ordinal
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final BoatOrientation[] ORIENTATIONS = BoatOrientation.values();
+
+	/**
+	 * OUT_BUFFER is a constant which holds how many bytes may wait to be sent to a client before it is dropped
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int OUT_BUFFER = 16 * 1024;
+
+	/**
+	 * config is the size of the boards and the fleet of every match
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final GameConfig config;
+
+	/**
+	 * fleetCounts holds how many boats of each type a fleet must have
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] fleetCounts;
+
+	/**
+	 * selector tells which channels are ready
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Selector selector;
+
+	/**
+	 * server is the channel which accepts the clients
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final ServerSocketChannel server;
+
+	/**
+	 * dirty are the connections with bytes to be flushed after the ready keys are handled
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final ArrayDeque<Connection> dirty = new ArrayDeque<>();
+
+	/**
+	 * waiting is the connection which asked for an opponent and did not get one yet
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private Connection waiting;
+
+	/**
+	 * running is false once the server is asked to stop
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private volatile boolean running = true;
+
+	/**
+	 * moves counts the shots resolved, it is only written by the server thread
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private volatile long moves;
+
+	/**
+	 * journal is where every match is recorded when it ends, null when the matches are not recorded
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private volatile ReplayJournal journal;
+
+	/**
+	 * GameServer is the constructor of the class, it binds the server socket
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the socket can not be bound
+	 * @throws IllegalArgumentException if the board is larger than the protocol can address
+	 *
+	 * @param config is the size of the boards and the fleet of every match
+	 * @param address is where the server listens, port 0 picks a free port
+	 *
+	 * */
+	public GameServer(final GameConfig config, final InetSocketAddress address) throws IOException {
+		if(config.getWidth() > Protocol.MAX_SIZE || config.getHeight() > Protocol.MAX_SIZE || config.getFleet().length > 0xFFFF)
+			throw new IllegalArgumentException("O servidor aceita tabuleiros de até " + Protocol.MAX_SIZE + "x" + Protocol.MAX_SIZE);
+
+		this.config = config;
+		this.fleetCounts = new int[TYPES.length];
+
+		for(final BoatType type : config.getFleet()) this.fleetCounts[type.ordinal()]++;
+
+		this.selector = Selector.open();
+		this.server = ServerSocketChannel.open();
+		this.server.bind(address, 1024);
+		this.server.configureBlocking(false);
+		this.server.register(this.selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * getPort returns the port the server listens on
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the socket was closed
+	 *
+	 * @return the local port
+	 *
+	 * */
+	public int getPort() throws IOException {
+		return ((InetSocketAddress) this.server.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * getMoves returns how many shots the server resolved
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of shots
+	 *
+	 * */
+	public long getMoves() { return this.moves; }
+
+	/**
+	 * setJournal records every match started from now on, each one is appended to the journal when it ends
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param journal is where the matches are recorded or null to stop recording them
+	 *
+	 * */
+	public void setJournal(final ReplayJournal journal) { this.journal = journal; }
+
+	/**
+	 * run serves the clients until the server is closed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Override
+	public void run() {
+		try {
+			while(this.running) {
+				this.selector.select();
+
+				final Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+
+				while(keys.hasNext()) {
+					final SelectionKey key = keys.next();
+					keys.remove();
+
+					if(!key.isValid()) continue;
+
+					if(key.isAcceptable()) {
+						this.accept();
+						continue;
+					}
+
+					final Connection connection = (Connection) key.attachment();
+
+					try {
+						if(key.isReadable()) this.read(connection);
+						if(key.isValid() && key.isWritable()) connection.flush();
+
+					} catch (IOException e) {
+						this.disconnect(connection);
+					}
+				}
+
+				this.flushDirty();
+			}
+
+		} catch (IOException e) {
+			System.err.println("O servidor parou: " + e.getMessage());
+
+		} finally {
+			this.shutdown();
+		}
+	}
+
+	/**
+	 * close asks the server thread to stop, the sockets are closed by it
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Override
+	public void close() {
+		this.running = false;
+		this.selector.wakeup();
+	}
+
+	/**
+	 * shutdown closes every channel and the selector
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private void shutdown() {
+		for(final SelectionKey key : this.selector.keys()) {
+			try {
+				key.channel().close();
+
+			} catch (IOException e) {
+				//the server is going away, a channel which fails to close is dropped anyway
+			}
+		}
+
+		try {
+			this.selector.close();
+
+		} catch (IOException e) {
+			//the server is going away
+		}
+	}
+
+	/**
+	 * accept takes every pending client and registers it for reading
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if the server socket fails
+	 *
+	 * */
+	private void accept() throws IOException {
+		SocketChannel channel;
+
+		while((channel = this.server.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+			final SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+			final int inSize = Math.max(64, 3 + 3 * this.config.getFleet().length);
+
+			key.attach(new Connection(channel, key, inSize, OUT_BUFFER));
+		}
+	}
+
+	/**
+	 * read takes the bytes available on a connection and handles every whole message among them
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if the channel fails
+	 *
+	 * @param connection is the connection to be read
+	 *
+	 * */
+	private void read(final Connection connection) throws IOException {
+		final ByteBuffer in = connection.in;
+
+		if(connection.channel.read(in) < 0) {
+			this.disconnect(connection);
+			return;
+		}
+
+		in.flip();
+
+		while(connection.channel.isOpen()) {
+			final int length = Protocol.length(in);
+
+			if(length == 0 || length > in.capacity()) {
+				this.disconnect(connection);
+				return;
+			}
+
+			if(length < 0 || length > in.remaining()) break;
+
+			final int start = in.position();
+
+			this.handle(connection, in, start);
+			in.position(start + length);
+		}
+
+		in.compact();
+	}
+
+	/**
+	 * handle acts on one message
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection which sent the message
+	 * @param in is the buffer with the message
+	 * @param start is where the message starts
+	 *
+	 * */
+	private void handle(final Connection connection, final ByteBuffer in, int start) {
+		switch(in.get(start)) {
+			case Protocol.JOIN:
+				this.join(connection);
+				break;
+
+			case Protocol.FLEET:
+				this.fleet(connection, in, start);
+				break;
+
+			case Protocol.SHOT:
+				this.shot(connection, Byte.toUnsignedInt(in.get(start + 1)), Byte.toUnsignedInt(in.get(start + 2)));
+				break;
+
+			default:
+				this.send(connection, Protocol.ERROR, Protocol.BAD_MESSAGE);
+		}
+	}
+
+	/**
+	 * join pairs a connection with the one waiting for an opponent, or makes it wait
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection which asked for an opponent
+	 *
+	 * */
+	private void join(final Connection connection) {
+		if(connection.match != null || connection == this.waiting) {
+			this.send(connection, Protocol.ERROR, Protocol.BAD_MESSAGE);
+			return;
+		}
+
+		if(this.waiting == null) {
+			this.waiting = connection;
+			return;
+		}
+
+		final Match match = new Match(this.config, this.waiting, connection);
+		final ReplayJournal journal = this.journal;
+
+		if(journal != null) {
+			match.recording = journal.newRecording();
+			match.recording.attach(match.first.player.getBoard(), match.second.player.getBoard());
+		}
+
+		this.waiting = null;
+		this.start(match.first);
+		this.start(match.second);
+	}
+
+	/**
+	 * start tells a connection its match started and which fleet it must place
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection to be told
+	 *
+	 * */
+	private void start(final Connection connection) {
+		final BoatType[] fleet = this.config.getFleet();
+		final ByteBuffer out = this.reserve(connection, 7 + fleet.length);
+
+		if(out == null) return;
+
+		out.put(Protocol.START)
+				.putShort((short) this.config.getWidth())
+				.putShort((short) this.config.getHeight())
+				.putShort((short) fleet.length);
+
+		for(final BoatType type : fleet) out.put((byte) type.ordinal());
+	}
+
+	/**
+	 * fleet places the fleet sent by a connection, telling why each boat was rejected if it was
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection which sent the fleet
+	 * @param in is the buffer with the message
+	 * @param start is where the message starts
+	 *
+	 * */
+	private void fleet(final Connection connection, final ByteBuffer in, int start) {
+		if(connection.match == null || connection.match.over || connection.placed) {
+			this.send(connection, Protocol.ERROR, Protocol.BAD_MESSAGE);
+			return;
+		}
+
+		final int count = Short.toUnsignedInt(in.getShort(start + 1));
+		final int[] counts = new int[TYPES.length];
+		final List<Boat> boats = new ArrayList<>(count);
+
+		for(int i = 0; i < count; i++) {
+			final int at = start + 3 + 3 * i;
+			final int kind = Byte.toUnsignedInt(in.get(at + 2));
+			final int type = kind >>> 2;
+			final int orientation = kind & 3;
+
+			if(type >= TYPES.length || orientation >= ORIENTATIONS.length) break;
+
+			counts[type]++;
+			boats.add(new Boat(TYPES[type], ORIENTATIONS[orientation],
+					new Point(Byte.toUnsignedInt(in.get(at)), Byte.toUnsignedInt(in.get(at + 1)))));
+		}
+
+		if(boats.size() != count || !Arrays.equals(counts, this.fleetCounts)) {
+			this.send(connection, Protocol.ERROR, Protocol.BAD_FLEET);
+			return;
+		}
+
+		try {
+			connection.player.addFleet(boats);
+
+		} catch (InvalidFleet e) {
+			final ByteBuffer out = this.reserve(connection, 3 + count);
+
+			if(out == null) return;
+
+			out.put(Protocol.FLEET_REJECTED).putShort((short) count);
+
+			for(int i = 0; i < count; i++) {
+				out.put(e.getError(i) == null ? 0 : (byte) (e.getError(i).ordinal() + 1));
+			}
+
+			return;
+		}
+
+		connection.placed = true;
+		this.send(connection, Protocol.FLEET_OK);
+
+		final Match match = connection.match;
+
+		if(match.isStarted()) this.send(match.first, Protocol.TURN);
+	}
+
+	/**
+	 * shot resolves a shot of a connection and tells both players its result
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection which shot
+	 * @param x is the column shot
+	 * @param y is the row shot
+	 *
+	 * */
+	private void shot(final Connection connection, int x, int y) {
+		final Match match = connection.match;
+
+		if(match == null || match.over || !match.isStarted()) {
+			this.send(connection, Protocol.ERROR, Protocol.BAD_MESSAGE);
+			return;
+		}
+
+		if(!connection.player.isMyTurn()) {
+			this.send(connection, Protocol.ERROR, Protocol.NOT_YOUR_TURN);
+			return;
+		}
+
+		final Connection opponent = match.opponent(connection);
+		final ShotResult result = GameEngine.resolveShot(connection.player, opponent.player, x, y);
+
+		this.moves++;
+		this.send(connection, Protocol.RESULT, x, y, result);
+		this.send(opponent, Protocol.INCOMING, x, y, result);
+
+		if(!GameEngine.isDefeated(opponent.player)) return;
+
+		this.send(connection, Protocol.END, Protocol.WON);
+		this.send(opponent, Protocol.END, Protocol.LOST);
+		this.end(match);
+	}
+
+	/**
+	 * end closes a match, both connections may join another one
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param match is the match to be closed
+	 *
+	 * */
+	private void end(final Match match) {
+		match.over = true;
+		match.first.match = null;
+		match.second.match = null;
+
+		if(match.recording != null) match.recording.finish();
+	}
+
+	/**
+	 * disconnect closes a connection, its opponent wins the match by forfeit
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection to be closed
+	 *
+	 * */
+	private void disconnect(final Connection connection) {
+		connection.key.cancel();
+
+		try {
+			connection.channel.close();
+
+		} catch (IOException e) {
+			//the connection is being dropped anyway
+		}
+
+		if(this.waiting == connection) this.waiting = null;
+
+		final Match match = connection.match;
+
+		if(match != null && !match.over) {
+			final Connection opponent = match.opponent(connection);
+
+			this.end(match);
+
+			if(opponent.channel.isOpen()) this.send(opponent, Protocol.END, Protocol.FORFEIT);
+		}
+	}
+
+	/**
+	 * reserve returns the output buffer of a connection with room for a message, dropping the connection
+	 * if its client is not reading what was sent
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection to be written
+	 * @param bytes is the size of the message
+	 *
+	 * @return the output buffer or null if the connection was dropped
+	 *
+	 * */
+	private ByteBuffer reserve(final Connection connection, int bytes) {
+		if(!connection.dirty) this.dirty.add(connection);
+
+		final ByteBuffer out = connection.reserve(bytes);
+
+		if(out == null) this.disconnect(connection);
+
+		return out;
+	}
+
+	/**
+	 * send queues a message without payload
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection to be written
+	 * @param opcode is the opcode of the message
+	 *
+	 * */
+	private void send(final Connection connection, byte opcode) {
+		final ByteBuffer out = this.reserve(connection, 1);
+
+		if(out != null) out.put(opcode);
+	}
+
+	/**
+	 * send queues a message with a one byte payload
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection to be written
+	 * @param opcode is the opcode of the message
+	 * @param value is the payload
+	 *
+	 * */
+	private void send(final Connection connection, byte opcode, byte value) {
+		final ByteBuffer out = this.reserve(connection, 2);
+
+		if(out != null) out.put(opcode).put(value);
+	}
+
+	/**
+	 * send queues the result of a shot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param connection is the connection to be written
+	 * @param opcode is RESULT or INCOMING
+	 * @param x is the column shot
+	 * @param y is the row shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	private void send(final Connection connection, byte opcode, int x, int y, final ShotResult result) {
+		final ByteBuffer out = this.reserve(connection, 4);
+
+		if(out != null) out.put(opcode).put((byte) x).put((byte) y).put((byte) result.ordinal());
+	}
+
+	/**
+	 * flushDirty hands the queued bytes of every written connection to their channels
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private void flushDirty() {
+		Connection connection;
+
+		while((connection = this.dirty.poll()) != null) {
+			if(!connection.channel.isOpen()) continue;
+
+			try {
+				connection.flush();
+
+			} catch (IOException e) {
+				this.disconnect(connection);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		final GameConfig config = Options.gameConfig(args);
+		final int port = Options.getInt(args, "port", 7777);
+
+		Options.metrics(args);
+
+		//the journal is declared first so it is closed after the server
+		try(ReplayJournal journal = Options.has(args, "journal")
+				? ReplayJournal.open(Path.of(Options.get(args, "journal", "")), config.getWidth(), config.getHeight())
+				: null;
+			GameServer server = new GameServer(config, new InetSocketAddress(port))) {
+
+			server.setJournal(journal);
+			System.out.printf("Servidor ouvindo na porta %d (%s)\n", server.getPort(), config);
+			server.run();
+		}
+	}
+}
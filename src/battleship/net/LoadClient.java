@@ -0,0 +1,473 @@
+package battleship.net;
+
+import battleship.Options;
+import battleship.core.*;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * LoadClient plays many matches at once against a GameServer from a single thread, every client places
+ * a random fleet, shoots the cells of the opponent board in a random order and joins a new match when
+ * one ends. Without --port it starts a server on the loopback and plays against it, which is the quick
+ * way to check how many moves per second the server sustains, see LoopbackCheck for the version which
+ * fails on errors
+ *
+ * Run it with: java -cp out battleship.net.LoadClient [--clients N] [--seconds S] [--host H] [--port P]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class LoadClient {
+
+	/**
+	 * BUFFER is a constant which holds the size of the buffers of each client
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int BUFFER = 16 * 1024;
+
+	/**
+	 * moves counts the results of shots received by every client
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long moves;
+
+	/**
+	 * games counts the matches which ended
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long games;
+
+	/**
+	 * errors counts the ERROR messages received
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long errors;
+
+	/**
+	 * Client is the state of one connection of the load, its buffers are reused for every match
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private class Client {
+
+		/**
+		 * channel is the socket of the client
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final SocketChannel channel;
+
+		/**
+		 * in holds the bytes received which do not form a whole message yet
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER);
+
+		/**
+		 * out holds the bytes to be sent
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER);
+
+		/**
+		 * random draws the fleet and the order of the shots
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final SplittableRandom random;
+
+		/**
+		 * width is the number of columns of the boards of the match
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int width;
+
+		/**
+		 * order holds the cells of the opponent board in the order they are shot
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int[] order = new int[0];
+
+		/**
+		 * next is the position on order of the next shot
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int next;
+
+		/**
+		 * fleet are the types of the boats of the match
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private BoatType[] fleet;
+
+		/**
+		 * sunk counts the opponent boats sunk, the client stops shooting when all of them are
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int sunk;
+
+		/**
+		 * Client is the constructor of the class
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param channel is the socket of the client
+		 * @param random draws the fleet and the order of the shots
+		 *
+		 * */
+		private Client(final SocketChannel channel, final SplittableRandom random) {
+			this.channel = channel;
+			this.random = random;
+		}
+
+		/**
+		 * read handles every whole message received
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @throws IOException if the channel fails or the server closes it
+		 *
+		 * */
+		private void read() throws IOException {
+			if(this.channel.read(this.in) < 0) throw new IOException("O servidor fechou a conexão");
+
+			this.in.flip();
+
+			while(true) {
+				final int length = Protocol.length(this.in);
+
+				if(length == 0) throw new IOException("Mensagem desconhecida do servidor");
+
+				if(length < 0 || length > this.in.remaining()) break;
+
+				final int start = this.in.position();
+
+				this.handle(start);
+				this.in.position(start + length);
+			}
+
+			this.in.compact();
+			this.flush();
+		}
+
+		/**
+		 * handle acts on one message
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param start is where the message starts on the input buffer
+		 *
+		 * */
+		private void handle(int start) {
+			switch(this.in.get(start)) {
+				case Protocol.START:
+					this.start(start);
+					break;
+
+				case Protocol.FLEET_REJECTED:
+					this.placeFleet();
+					break;
+
+				case Protocol.TURN:
+					this.shoot();
+					break;
+
+				case Protocol.RESULT:
+					moves++;
+
+					if(this.in.get(start + 3) == ShotResult.SUNK.ordinal()) this.sunk++;
+
+					if(this.in.get(start + 3) != ShotResult.MISS.ordinal() && this.sunk < this.fleet.length) this.shoot();
+					break;
+
+				case Protocol.INCOMING:
+					if(this.in.get(start + 3) == ShotResult.MISS.ordinal()) this.shoot();
+					break;
+
+				case Protocol.END:
+					games++;
+					this.out.put(Protocol.JOIN);
+					break;
+
+				case Protocol.ERROR:
+					errors++;
+					break;
+
+				default:
+					break;
+			}
+		}
+
+		/**
+		 * start prepares the client for a new match and places its fleet
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param start is where the START message starts on the input buffer
+		 *
+		 * */
+		private void start(int start) {
+			this.width = Short.toUnsignedInt(this.in.getShort(start + 1));
+
+			final int height = Short.toUnsignedInt(this.in.getShort(start + 3));
+			final int count = Short.toUnsignedInt(this.in.getShort(start + 5));
+			final BoatType[] types = BoatType.values();
+
+			this.fleet = new BoatType[count];
+
+			for(int i = 0; i < count; i++) this.fleet[i] = types[this.in.get(start + 7 + i)];
+
+			if(this.order.length != this.width * height) this.order = new int[this.width * height];
+
+			for(int i = 0; i < this.order.length; i++) {
+				final int j = this.random.nextInt(i + 1);
+
+				this.order[i] = this.order[j];
+				this.order[j] = i;
+			}
+
+			this.next = 0;
+			this.sunk = 0;
+			this.placeFleet();
+		}
+
+		/**
+		 * placeFleet draws a fleet on a local board and sends it
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private void placeFleet() {
+			final int height = this.order.length / this.width;
+			final Board board = new Board(this.width, height);
+
+			this.out.put(Protocol.FLEET).putShort((short) this.fleet.length);
+
+			for(final BoatType type : this.fleet) {
+				while(true) {
+					final int x = this.random.nextInt(this.width);
+					final int y = this.random.nextInt(height);
+					final BoatOrientation orientation = type.getSize() == 1
+							? BoatOrientation.NONE
+							: this.random.nextBoolean() ? BoatOrientation.HORIZONTAL : BoatOrientation.VERTICAL;
+
+					if(!board.canPlace(type, orientation, x, y)) continue;
+
+					try {
+						board.placeBoat(new Boat(type, orientation, new Point(x, y)));
+
+					} catch (InvalidPosition | AlreadyHaveBoat e) {
+						continue;
+					}
+
+					this.out.put((byte) x).put((byte) y).put(Protocol.kind(type.ordinal(), orientation.ordinal()));
+					break;
+				}
+			}
+		}
+
+		/**
+		 * shoot sends the next cell of the shooting order
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private void shoot() {
+			if(this.next == this.order.length) return;
+
+			final int cell = this.order[this.next++];
+
+			this.out.put(Protocol.SHOT).put((byte) (cell % this.width)).put((byte) (cell / this.width));
+		}
+
+		/**
+		 * flush sends what was queued
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @throws IOException if the channel fails
+		 *
+		 * */
+		private void flush() throws IOException {
+			this.out.flip();
+
+			while(this.out.hasRemaining()) this.channel.write(this.out);
+
+			this.out.clear();
+		}
+	}
+
+	/**
+	 * getMoves returns how many results of their own shots the clients received
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of shots
+	 *
+	 * */
+	public long getMoves() { return this.moves; }
+
+	/**
+	 * getGames returns how many matches of the clients ended
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of matches
+	 *
+	 * */
+	public long getGames() { return this.games; }
+
+	/**
+	 * getErrors returns how many ERROR messages the clients received
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of errors
+	 *
+	 * */
+	public long getErrors() { return this.errors; }
+
+	/**
+	 * run connects the clients and plays until the given time is over
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if a connection fails
+	 *
+	 * @param address is the address of the server
+	 * @param clients is the number of connections
+	 * @param nanos is how long the load runs
+	 * @param seed is the seed of the fleets and shots
+	 *
+	 * */
+	public void run(final InetSocketAddress address, int clients, long nanos, long seed) throws IOException {
+		final SplittableRandom random = new SplittableRandom(seed);
+
+		try(Selector selector = Selector.open()) {
+			for(int i = 0; i < clients; i++) {
+				final SocketChannel channel = SocketChannel.open(address);
+
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				channel.configureBlocking(false);
+
+				final Client client = new Client(channel, random.split());
+
+				channel.register(selector, SelectionKey.OP_READ, client);
+				client.out.put(Protocol.JOIN);
+				client.flush();
+			}
+
+			final long end = System.nanoTime() + nanos;
+
+			while(System.nanoTime() < end) {
+				selector.select(100);
+
+				final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+				while(keys.hasNext()) {
+					final SelectionKey key = keys.next();
+					keys.remove();
+
+					((Client) key.attachment()).read();
+				}
+			}
+
+			for(final SelectionKey key : selector.keys()) key.channel().close();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		final int clients = Options.getInt(args, "clients", 1000);
+		final long seconds = Options.getLong(args, "seconds", 10);
+		final long seed = Options.getLong(args, "seed", 42);
+
+		GameServer server = null;
+		Thread serverThread = null;
+		InetSocketAddress address;
+
+		if(Options.has(args, "port")) {
+			address = new InetSocketAddress(Options.get(args, "host", "127.0.0.1"), Options.getInt(args, "port", 7777));
+
+		} else {
+			server = new GameServer(Options.gameConfig(args), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+			serverThread = new Thread(server, "game-server");
+			serverThread.start();
+		}
+
+		final LoadClient load = new LoadClient();
+		final long start = System.nanoTime();
+
+		load.run(address, clients, seconds * 1_000_000_000L, seed);
+
+		final double elapsed = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("Clientes: %d, jogadas: %d em %.1f s (%.0f jogadas/s), partidas: %d, erros: %d\n",
+				clients, load.moves, elapsed, load.moves / elapsed, load.games, load.errors);
+
+		if(server != null) {
+			server.close();
+			serverThread.join();
+		}
+	}
+}
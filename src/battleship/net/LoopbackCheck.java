@@ -0,0 +1,127 @@
+package battleship.net;
+
+import battleship.Options;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LoopbackCheck starts a GameServer on the loopback, plays a LoadClient against it and fails when the run
+ * shows a problem of the protocol or of the throughput: a connection dropped or a message not understood,
+ * an ERROR received, no match finished, a result the server never resolved or fewer moves per second than
+ * the floor. It prints what failed and leaves with status 1, so a script can run it after a change to the
+ * server or the protocol
+ *
+ * Run it with: java -cp out battleship.net.LoopbackCheck [--clients N] [--seconds S] [--min-rate MOVES] [--seed S]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class LoopbackCheck {
+
+	/**
+	 * DEFAULT_MIN_RATE is a constant which holds the moves per second below which the check fails by default,
+	 * well under what a single core sustains so only a real regression trips it
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final long DEFAULT_MIN_RATE = 5_000;
+
+	/**
+	 * LoopbackCheck is private because the class only has static methods
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private LoopbackCheck() {}
+
+	/**
+	 * check plays the load against a server of its own and returns what went wrong
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws InterruptedException if the thread is interrupted while the server stops
+	 *
+	 * @param args are the options of the game and of the load
+	 * @param clients is the number of connections
+	 * @param seconds is how long the load runs
+	 * @param minRate is the fewest moves per second accepted
+	 * @param seed is the seed of the fleets and shots
+	 *
+	 * @return the failures, empty if the check passed
+	 *
+	 * */
+	public static List<String> check(final String[] args, int clients, long seconds, long minRate, long seed)
+			throws InterruptedException {
+
+		final List<String> failures = new ArrayList<>();
+		final GameServer server;
+
+		try {
+			server = new GameServer(Options.gameConfig(args), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+		} catch (IOException e) {
+			failures.add("O servidor não abriu: " + e.getMessage());
+			return failures;
+		}
+
+		final Thread serverThread = new Thread(server, "game-server");
+		final LoadClient load = new LoadClient();
+		final long start = System.nanoTime();
+
+		serverThread.start();
+
+		try {
+			load.run(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()), clients,
+					seconds * 1_000_000_000L, seed);
+
+		} catch (IOException | RuntimeException e) {
+			//a dropped connection, a message the client does not know or one it could not act on
+			failures.add("Erro de protocolo: " + e);
+
+		} finally {
+			server.close();
+			serverThread.join();
+		}
+
+		final double elapsed = (System.nanoTime() - start) / 1e9;
+		final double rate = load.getMoves() / elapsed;
+
+		System.out.printf("Clientes: %d, jogadas: %d em %.1f s (%.0f jogadas/s), partidas: %d, erros: %d\n",
+				clients, load.getMoves(), elapsed, rate, load.getGames(), load.getErrors());
+
+		if(load.getErrors() > 0) failures.add(load.getErrors() + " mensagens de erro recebidas");
+
+		if(load.getGames() == 0) failures.add("Nenhuma partida terminou");
+
+		//the join makes the count of the server visible, it may be ahead by the results never read
+		if(load.getMoves() > server.getMoves())
+			failures.add("Os clientes receberam " + load.getMoves() + " resultados de " + server.getMoves() + " tiros");
+
+		if(rate < minRate) failures.add(String.format("%.0f jogadas/s, abaixo do mínimo de %d", rate, minRate));
+
+		return failures;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		final List<String> failures = check(args, Options.getInt(args, "clients", 200), Options.getLong(args, "seconds", 5),
+				Options.getLong(args, "min-rate", DEFAULT_MIN_RATE), Options.getLong(args, "seed", 42));
+
+		if(failures.isEmpty()) {
+			System.out.println("OK");
+			return;
+		}
+
+		for(final String failure : failures) System.out.println("FALHOU: " + failure);
+
+		System.exit(1);
+	}
+}
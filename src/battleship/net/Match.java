@@ -0,0 +1,104 @@
+package battleship.net;
+
+import battleship.core.GameConfig;
+import battleship.core.Player;
+import battleship.replay.ReplayJournal;
+
+/**
+ * Match pairs two connections of the GameServer on one game, each of them plays with its own Player
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access default
+ *
+ * */
+class Match {
+
+	/**
+	 * first is the connection which shoots first
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	final Connection first;
+
+	/**
+	 * second is the connection which shoots after the first misses
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	final Connection second;
+
+	/**
+	 * over is if the match ended
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	boolean over;
+
+	/**
+	 * recording keeps the moves of the match until it ends, null when the server keeps no journal
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * */
+	ReplayJournal.Recording recording;
+
+	/**
+	 * Match is the constructor of the class, it gives each connection a player with an empty board
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param config is the size of the boards and the fleet of the match
+	 * @param first is the connection which shoots first
+	 * @param second is the connection which shoots after the first misses
+	 *
+	 * */
+	Match(final GameConfig config, final Connection first, final Connection second) {
+		this.first = first;
+		this.second = second;
+
+		first.match = this;
+		first.player = new Player("Jogador 1", config.newBoard());
+		first.placed = false;
+
+		second.match = this;
+		second.player = new Player("Jogador 2", config.newBoard());
+		second.placed = false;
+
+		first.player.swapTurn();
+	}
+
+	/**
+	 * opponent returns the other connection of the match
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param connection is a connection of the match
+	 *
+	 * @return the connection which plays against it
+	 *
+	 * */
+	Connection opponent(final Connection connection) {
+		return connection == this.first ? this.second : this.first;
+	}
+
+	/**
+	 * isStarted returns if both fleets were placed
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @return true if the shots can start
+	 *
+	 * */
+	boolean isStarted() { return this.first.placed && this.second.placed; }
+}
@@ -0,0 +1,160 @@
+package battleship.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Protocol holds the binary messages exchanged by the GameServer and its clients. Every message is one
+ * opcode byte followed by a payload whose size is known from the opcode, or from a count right after it,
+ * so a shot travels in 3 bytes and a boat of a fleet in 3 bytes. Coordinates take one byte, which limits
+ * the boards played over the network to 256x256. Whose turn it is follows from the results, TURN is only
+ * sent when a game starts
+ *
+ * Client to server:
+ *   JOIN                                  asks for an opponent
+ *   FLEET count:u16 (x:u8 y:u8 kind:u8)*  places the fleet, kind is type ordinal << 2 | orientation ordinal
+ *   SHOT x:u8 y:u8                        shoots the opponent board
+ *
+ * Server to client:
+ *   START width:u16 height:u16 count:u16 type:u8*   a match started, the fleet to be placed is given
+ *   FLEET_OK                                        the fleet was placed
+ *   FLEET_REJECTED count:u16 error:u8*              the fleet was rejected, 0 or the placement error + 1 per boat
+ *   TURN                                            the player shoots first
+ *   RESULT x:u8 y:u8 result:u8                      the result of the player shot
+ *   INCOMING x:u8 y:u8 result:u8                    the result of the opponent shot
+ *   END outcome:u8                                  the match is over
+ *   ERROR code:u8                                   the message was refused
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class Protocol {
+
+	//JOIN is the opcode of the message which asks for an opponent
+	public static final byte JOIN = 0x01;
+
+	//FLEET is the opcode of the message which places the fleet
+	public static final byte FLEET = 0x02;
+
+	//SHOT is the opcode of the message which shoots the opponent board
+	public static final byte SHOT = 0x03;
+
+	//START is the opcode of the message which tells a match started
+	public static final byte START = 0x11;
+
+	//FLEET_OK is the opcode of the message which tells the fleet was placed
+	public static final byte FLEET_OK = 0x12;
+
+	//FLEET_REJECTED is the opcode of the message which tells why each boat of a fleet was rejected
+	public static final byte FLEET_REJECTED = 0x13;
+
+	//TURN is the opcode of the message which tells the player shoots first
+	public static final byte TURN = 0x14;
+
+	//RESULT is the opcode of the message with the result of the player shot
+	public static final byte RESULT = 0x15;
+
+	//INCOMING is the opcode of the message with the result of the opponent shot
+	public static final byte INCOMING = 0x16;
+
+	//END is the opcode of the message which tells the match is over
+	public static final byte END = 0x17;
+
+	//ERROR is the opcode of the message which tells a message was refused
+	public static final byte ERROR = 0x1F;
+
+	//LOST is the outcome of END when the fleet of the player was sunk
+	public static final byte LOST = 0;
+
+	//WON is the outcome of END when the player sunk the opponent fleet
+	public static final byte WON = 1;
+
+	//FORFEIT is the outcome of END when the opponent left the match
+	public static final byte FORFEIT = 2;
+
+	//BAD_MESSAGE is the code of ERROR when the opcode is unknown or not expected at that moment
+	public static final byte BAD_MESSAGE = 1;
+
+	//NOT_YOUR_TURN is the code of ERROR when a player shoots out of turn
+	public static final byte NOT_YOUR_TURN = 2;
+
+	//BAD_FLEET is the code of ERROR when the boats of a fleet are not the ones asked for
+	public static final byte BAD_FLEET = 3;
+
+	//MAX_SIZE is the largest number of columns or rows a coordinate byte can address
+	public static final int MAX_SIZE = 256;
+
+	/**
+	 * Protocol is private because the class only has constants and static methods
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private Protocol() {}
+
+	/**
+	 * length returns the size of the message which starts on the position of a buffer, reading a count
+	 * from it when the size depends on one
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param buffer is the buffer, in read mode, with the bytes received
+	 *
+	 * @return the size of the message, -1 if its size is not known yet or 0 if the opcode is unknown
+	 *
+	 * */
+	public static int length(final ByteBuffer buffer) {
+		final int available = buffer.remaining();
+
+		if(available < 1) return -1;
+
+		final int position = buffer.position();
+
+		switch(buffer.get(position)) {
+			case JOIN:
+			case FLEET_OK:
+			case TURN:
+				return 1;
+
+			case END:
+			case ERROR:
+				return 2;
+
+			case SHOT:
+				return 3;
+
+			case RESULT:
+			case INCOMING:
+				return 4;
+
+			case FLEET:
+				return available < 3 ? -1 : 3 + 3 * Short.toUnsignedInt(buffer.getShort(position + 1));
+
+			case FLEET_REJECTED:
+				return available < 3 ? -1 : 3 + Short.toUnsignedInt(buffer.getShort(position + 1));
+
+			case START:
+				return available < 7 ? -1 : 7 + Short.toUnsignedInt(buffer.getShort(position + 5));
+
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * kind packs the type and the orientation of a boat in one byte
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param type is the ordinal of the boat type
+	 * @param orientation is the ordinal of the boat orientation
+	 *
+	 * @return the kind byte
+	 *
+	 * */
+	public static byte kind(int type, int orientation) { return (byte) (type << 2 | orientation); }
+}
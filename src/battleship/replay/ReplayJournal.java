@@ -0,0 +1,470 @@
+package battleship.replay;
+
+import battleship.core.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * ReplayJournal records the placements and the shots of matches on an append-only file. The file is
+ * memory mapped in segments, so a move is one 4 byte store on the mapping and the only system calls
+ * are the mapping of a new segment every SEGMENT bytes. A record is written with one aligned int store
+ * and no record is 0, so after a crash the journal holds every record completed before it and the
+ * reader stops at the first empty slot
+ *
+ * Layout: a HEADER byte header (magic, version, width, height) followed by 4 byte records
+ *   tag:3 | board:1 | x:10 | y:10 | extra:8
+ * where extra is type << 2 | orientation for PLACE and the ShotResult ordinal for SHOT
+ *
+ * The recorders of getRecorder write straight on the mapping and are meant for one thread playing one
+ * match after the other. Matches played at once, by the sessions or the server, each record on a
+ * Recording of their own, which keeps the records of its match and appends them in one block when the
+ * match ends, so the matches never interleave on the file
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class ReplayJournal implements Closeable {
+
+	//MAGIC is the first int of every journal, "BNRJ"
+	static final int MAGIC = 0x424E524A;
+
+	//VERSION is the version of the layout of the journal
+	static final int VERSION = 1;
+
+	//HEADER is the size of the header in bytes
+	static final int HEADER = 16;
+
+	//RECORD is the size of a record in bytes
+	static final int RECORD = 4;
+
+	//MATCH is the tag of the record which starts a new match on empty boards
+	static final int MATCH = 1;
+
+	//PLACE is the tag of the record of a boat placed
+	static final int PLACE = 2;
+
+	//SHOT is the tag of the record of a shot fired
+	static final int SHOT = 3;
+
+	//MAX_SIZE is the largest number of columns or rows a 10 bit coordinate can address
+	public static final int MAX_SIZE = 1024;
+
+	/**
+	 * SEGMENT is a constant which holds how many bytes are mapped at once
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int SEGMENT = 1 << 20;
+
+	/**
+	 * channel is the channel of the journal file
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final FileChannel channel;
+
+	/**
+	 * segment is the mapped region where the next records are written
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private MappedByteBuffer segment;
+
+	/**
+	 * segmentStart is the offset of the file where the segment starts
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long segmentStart;
+
+	/**
+	 * recorders are the listeners of the first and of the second board of the current match
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final BoardListener[] recorders = { recorder(0, this::append), recorder(1, this::append) };
+
+	/**
+	 * ReplayJournal is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param channel is the channel of the journal file
+	 * @param end is the offset of the file after the last record
+	 *
+	 * */
+	private ReplayJournal(final FileChannel channel, long end) throws IOException {
+		this.channel = channel;
+		this.map(end);
+	}
+
+	/**
+	 * open opens a journal to append to it, creating it with the given board size if it does not exist
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the file can not be opened or is not a journal of the same board size
+	 * @throws IllegalArgumentException if the board is larger than a record can address
+	 *
+	 * @param path is the path of the journal
+	 * @param width is the number of columns of the boards
+	 * @param height is the number of rows of the boards
+	 *
+	 * @return the journal, positioned after its last record
+	 *
+	 * */
+	public static ReplayJournal open(final Path path, int width, int height) throws IOException {
+		if(width > MAX_SIZE || height > MAX_SIZE)
+			throw new IllegalArgumentException("O diário aceita tabuleiros de até " + MAX_SIZE + "x" + MAX_SIZE);
+
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		try {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER);
+
+			if(channel.size() < HEADER) {
+				header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).flip();
+				channel.write(header, 0);
+
+				return new ReplayJournal(channel, HEADER);
+			}
+
+			channel.read(header, 0);
+			header.flip();
+
+			if(header.getInt() != MAGIC || header.getInt() != VERSION)
+				throw new IOException("O arquivo não é um diário de partidas: " + path);
+
+			if(header.getInt() != width || header.getInt() != height)
+				throw new IOException("O diário é de outro tamanho de tabuleiro: " + path);
+
+			return new ReplayJournal(channel, end(channel));
+
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * end finds the offset after the last record of an existing journal
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if the file can not be mapped
+	 *
+	 * @param channel is the channel of the journal file
+	 *
+	 * @return the offset of the first empty slot
+	 *
+	 * */
+	private static long end(final FileChannel channel) throws IOException {
+		final long size = channel.size() - (channel.size() - HEADER) % RECORD;
+
+		for(long start = HEADER; start < size; start += SEGMENT) {
+			final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT, size - start));
+
+			while(region.hasRemaining()) {
+				if(region.getInt(region.position()) == 0) return start + region.position();
+
+				region.position(region.position() + RECORD);
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * map maps the segment which starts on the given offset
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if the file can not be mapped
+	 *
+	 * @param offset is the offset of the file where the next record goes
+	 *
+	 * */
+	private void map(long offset) throws IOException {
+		this.segmentStart = offset;
+		this.segment = this.channel.map(FileChannel.MapMode.READ_WRITE, offset, SEGMENT);
+	}
+
+	/**
+	 * encode packs a record in an int
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param tag is the tag of the record
+	 * @param board is 0 for the first board and 1 for the second one
+	 * @param x is the column of the record
+	 * @param y is the row of the record
+	 * @param extra is the byte which completes the record
+	 *
+	 * @return the record
+	 *
+	 * */
+	static int encode(int tag, int board, int x, int y, int extra) {
+		return tag << 29 | board << 28 | x << 18 | y << 8 | extra;
+	}
+
+	/**
+	 * append writes a record on the segment, mapping the next segment when this one is full
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param record is the record to be written
+	 *
+	 * */
+	private void append(int record) {
+		if(!this.segment.hasRemaining()) {
+			try {
+				this.map(this.segmentStart + SEGMENT);
+
+			} catch (IOException e) {
+				throw new IllegalStateException("Não foi possível aumentar o diário", e);
+			}
+		}
+
+		this.segment.putInt(record);
+	}
+
+	/**
+	 * startMatch records that a new match starts on empty boards
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public void startMatch() { this.append(encode(MATCH, 0, 0, 0, 0)); }
+
+	/**
+	 * getRecorder returns the listener which records the moves of a board of the current match
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param board is 0 for the board of the first player and 1 for the one of the second player
+	 *
+	 * @return the listener to be set on the board
+	 *
+	 * */
+	public BoardListener getRecorder(int board) { return this.recorders[board]; }
+
+	/**
+	 * newRecording starts the recording of a match which is played while other matches are, see Recording
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the recording, its listeners are set on the boards of the match
+	 *
+	 * */
+	public Recording newRecording() { return new Recording(); }
+
+	/**
+	 * appendMatch appends a whole match, its MATCH record followed by its moves, without another match
+	 * getting in between
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param records are the moves of the match
+	 * @param count is how many moves there are
+	 *
+	 * */
+	private synchronized void appendMatch(final int[] records, int count) {
+		this.startMatch();
+
+		for(int i = 0; i < count; i++) this.append(records[i]);
+	}
+
+	/**
+	 * recorder creates the listener of a board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param board is 0 for the first board and 1 for the second one
+	 * @param out is where the records go
+	 *
+	 * @return the listener
+	 *
+	 * */
+	private static BoardListener recorder(int board, final IntConsumer out) {
+		return new BoardListener() {
+			@Override
+			public void boatPlaced(final BoatType type, final BoatOrientation orientation, int x, int y) {
+				out.accept(encode(PLACE, board, x, y, type.ordinal() << 2 | orientation.ordinal()));
+			}
+
+			@Override
+			public void shotFired(int x, int y, final ShotResult result) {
+				//a shot off the board changes nothing and its coordinates may not fit a record
+				if(result != ShotResult.OUT_OF_BOUNDS) out.accept(encode(SHOT, board, x, y, result.ordinal()));
+			}
+		};
+	}
+
+	/**
+	 * Recording keeps the records of one match in memory until the match ends, it is written by the
+	 * thread of its match only
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public final class Recording {
+
+		/**
+		 * records are the moves of the match so far
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int[] records = new int[64];
+
+		/**
+		 * count is how many moves there are
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private int count;
+
+		/**
+		 * finished is if the match was already appended
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private boolean finished;
+
+		/**
+		 * listeners are the listeners of the first and of the second board of the match
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final BoardListener[] listeners = { recorder(0, this::add), recorder(1, this::add) };
+
+		/**
+		 * Recording is private because the recordings are created by newRecording
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private Recording() {}
+
+		/**
+		 * add keeps a record, growing the array when it is full
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * @param record is the record to be kept
+		 *
+		 * */
+		private void add(int record) {
+			if(this.count == this.records.length) this.records = Arrays.copyOf(this.records, this.count * 2);
+
+			this.records[this.count++] = record;
+		}
+
+		/**
+		 * getRecorder returns the listener which records the moves of a board of the match
+		 *
+		 * @since 1.1
+		 * @access public
+		 *
+		 * @param board is 0 for the board of the first player and 1 for the one of the second player
+		 *
+		 * @return the listener to be set on the board
+		 *
+		 * */
+		public BoardListener getRecorder(int board) { return this.listeners[board]; }
+
+		/**
+		 * attach sets the listeners of the recording on the boards of the match
+		 *
+		 * @since 1.1
+		 * @access public
+		 *
+		 * @param first is the board of the first player
+		 * @param second is the board of the second player
+		 *
+		 * */
+		public void attach(final Board first, final Board second) {
+			first.setListener(this.listeners[0]);
+			second.setListener(this.listeners[1]);
+		}
+
+		/**
+		 * finish appends the match to the journal, a match left before its end is appended as far as it
+		 * went, only the first call appends it
+		 *
+		 * @since 1.1
+		 * @access public
+		 *
+		 * */
+		public void finish() {
+			if(this.finished) return;
+
+			this.finished = true;
+			appendMatch(this.records, this.count);
+		}
+	}
+
+	/**
+	 * sync writes the mapped records to the storage device
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public void sync() { this.segment.force(); }
+
+	/**
+	 * close syncs the journal and closes its file
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the file can not be closed
+	 *
+	 * */
+	@Override
+	public void close() throws IOException {
+		this.sync();
+		this.channel.close();
+	}
+}
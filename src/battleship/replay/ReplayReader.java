@@ -0,0 +1,266 @@
+package battleship.replay;
+
+import battleship.Options;
+import battleship.core.*;
+import battleship.engine.GameEngine;
+import battleship.engine.ShooterMoves;
+import battleship.sim.HuntTargetShooter;
+import battleship.sim.RandomFleet;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * ReplayReader streams a ReplayJournal back through the Board API, placing the recorded boats and firing
+ * the recorded shots on fresh boards for every match, and checks each recomputed result against the
+ * recorded one. The journal is mapped read only and read record by record, nothing is allocated per shot
+ *
+ * Run it with: java -cp out battleship.replay.ReplayReader FILE [--record N] [--seed S] [--width W] [--height H]
+ * where --record first appends N matches between bots to the journal
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class ReplayReader {
+
+	/**
+	 * path is the path of the journal
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Path path;
+
+	/**
+	 * matches counts the matches replayed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long matches;
+
+	/**
+	 * moves counts the placements and the shots replayed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long moves;
+
+	/**
+	 * mismatches counts the records whose recomputed result differs from the recorded one
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long mismatches;
+
+	/**
+	 * ReplayReader is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param path is the path of the journal
+	 *
+	 * */
+	public ReplayReader(final Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * replay applies every complete record of the journal, stopping at the first empty slot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IOException if the file can not be read or is not a journal
+	 *
+	 * */
+	public void replay() throws IOException {
+		try(FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+
+			if(size < ReplayJournal.HEADER) throw new IOException("O arquivo não é um diário de partidas: " + this.path);
+
+			final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ReplayJournal.HEADER);
+
+			if(header.getInt() != ReplayJournal.MAGIC || header.getInt() != ReplayJournal.VERSION)
+				throw new IOException("O arquivo não é um diário de partidas: " + this.path);
+
+			final int width = header.getInt();
+			final int height = header.getInt();
+			final BoatType[] types = BoatType.values();
+			final BoatOrientation[] orientations = BoatOrientation.values();
+			final ShotResult[] results = ShotResult.values();
+			final Board[] boards = new Board[2];
+			final long end = size - (size - ReplayJournal.HEADER) % ReplayJournal.RECORD;
+
+			for(long start = ReplayJournal.HEADER; start < end; start += Integer.MAX_VALUE & -ReplayJournal.RECORD) {
+				final int length = (int) Math.min(end - start, Integer.MAX_VALUE & -ReplayJournal.RECORD);
+				final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+
+				for(int offset = 0; offset < length; offset += ReplayJournal.RECORD) {
+					final int record = region.getInt(offset);
+
+					if(record == 0) return;
+
+					final int tag = record >>> 29;
+
+					if(tag != ReplayJournal.MATCH && boards[0] == null)
+						throw new IOException("Registro fora de uma partida na posição " + (start + offset) + " do diário");
+
+					final Board board = boards[record >>> 28 & 1];
+					final int x = record >>> 18 & 0x3FF;
+					final int y = record >>> 8 & 0x3FF;
+					final int extra = record & 0xFF;
+
+					switch(tag) {
+						case ReplayJournal.MATCH:
+							boards[0] = new Board(width, height);
+							boards[1] = new Board(width, height);
+							this.matches++;
+							continue;
+
+						case ReplayJournal.PLACE:
+							//the bytes come from the file, a corrupt or foreign record must not index past the enums
+							if(extra >>> 2 >= types.length || (extra & 3) >= orientations.length)
+								throw new IOException("Registro inválido na posição " + (start + offset) + " do diário");
+
+							try {
+								board.placeBoat(new Boat(types[extra >>> 2], orientations[extra & 3], new Point(x, y)));
+
+							} catch (InvalidPosition | AlreadyHaveBoat e) {
+								this.mismatches++;
+							}
+							break;
+
+						case ReplayJournal.SHOT:
+							if(extra >= results.length)
+								throw new IOException("Registro inválido na posição " + (start + offset) + " do diário");
+
+							if(board.fire(x, y) != results[extra]) this.mismatches++;
+							break;
+
+						default:
+							throw new IOException("Registro desconhecido na posição " + (start + offset) + " do diário");
+					}
+
+					this.moves++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * getMatches returns how many matches were replayed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of matches
+	 *
+	 * */
+	public long getMatches() { return this.matches; }
+
+	/**
+	 * getMoves returns how many placements and shots were replayed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of moves
+	 *
+	 * */
+	public long getMoves() { return this.moves; }
+
+	/**
+	 * getMismatches returns how many records did not replay to their recorded result
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return 0 when the journal replays exactly
+	 *
+	 * */
+	public long getMismatches() { return this.mismatches; }
+
+	/**
+	 * record appends matches between bots to a journal
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IOException if the journal can not be written
+	 * @throws IllegalStateException if a fleet could not be placed, the fleet is too tight for random positions
+	 *
+	 * @param path is the path of the journal
+	 * @param config is the size of the boards and the fleet of the matches
+	 * @param games is the number of matches
+	 * @param seed is the seed of the fleets and shots
+	 *
+	 * */
+	private static void record(final Path path, final GameConfig config, long games, long seed) throws IOException {
+		final SplittableRandom random = new SplittableRandom(seed);
+		final BoatType[] fleet = config.getFleet();
+
+		try(ReplayJournal journal = ReplayJournal.open(path, config.getWidth(), config.getHeight())) {
+			for(long i = 0; i < games; i++) {
+				final Player first = new Player("Bot 1", config.newBoard());
+				final Player second = new Player("Bot 2", config.newBoard());
+
+				journal.startMatch();
+				first.getBoard().setListener(journal.getRecorder(0));
+				second.getBoard().setListener(journal.getRecorder(1));
+
+				try {
+					RandomFleet.place(first, fleet, random);
+					RandomFleet.place(second, fleet, random);
+
+				} catch (InvalidFleet e) {
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+
+				new GameEngine(first, new ShooterMoves(new HuntTargetShooter(config.getWidth(), config.getHeight(), random)),
+						second, new ShooterMoves(new HuntTargetShooter(config.getWidth(), config.getHeight(), random))).play();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if(args.length == 0 || args[0].startsWith("--")) {
+			System.out.println("Uso: ReplayReader ARQUIVO [--record N] [--seed S] [--width W] [--height H]");
+			return;
+		}
+
+		final Path path = Path.of(args[0]);
+
+		if(Options.has(args, "record")) {
+			final long games = Options.getLong(args, "record", 10_000);
+			final long start = System.nanoTime();
+
+			record(path, Options.gameConfig(args), games, Options.getLong(args, "seed", 42));
+
+			System.out.printf("Gravadas %d partidas em %.2f s\n", games, (System.nanoTime() - start) / 1e9);
+		}
+
+		final ReplayReader reader = new ReplayReader(path);
+		final long start = System.nanoTime();
+
+		reader.replay();
+
+		final double elapsed = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("Partidas: %d, jogadas: %d em %.2f s (%.2f milhões de jogadas/s), divergências: %d\n",
+				reader.getMatches(), reader.getMoves(), elapsed, reader.getMoves() / elapsed / 1e6, reader.getMismatches());
+	}
+}
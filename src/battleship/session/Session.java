@@ -0,0 +1,178 @@
+package battleship.session;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Session is one game played on its own thread through its own streams. It remembers when its input
+ * was last read so the SessionManager can reap it when the player goes away
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class Session implements Closeable {
+
+	/**
+	 * id is the number which identifies the session on its manager
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long id;
+
+	/**
+	 * channel is what carries the streams of the session, closing it unblocks the thread of the session
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Closeable channel;
+
+	/**
+	 * createdAt is the System.nanoTime() of when the session was opened
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long createdAt;
+
+	/**
+	 * lastActivity is the System.nanoTime() of the last input read by the session
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private volatile long lastActivity;
+
+	/**
+	 * closed is if the session was closed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private volatile boolean closed;
+
+	/**
+	 * Session is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param id is the number which identifies the session
+	 * @param channel is what carries the streams of the session
+	 *
+	 * */
+	Session(long id, final Closeable channel) {
+		this.id = id;
+		this.channel = channel;
+		this.createdAt = System.nanoTime();
+		this.lastActivity = this.createdAt;
+	}
+
+	/**
+	 * getId returns the number which identifies the session
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the id of the session
+	 *
+	 * */
+	public long getId() { return this.id; }
+
+	/**
+	 * getCreatedAt returns when the session was opened
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the System.nanoTime() of the opening
+	 *
+	 * */
+	public long getCreatedAt() { return this.createdAt; }
+
+	/**
+	 * getLastActivity returns when the session last read its input
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the System.nanoTime() of the last read
+	 *
+	 * */
+	public long getLastActivity() { return this.lastActivity; }
+
+	/**
+	 * isClosed returns if the session was closed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return true if the session is over
+	 *
+	 * */
+	public boolean isClosed() { return this.closed; }
+
+	/**
+	 * close ends the session, closing its channel so a thread blocked on the input returns
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Override
+	public void close() {
+		if(this.closed) return;
+
+		this.closed = true;
+
+		try {
+			this.channel.close();
+
+		} catch (IOException e) {
+			//the session is over anyway
+		}
+	}
+
+	/**
+	 * track wraps the input of the session so every read counts as activity
+	 *
+	 * @since 1.1
+	 * @access default
+	 *
+	 * @param in is the input of the session
+	 *
+	 * @return the tracked input
+	 *
+	 * */
+	InputStream track(final InputStream in) {
+		return new FilterInputStream(in) {
+			@Override
+			public int read() throws IOException {
+				final int value = super.read();
+
+				lastActivity = System.nanoTime();
+
+				return value;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				final int read = super.read(buffer, offset, length);
+
+				lastActivity = System.nanoTime();
+
+				return read;
+			}
+		};
+	}
+}
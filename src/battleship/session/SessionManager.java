@@ -0,0 +1,427 @@
+package battleship.session;
+
+import battleship.Assets;
+import battleship.ConsoleInput;
+import battleship.Game;
+import battleship.Options;
+import battleship.Screen;
+import battleship.core.GameConfig;
+import battleship.replay.ReplayJournal;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionManager runs each console Game on a thread of its own, keeping the blocking code of Game as it
+ * is. On a JVM with virtual threads every session gets one, so a blocked read costs a few KB of heap
+ * instead of a platform thread; on older JVMs the sessions fall back to platform threads with a small
+ * stack. The manager opens, looks up, times out and reaps the sessions, and refuses new ones past its cap
+ *
+ * Run it with: java -cp out battleship.session.SessionManager [--port P] [--max-sessions N] [--idle SECONDS] [--models DIR]
+ *   [--metrics-port P] [--metrics-dump SECONDS] [--journal FILE]
+ * and play with a terminal client like: nc localhost P
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class SessionManager implements Closeable {
+
+	/**
+	 * VIRTUAL_MAX_SESSIONS is a constant which holds how many sessions a manager on virtual threads holds by default
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final int VIRTUAL_MAX_SESSIONS = 100_000;
+
+	/**
+	 * PLATFORM_MAX_SESSIONS is a constant which holds how many sessions a manager on platform threads holds by
+	 * default, each of them reserves a stack of PLATFORM_STACK and a thread of the system
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final int PLATFORM_MAX_SESSIONS = 2_000;
+
+	/**
+	 * PLATFORM_STACK is a constant which holds the stack size asked for the platform threads of the fallback
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final long PLATFORM_STACK = 256 * 1024;
+
+	/**
+	 * INPUT_BUFFER is a constant which holds the bytes of the input buffer of a session, a typed line is a
+	 * few bytes and the default of ConsoleInput would keep 8 KB per idle session
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int INPUT_BUFFER = 256;
+
+	/**
+	 * config is the size of the boards and the fleet of every session
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final GameConfig config;
+
+	/**
+	 * maxSessions is how many sessions may be open at once
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int maxSessions;
+
+	/**
+	 * idleNanos is how long a session may go without reading its input before it is reaped
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long idleNanos;
+
+	/**
+	 * sessions are the open sessions by id
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+
+	/**
+	 * open counts the open sessions, it is reserved before a session starts so the cap is never exceeded
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final AtomicInteger open = new AtomicInteger();
+
+	/**
+	 * ids gives the id of each new session
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final AtomicLong ids = new AtomicLong();
+
+	/**
+	 * threads creates the thread of each session
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final ThreadFactory threads;
+
+	/**
+	 * virtual is if the threads of the sessions are virtual threads
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final boolean virtual;
+
+	/**
+	 * journal is where every session records its game, null when they are not recorded
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private volatile ReplayJournal journal;
+
+	/**
+	 * reaper closes the idle sessions from time to time
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final ScheduledExecutorService reaper;
+
+	/**
+	 * SessionManager is the constructor of the class, it starts the reaper of the idle sessions
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the boards and the fleet of every session
+	 * @param maxSessions is how many sessions may be open at once, 0 or less for the default of the threads in use
+	 * @param idleMillis is how long a session may go without input before it is reaped
+	 *
+	 * */
+	public SessionManager(final GameConfig config, int maxSessions, long idleMillis) {
+		this.config = config;
+		this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+
+		final ThreadFactory virtualThreads = virtualThreads();
+
+		this.virtual = virtualThreads != null;
+		this.maxSessions = maxSessions > 0 ? maxSessions : this.virtual ? VIRTUAL_MAX_SESSIONS : PLATFORM_MAX_SESSIONS;
+		this.threads = this.virtual ? virtualThreads : task -> {
+			final Thread thread = new Thread(null, task, "sessao", PLATFORM_STACK);
+
+			thread.setDaemon(true);
+
+			return thread;
+		};
+
+		this.reaper = Executors.newSingleThreadScheduledExecutor(task -> {
+			final Thread thread = new Thread(task, "sessao-reaper");
+
+			thread.setDaemon(true);
+
+			return thread;
+		});
+
+		final long period = Math.max(1000, idleMillis / 4);
+
+		this.reaper.scheduleAtFixedRate(this::reap, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * virtualThreads looks up the factory of virtual threads, through reflection so the code still runs
+	 * on JVMs which do not have them
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the factory or null if the JVM has no virtual threads
+	 *
+	 * */
+	private static ThreadFactory virtualThreads() {
+		try {
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+
+			return (ThreadFactory) factory.invoke(builder);
+
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * open starts a session which plays a whole game through the given streams
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalStateException if the manager already holds as many sessions as it can or the thread of
+	 * the session could not be started, the channel is left open for the caller to tell the player
+	 *
+	 * @param in is where the input of the player comes from
+	 * @param out is where the game is shown to the player
+	 * @param channel is what carries the streams, it is closed when the session ends
+	 *
+	 * @return the started session
+	 *
+	 * */
+	public Session open(final InputStream in, final OutputStream out, final Closeable channel) {
+		if(this.open.incrementAndGet() > this.maxSessions) {
+			this.open.decrementAndGet();
+			throw new IllegalStateException("Limite de " + this.maxSessions + " sessões atingido");
+		}
+
+		final Session session = new Session(this.ids.incrementAndGet(), channel);
+
+		try {
+			final PrintStream screen = new PrintStream(out, true, StandardCharsets.UTF_8);
+			final Game game = new Game(this.config, new ConsoleInput(session.track(in), INPUT_BUFFER), screen, new Screen(true));
+
+			game.setJournal(this.journal);
+			final Thread thread = this.threads.newThread(() -> {
+				try {
+					game.play();
+
+				} catch (NoSuchElementException | IllegalStateException e) {
+					//the input was closed, by the player or by the reaper
+
+				} finally {
+					this.sessions.remove(session.getId());
+					this.open.decrementAndGet();
+					session.close();
+				}
+			});
+
+			if(thread == null) throw new IllegalStateException("Sem threads para a sessão");
+
+			//the session is put before the start so the thread never removes it before it is there
+			this.sessions.put(session.getId(), session);
+			thread.start();
+
+		} catch (RuntimeException | OutOfMemoryError e) {
+			//nothing runs the session, so what was reserved for it is given back
+			this.sessions.remove(session.getId());
+			this.open.decrementAndGet();
+
+			throw new IllegalStateException("Não foi possível iniciar a sessão: " + e.getMessage(), e);
+		}
+
+		return session;
+	}
+
+	/**
+	 * get looks up an open session
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param id is the id of the session
+	 *
+	 * @return the session or null if it is not open
+	 *
+	 * */
+	public Session get(long id) { return this.sessions.get(id); }
+
+	/**
+	 * size returns how many sessions are open
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of open sessions
+	 *
+	 * */
+	public int size() { return this.open.get(); }
+
+	/**
+	 * isVirtual returns if the sessions run on virtual threads
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return false if the JVM has no virtual threads and platform ones are used
+	 *
+	 * */
+	public boolean isVirtual() { return this.virtual; }
+
+	/**
+	 * setJournal records the game of every session opened from now on, each game is appended when it ends
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param journal is where the games are recorded or null to stop recording them
+	 *
+	 * */
+	public void setJournal(final ReplayJournal journal) { this.journal = journal; }
+
+	/**
+	 * getMaxSessions returns how many sessions may be open at once
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the cap of the manager
+	 *
+	 * */
+	public int getMaxSessions() { return this.maxSessions; }
+
+	/**
+	 * reap closes every session which did not read its input for longer than the idle timeout
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return how many sessions were closed
+	 *
+	 * */
+	public int reap() {
+		final long now = System.nanoTime();
+		int reaped = 0;
+
+		for(final Session session : this.sessions.values()) {
+			if(now - session.getLastActivity() > this.idleNanos) {
+				session.close();
+				reaped++;
+			}
+		}
+
+		return reaped;
+	}
+
+	/**
+	 * close stops the reaper and closes every session
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	@Override
+	public void close() {
+		this.reaper.shutdownNow();
+
+		for(final Session session : this.sessions.values()) session.close();
+	}
+
+	public static void main(String[] args) throws IOException {
+		final GameConfig config = Options.gameConfig(args);
+		final int port = Options.getInt(args, "port", 7778);
+		final int maxSessions = Options.getInt(args, "max-sessions", 0);
+		final long idle = Options.getLong(args, "idle", 300);
+
+		//every session shows the banner, it is loaded once here instead of on each connection
+		if(Options.has(args, "models")) Assets.setDirectory(Path.of(Options.get(args, "models", "models")));
+
+		Assets.preload(Assets.SHIP_MODEL);
+		Options.metrics(args);
+
+		//the journal is declared first so it is closed after the sessions
+		try(ReplayJournal journal = Options.has(args, "journal")
+				? ReplayJournal.open(Path.of(Options.get(args, "journal", "")), config.getWidth(), config.getHeight())
+				: null;
+			SessionManager manager = new SessionManager(config, maxSessions, idle * 1000);
+			ServerSocket server = new ServerSocket(port, 1024)) {
+
+			manager.setJournal(journal);
+
+			System.out.printf("Sessões ouvindo na porta %d (%s, threads %s, até %d sessões)\n",
+					server.getLocalPort(), config, manager.isVirtual() ? "virtuais" : "de plataforma", manager.getMaxSessions());
+
+			while(true) {
+				final Socket socket = server.accept();
+
+				try {
+					manager.open(socket.getInputStream(), socket.getOutputStream(), socket);
+
+				} catch (IllegalStateException e) {
+					socket.getOutputStream().write((e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8));
+					socket.close();
+				}
+			}
+		}
+	}
+}
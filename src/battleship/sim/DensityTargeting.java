@@ -0,0 +1,47 @@
+package battleship.sim;
+
+import battleship.core.GameConfig;
+import battleship.engine.Shooter;
+import battleship.engine.TargetingStrategy;
+import java.util.SplittableRandom;
+
+/**
+ * DensityTargeting is the targeting strategy density, the bots of ProbabilityShooter
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class DensityTargeting implements TargetingStrategy {
+
+	/**
+	 * getName returns the name the strategy is chosen by
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return density
+	 *
+	 * */
+	@Override
+	public String getName() { return "density"; }
+
+	/**
+	 * newShooter creates a ProbabilityShooter for the board of the game, the bot is deterministic so the
+	 * generator is not used
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the opponent board and the fleet placed on it
+	 * @param random is the generator of the game
+	 *
+	 * @return the bot
+	 *
+	 * */
+	@Override
+	public Shooter newShooter(final GameConfig config, final SplittableRandom random) {
+		return new ProbabilityShooter(config);
+	}
+}
@@ -0,0 +1,269 @@
+package battleship.sim;
+
+import battleship.core.*;
+import battleship.engine.FogView;
+import battleship.engine.Shooter;
+import java.util.SplittableRandom;
+
+/**
+ * HuntTargetShooter is a bot which shoots random cells until it hits a boat, then it shoots
+ * the neighbours of the hits until the boat sinks
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class HuntTargetShooter implements Shooter {
+
+	/**
+	 * width is the number of columns of the opponent board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int width;
+
+	/**
+	 * height is the number of rows of the opponent board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int height;
+
+	/**
+	 * order holds every cell of the board shuffled, it is the hunting order
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] order;
+
+	/**
+	 * next is the position in order of the next cell to be hunted
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int next;
+
+	/**
+	 * targets is the stack of cells around the hits which still have to be shot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] targets;
+
+	/**
+	 * targetCount is the number of cells in the targets stack
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int targetCount;
+
+	/**
+	 * shots counts the valid shots fired by the bot
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int shots;
+
+	/**
+	 * point is reused to hand the chosen cells to the engine
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Point point = new Point();
+
+	/**
+	 * HuntTargetShooter is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param width is the number of columns of the opponent board
+	 * @param height is the number of rows of the opponent board
+	 * @param random is the generator which shuffles the hunting order
+	 *
+	 * */
+	public HuntTargetShooter(int width, int height, final SplittableRandom random) {
+		this.width = width;
+		this.height = height;
+		this.order = new int[width * height];
+		this.targets = new int[width * height * 4];
+
+		for(int i = 0; i < this.order.length; i++) this.order[i] = i;
+
+		for(int i = this.order.length - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final int swap = this.order[i];
+
+			this.order[i] = this.order[j];
+			this.order[j] = swap;
+		}
+	}
+
+	/**
+	 * getShots returns the valid shots fired by the bot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of shots
+	 *
+	 * */
+	public int getShots() { return this.shots; }
+
+	/**
+	 * nextShot pops the targets around the last hits or takes the next cell of the hunting order
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 *
+	 * @return the point to be shot
+	 *
+	 * */
+	@Override
+	public Point nextShot(final FogView opponent) {
+		final int cell = this.pick(opponent, null, null, 0);
+
+		this.point.setX(cell % this.width);
+		this.point.setY(cell / this.width);
+
+		return this.point;
+	}
+
+	/**
+	 * nextSalvo chooses the cells of a salvo one by one like nextShot, skipping the cells already chosen
+	 * for it, the stack may hold a cell twice as the neighbour of two hits and no cell of the salvo is
+	 * shot before the whole salvo is resolved
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 * @param xs is where the columns to be shot are written
+	 * @param ys is where the rows to be shot are written
+	 * @param shots is how many shots the salvo has
+	 *
+	 * @return how many cells were written
+	 *
+	 * */
+	@Override
+	public int nextSalvo(final FogView opponent, final int[] xs, final int[] ys, int shots) {
+		int count = 0;
+
+		while(count < shots) {
+			final int cell = this.pick(opponent, xs, ys, count);
+
+			if(cell < 0) break;
+
+			xs[count] = cell % this.width;
+			ys[count++] = cell / this.width;
+		}
+
+		return count;
+	}
+
+	/**
+	 * pick pops the targets around the last hits or takes the next cell of the hunting order, skipping
+	 * the cells shot and the ones already chosen for the salvo
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 * @param xs are the columns already chosen for the salvo
+	 * @param ys are the rows already chosen for the salvo
+	 * @param chosen is how many cells were already chosen, 0 for a single shot
+	 *
+	 * @return the cell to be shot or -1 if every cell is taken
+	 *
+	 * */
+	private int pick(final FogView opponent, final int[] xs, final int[] ys, int chosen) {
+		while(this.targetCount > 0) {
+			final int candidate = this.targets[--this.targetCount];
+
+			if(this.isFree(opponent, candidate, xs, ys, chosen)) return candidate;
+		}
+
+		while(this.next < this.order.length) {
+			final int candidate = this.order[this.next++];
+
+			if(this.isFree(opponent, candidate, xs, ys, chosen)) return candidate;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * isFree tells if a cell can still be shot, it was not shot and is not one of the cells chosen for the salvo
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 * @param cell is the cell, y * width + x
+	 * @param xs are the columns already chosen for the salvo
+	 * @param ys are the rows already chosen for the salvo
+	 * @param chosen is how many cells were already chosen
+	 *
+	 * @return true if the cell can be shot
+	 *
+	 * */
+	private boolean isFree(final FogView opponent, int cell, final int[] xs, final int[] ys, int chosen) {
+		final int x = cell % this.width;
+		final int y = cell / this.width;
+
+		if(opponent.isShot(x, y)) return false;
+
+		//a salvo has a few shots, a scan is cheaper than marking the board
+		for(int k = 0; k < chosen; k++) if(xs[k] == x && ys[k] == y) return false;
+
+		return true;
+	}
+
+	/**
+	 * shotResolved pushes the neighbours of a hit as targets and drops them when the boat sinks
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which was shot
+	 * @param x is the column that was shot
+	 * @param y is the row that was shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	@Override
+	public void shotResolved(final FogView opponent, int x, int y, final ShotResult result) {
+		if(result.isValid()) this.shots++;
+
+		if(result == ShotResult.SUNK) {
+			this.targetCount = 0;
+			return;
+		}
+
+		if(result != ShotResult.HIT) return;
+
+		if(x > 0) this.targets[this.targetCount++] = y * this.width + x - 1;
+		if(x < this.width - 1) this.targets[this.targetCount++] = y * this.width + x + 1;
+		if(y > 0) this.targets[this.targetCount++] = (y - 1) * this.width + x;
+		if(y < this.height - 1) this.targets[this.targetCount++] = (y + 1) * this.width + x;
+	}
+}
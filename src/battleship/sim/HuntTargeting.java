@@ -0,0 +1,46 @@
+package battleship.sim;
+
+import battleship.core.GameConfig;
+import battleship.engine.Shooter;
+import battleship.engine.TargetingStrategy;
+import java.util.SplittableRandom;
+
+/**
+ * HuntTargeting is the targeting strategy hunt, the bots of HuntTargetShooter
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class HuntTargeting implements TargetingStrategy {
+
+	/**
+	 * getName returns the name the strategy is chosen by
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return hunt
+	 *
+	 * */
+	@Override
+	public String getName() { return "hunt"; }
+
+	/**
+	 * newShooter creates a HuntTargetShooter for the board of the game
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the opponent board and the fleet placed on it
+	 * @param random is the generator which draws the cells of the hunt
+	 *
+	 * @return the bot
+	 *
+	 * */
+	@Override
+	public Shooter newShooter(final GameConfig config, final SplittableRandom random) {
+		return new HuntTargetShooter(config.getWidth(), config.getHeight(), random);
+	}
+}
@@ -0,0 +1,320 @@
+package battleship.sim;
+
+import battleship.Options;
+import battleship.core.BoatType;
+import battleship.core.GameConfig;
+import battleship.core.InvalidFleet;
+import battleship.core.Player;
+import battleship.engine.GameEngine;
+import battleship.engine.ShooterMoves;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * MonteCarloSimulator plays bot against bot games across all the cores with a fork/join pool.
+ * Every game draws from its own generator seeded by the run seed and the game number, so a run
+ * gives the same results whatever the number of threads is
+ *
+ * Run it with: java -cp out battleship.sim.MonteCarloSimulator [--games N] [--seed S] [--threads T]
+ * [--width W] [--height H] [--fleet L,B,M,S] [--shooter hunt|density] [--salvo K|boats]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class MonteCarloSimulator {
+
+	/**
+	 * MAX_HEATMAP_WIDTH is a constant which holds up to how many columns the hit heatmap is printed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int MAX_HEATMAP_WIDTH = 30;
+
+	/**
+	 * GAMES_PER_TASK is a constant which holds up to how many games a task plays without splitting
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int GAMES_PER_TASK = 256;
+
+	/**
+	 * seed is the seed of the whole run
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long seed;
+
+	/**
+	 * config is the size of the boards and the fleet of the simulated games
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final GameConfig config;
+
+	/**
+	 * density tells if the bots shoot with the ProbabilityShooter instead of the HuntTargetShooter
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final boolean density;
+
+	/**
+	 * salvo is how many shots each turn of the simulated games has, 0 for one shot at a time
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int salvo;
+
+	/**
+	 * MonteCarloSimulator is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the boards and the fleet of the simulated games
+	 * @param seed is the seed of the whole run
+	 *
+	 * */
+	public MonteCarloSimulator(final GameConfig config, long seed) {
+		this(config, seed, false);
+	}
+
+	/**
+	 * MonteCarloSimulator is the constructor of a simulator which may use the probability density bots
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the boards and the fleet of the simulated games
+	 * @param seed is the seed of the whole run
+	 * @param density is true to play with the ProbabilityShooter and false to play with the HuntTargetShooter
+	 *
+	 * */
+	public MonteCarloSimulator(final GameConfig config, long seed, boolean density) {
+		this(config, seed, density, 0);
+	}
+
+	/**
+	 * MonteCarloSimulator is the constructor of a simulator of salvo games
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the boards and the fleet of the simulated games
+	 * @param seed is the seed of the whole run
+	 * @param density is true to play with the ProbabilityShooter and false to play with the HuntTargetShooter
+	 * @param salvo is how many shots each turn has, 0 for one shot at a time or GameEngine.SALVO_PER_BOAT
+	 *
+	 * */
+	public MonteCarloSimulator(final GameConfig config, long seed, boolean density, int salvo) {
+		this.config = config;
+		this.seed = seed;
+		this.density = density;
+		this.salvo = salvo;
+	}
+
+	/**
+	 * playGame plays one complete game and records it
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IllegalStateException if a fleet could not be placed, the fleet is too tight for random positions
+	 *
+	 * @param game is the number of the game, it selects the generator of the game
+	 * @param stats is where the game is recorded
+	 *
+	 * */
+	private void playGame(long game, final SimulationStats stats) {
+		final SplittableRandom random = new SplittableRandom(this.seed ^ (game * 0x9E3779B97F4A7C15L));
+		final BoatType[] fleet = this.config.getFleet();
+		final int width = this.config.getWidth();
+		final int height = this.config.getHeight();
+
+		final Player first = new Player("Bot 1", this.config.newBoard());
+		final Player second = new Player("Bot 2", this.config.newBoard());
+
+		try {
+			RandomFleet.place(first, fleet, random);
+			RandomFleet.place(second, fleet, random);
+
+		} catch (InvalidFleet e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+
+		final int winnerShots;
+
+		if(this.density) {
+			final ProbabilityShooter firstShooter = new ProbabilityShooter(this.config);
+			final ProbabilityShooter secondShooter = new ProbabilityShooter(this.config);
+
+			final Player winner = new GameEngine(first, new ShooterMoves(firstShooter), second, new ShooterMoves(secondShooter), this.salvo).play();
+			winnerShots = winner == first ? firstShooter.getShots() : secondShooter.getShots();
+		} else {
+			final HuntTargetShooter firstShooter = new HuntTargetShooter(width, height, random);
+			final HuntTargetShooter secondShooter = new HuntTargetShooter(width, height, random);
+
+			final Player winner = new GameEngine(first, new ShooterMoves(firstShooter), second, new ShooterMoves(secondShooter), this.salvo).play();
+			winnerShots = winner == first ? firstShooter.getShots() : secondShooter.getShots();
+		}
+
+		stats.record(winnerShots, first.getBoard(), second.getBoard());
+	}
+
+	/**
+	 * Games is the task which plays a range of games, splitting it while it is large
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private class Games extends RecursiveTask<SimulationStats> {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * from is the first game of the range
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final long from;
+
+		/**
+		 * to is the game after the last one of the range
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final long to;
+
+		/**
+		 * Games is the constructor of the task
+		 *
+		 * @since 1.1
+		 * @access default
+		 *
+		 * @param from is the first game of the range
+		 * @param to is the game after the last one of the range
+		 *
+		 * */
+		Games(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected SimulationStats compute() {
+			if(this.to - this.from <= GAMES_PER_TASK) {
+				final SimulationStats stats = new SimulationStats(config.getWidth(), config.getHeight());
+
+				for(long game = this.from; game < this.to; game++) playGame(game, stats);
+
+				return stats;
+			}
+
+			final long middle = (this.from + this.to) >>> 1;
+			final Games left = new Games(this.from, middle);
+
+			left.fork();
+
+			final SimulationStats right = new Games(middle, this.to).compute();
+
+			return left.join().merge(right);
+		}
+	}
+
+	/**
+	 * run plays the given number of games on the pool
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param games is the number of games to be played
+	 * @param pool is the pool where the games are played
+	 *
+	 * @return the merged results of all the games
+	 *
+	 * */
+	public SimulationStats run(long games, final ForkJoinPool pool) {
+		return pool.invoke(new Games(0, games));
+	}
+
+	/**
+	 * report prints the results of a run
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param config is the size of the boards and the fleet of the run
+	 * @param stats are the results of the run
+	 * @param nanos is how long the run took
+	 *
+	 * */
+	private static void report(final GameConfig config, final SimulationStats stats, long nanos) {
+		System.out.printf("Partidas: %d em %.2f s (%.0f partidas/s)\n", stats.getGames(), nanos / 1e9, stats.getGames() / (nanos / 1e9));
+		System.out.printf("Tiros para vencer: média=%.1f mín=%d p50=%d p90=%d p99=%d máx=%d\n",
+				stats.meanShotsToWin(), stats.percentile(0), stats.percentile(0.5),
+				stats.percentile(0.9), stats.percentile(0.99), stats.percentile(1));
+
+		System.out.println("\nDistribuição de tiros para vencer:");
+		final long[] histogram = stats.getShotsToWin();
+
+		for(int shots = 0; shots < histogram.length; shots += 5) {
+			long count = 0;
+
+			for(int i = shots; i < Math.min(shots + 5, histogram.length); i++) count += histogram[i];
+
+			if(count > 0) System.out.printf("%3d-%3d: %6.2f%%\n", shots, shots + 4, 100.0 * count / stats.getGames());
+		}
+
+		if(config.getWidth() > MAX_HEATMAP_WIDTH) return;
+
+		//both boards of a game are counted, so each cell is a share of the boards and never passes 100%
+		System.out.println("\nFrequência de acertos por célula (% dos tabuleiros):");
+		final long[] hits = stats.getCellHits();
+
+		for(int y = 0; y < config.getHeight(); y++) {
+			for(int x = 0; x < config.getWidth(); x++) {
+				System.out.printf("%6.1f", 100.0 * hits[y * config.getWidth() + x] / stats.getBoards());
+			}
+
+			System.out.println();
+		}
+	}
+
+	public static void main(String[] args) {
+		final long games = Options.getLong(args, "games", 100_000);
+		final long seed = Options.getLong(args, "seed", 42);
+		final int threads = Options.getInt(args, "threads", Runtime.getRuntime().availableProcessors());
+		final GameConfig config = Options.gameConfig(args);
+		final boolean density = "density".equals(Options.get(args, "shooter", "hunt"));
+		final String salvo = Options.get(args, "salvo", "0");
+
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		final MonteCarloSimulator simulator = new MonteCarloSimulator(config, seed, density,
+				"boats".equals(salvo) ? GameEngine.SALVO_PER_BOAT : Integer.parseInt(salvo));
+
+		final long start = System.nanoTime();
+		final SimulationStats stats = simulator.run(games, pool);
+
+		report(config, stats, System.nanoTime() - start);
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,629 @@
+package battleship.sim;
+
+import battleship.core.*;
+import battleship.engine.FogView;
+import battleship.engine.Shooter;
+
+/**
+ * ProbabilityShooter is a bot which shoots the cell covered by the most legal placements of the boats
+ * the opponent still has. A placement is legal while none of its cells is a miss or part of a sunk boat,
+ * boats of one cell have a single placement and the others can be horizontal or vertical.
+ *
+ * The density of each boat type is kept per cell and a max tree over the weighted sum finds the best
+ * cell in O(log n). A miss or a sunk boat only removes the placements which cover the blocked cells,
+ * so a shot updates O(size^2) cells instead of recounting the board. While there are hits of boats
+ * not sunk yet, it switches to target mode and scores only the placements around those hits
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class ProbabilityShooter implements Shooter {
+
+	//UNKNOWN is the state of a cell which was not shot
+	private static final byte UNKNOWN = 0;
+
+	//MISS is the state of a shot cell without boat
+	private static final byte MISS = 1;
+
+	//HIT is the state of a shot cell of a boat which was not sunk yet
+	private static final byte HIT = 2;
+
+	//SUNK is the state of a cell of a sunk boat
+	private static final byte SUNK = 3;
+
+	/**
+	 * TYPES is a constant which holds the boat types, their ordinal indexes the per type arrays
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final BoatType[] TYPES = BoatType.values();
+
+	/**
+	 * width is the number of columns of the opponent board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int width;
+
+	/**
+	 * height is the number of rows of the opponent board
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int height;
+
+	/**
+	 * remaining counts the boats of each type which were not sunk yet
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] remaining;
+
+	/**
+	 * state is what is known of each cell, indexed by y * width + x
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final byte[] state;
+
+	/**
+	 * density counts, for each boat type and cell, the legal placements of one boat of the type covering the cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[][] density;
+
+	/**
+	 * leaves is the number of leaves of the max tree, the first power of two which holds every cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int leaves;
+
+	/**
+	 * tree is the max tree of the weights, the leaf of a cell is the sum of the density of each type times
+	 * the boats of the type left, shot cells and padding leaves hold -1 so they are never chosen
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] tree;
+
+	/**
+	 * hits are the cells hit of boats which were not sunk yet
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] hits;
+
+	/**
+	 * hitCount is the number of cells in hits
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int hitCount;
+
+	/**
+	 * score is the scratch of the target mode score of each cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] score;
+
+	/**
+	 * scored are the cells whose score has to be cleared after a target mode decision
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] scored;
+
+	/**
+	 * sunkCells is the scratch where the board writes the cells of a sunk boat
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] sunkCells;
+
+	/**
+	 * point is reused to hand the chosen cells to the engine
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final Point point = new Point();
+
+	/**
+	 * shots counts how many valid shots the bot fired
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private int shots;
+
+	/**
+	 * ProbabilityShooter is the constructor of the class, it counts the placements of the empty board once
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param config is the size of the opponent board and the fleet placed on it
+	 *
+	 * */
+	public ProbabilityShooter(final GameConfig config) {
+		this.width = config.getWidth();
+		this.height = config.getHeight();
+
+		final int area = this.width * this.height;
+		int largest = 1;
+
+		this.remaining = new int[TYPES.length];
+
+		for(final BoatType type : config.getFleet()) {
+			this.remaining[type.ordinal()]++;
+			largest = Math.max(largest, type.getSize());
+		}
+
+		this.state = new byte[area];
+		this.density = new int[TYPES.length][area];
+		this.hits = new int[area];
+		this.score = new long[area];
+		this.scored = new int[area];
+		this.sunkCells = new int[largest];
+
+		for(final BoatType type : TYPES) {
+			final int size = type.getSize();
+			final int[] counts = this.density[type.ordinal()];
+
+			for(int y = 0; y < this.height; y++) {
+				for(int x = 0; x < this.width; x++) {
+					counts[y * this.width + x] = size == 1 ? 1 : origins(x, size, this.width) + origins(y, size, this.height);
+				}
+			}
+		}
+
+		int leaves = 1;
+
+		while(leaves < area) leaves <<= 1;
+
+		this.leaves = leaves;
+		this.tree = new long[2 * leaves];
+		this.rebuild();
+	}
+
+	/**
+	 * origins returns on how many origins a boat laid along a line of the board covers a coordinate
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param coordinate is the coordinate along the line
+	 * @param size is the size of the boat
+	 * @param length is the length of the line
+	 *
+	 * @return the number of origins
+	 *
+	 * */
+	private static int origins(int coordinate, int size, int length) {
+		return Math.max(0, Math.min(coordinate, length - size) - Math.max(0, coordinate - size + 1) + 1);
+	}
+
+	/**
+	 * weight returns the sum of the densities of the boats left on a cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param cell is the cell
+	 *
+	 * @return the weight of the cell
+	 *
+	 * */
+	private long weight(int cell) {
+		long weight = 0;
+
+		for(int t = 0; t < TYPES.length; t++) weight += (long) this.remaining[t] * this.density[t][cell];
+
+		return weight;
+	}
+
+	/**
+	 * rebuild recomputes every leaf and node of the tree, it only runs when a boat sinks
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private void rebuild() {
+		for(int i = 0; i < this.leaves; i++) {
+			this.tree[this.leaves + i] = i < this.state.length && this.state[i] == UNKNOWN ? this.weight(i) : -1;
+		}
+
+		for(int node = this.leaves - 1; node > 0; node--) {
+			this.tree[node] = Math.max(this.tree[2 * node], this.tree[2 * node + 1]);
+		}
+	}
+
+	/**
+	 * update sets a leaf and fixes the maximum of its ancestors
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param cell is the cell of the leaf
+	 * @param value is the new value of the leaf
+	 *
+	 * */
+	private void update(int cell, long value) {
+		int node = this.leaves + cell;
+
+		this.tree[node] = value;
+
+		for(node >>= 1; node > 0; node >>= 1) {
+			this.tree[node] = Math.max(this.tree[2 * node], this.tree[2 * node + 1]);
+		}
+	}
+
+	/**
+	 * best walks down the tree to the unknown cell with the largest weight
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the best cell
+	 *
+	 * */
+	private int best() {
+		int node = 1;
+
+		while(node < this.leaves) {
+			node = this.tree[2 * node] >= this.tree[2 * node + 1] ? 2 * node : 2 * node + 1;
+		}
+
+		return node - this.leaves;
+	}
+
+	/**
+	 * isBlocked returns if no boat which was not sunk can be on a cell
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param cell is the cell
+	 *
+	 * @return true if the cell is a miss or part of a sunk boat
+	 *
+	 * */
+	private boolean isBlocked(int cell) { return this.state[cell] == MISS || this.state[cell] == SUNK; }
+
+	/**
+	 * isLegal returns if none of the cells of a placement is blocked
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param origin is the first cell of the placement
+	 * @param step is the distance between two cells of the placement
+	 * @param size is the number of cells of the placement
+	 *
+	 * @return true if the placement is legal
+	 *
+	 * */
+	private boolean isLegal(int origin, int step, int size) {
+		for(int k = 0; k < size; k++) {
+			if(this.isBlocked(origin + k * step)) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * block marks a cell as a miss or as part of a sunk boat and removes the placements which covered it
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param cell is the cell to be blocked
+	 * @param blocked is the new state of the cell
+	 *
+	 * */
+	private void block(int cell, byte blocked) {
+		if(this.isBlocked(cell)) return;
+
+		final int x = cell % this.width;
+		final int y = cell / this.width;
+
+		for(final BoatType type : TYPES) {
+			final int size = type.getSize();
+
+			if(size == 1) {
+				this.removePlacement(type.ordinal(), cell, 1, 1);
+				continue;
+			}
+
+			for(int x0 = Math.max(0, x - size + 1); x0 <= Math.min(x, this.width - size); x0++) {
+				if(this.isLegal(y * this.width + x0, 1, size)) this.removePlacement(type.ordinal(), y * this.width + x0, 1, size);
+			}
+
+			for(int y0 = Math.max(0, y - size + 1); y0 <= Math.min(y, this.height - size); y0++) {
+				if(this.isLegal(y0 * this.width + x, this.width, size)) this.removePlacement(type.ordinal(), y0 * this.width + x, this.width, size);
+			}
+		}
+
+		this.state[cell] = blocked;
+	}
+
+	/**
+	 * removePlacement takes a placement out of the density of its type and out of the weights
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param t is the ordinal of the boat type
+	 * @param origin is the first cell of the placement
+	 * @param step is the distance between two cells of the placement
+	 * @param size is the number of cells of the placement
+	 *
+	 * */
+	private void removePlacement(int t, int origin, int step, int size) {
+		for(int k = 0; k < size; k++) {
+			final int cell = origin + k * step;
+
+			this.density[t][cell]--;
+
+			if(this.tree[this.leaves + cell] >= 0 && this.remaining[t] > 0) {
+				this.update(cell, this.tree[this.leaves + cell] - this.remaining[t]);
+			}
+		}
+	}
+
+	/**
+	 * target scores the unknown cells around the hits by the legal placements which explain them
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @return the best cell around the hits or -1 if no placement explains them
+	 *
+	 * */
+	private int target() {
+		int scoredCount = 0;
+
+		for(int h = 0; h < this.hitCount; h++) {
+			final int hit = this.hits[h];
+			final int x = hit % this.width;
+			final int y = hit / this.width;
+
+			for(final BoatType type : TYPES) {
+				final int size = type.getSize();
+
+				if(size == 1 || this.remaining[type.ordinal()] == 0) continue;
+
+				for(int x0 = Math.max(0, x - size + 1); x0 <= Math.min(x, this.width - size); x0++) {
+					scoredCount = this.scorePlacement(type.ordinal(), y * this.width + x0, 1, size, scoredCount);
+				}
+
+				for(int y0 = Math.max(0, y - size + 1); y0 <= Math.min(y, this.height - size); y0++) {
+					scoredCount = this.scorePlacement(type.ordinal(), y0 * this.width + x, this.width, size, scoredCount);
+				}
+			}
+		}
+
+		int best = -1;
+
+		for(int i = 0; i < scoredCount; i++) {
+			final int cell = this.scored[i];
+
+			//a cell already taken by the salvo being chosen has its leaf cleared
+			if(this.tree[this.leaves + cell] < 0) continue;
+
+			if(best < 0 || this.score[cell] > this.score[best]
+					|| (this.score[cell] == this.score[best] && this.tree[this.leaves + cell] > this.tree[this.leaves + best])) best = cell;
+		}
+
+		for(int i = 0; i < scoredCount; i++) this.score[this.scored[i]] = 0;
+
+		return best;
+	}
+
+	/**
+	 * scorePlacement adds a legal placement to the score of its unknown cells, weighted by the hits it explains
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param t is the ordinal of the boat type
+	 * @param origin is the first cell of the placement
+	 * @param step is the distance between two cells of the placement
+	 * @param size is the number of cells of the placement
+	 * @param scoredCount is the number of cells in scored
+	 *
+	 * @return the new number of cells in scored
+	 *
+	 * */
+	private int scorePlacement(int t, int origin, int step, int size, int scoredCount) {
+		if(!this.isLegal(origin, step, size)) return scoredCount;
+
+		int covered = 0;
+
+		for(int k = 0; k < size; k++) {
+			if(this.state[origin + k * step] == HIT) covered++;
+		}
+
+		if(covered == size) return scoredCount;
+
+		for(int k = 0; k < size; k++) {
+			final int cell = origin + k * step;
+
+			if(this.state[cell] != UNKNOWN) continue;
+
+			if(this.score[cell] == 0) this.scored[scoredCount++] = cell;
+
+			this.score[cell] += (long) this.remaining[t] * covered;
+		}
+
+		return scoredCount;
+	}
+
+	/**
+	 * nextShot chooses the best cell around the hits or, without hits to follow, the densest cell
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 *
+	 * @return the point to be shot
+	 *
+	 * */
+	@Override
+	public Point nextShot(final FogView opponent) {
+		int cell = this.hitCount > 0 ? this.target() : -1;
+
+		if(cell < 0) cell = this.best();
+
+		this.point.setX(cell % this.width);
+		this.point.setY(cell / this.width);
+
+		return this.point;
+	}
+
+	/**
+	 * nextSalvo chooses the cells of a salvo one by one like nextShot, clearing the leaf of each chosen
+	 * cell so the next ones are different, shotResolved clears them for good
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which will be shot
+	 * @param xs is where the columns to be shot are written
+	 * @param ys is where the rows to be shot are written
+	 * @param shots is how many shots the salvo has
+	 *
+	 * @return how many cells were written
+	 *
+	 * */
+	@Override
+	public int nextSalvo(final FogView opponent, final int[] xs, final int[] ys, int shots) {
+		int count = 0;
+
+		while(count < shots && this.tree[1] >= 0) {
+			int cell = this.hitCount > 0 ? this.target() : -1;
+
+			if(cell < 0) cell = this.best();
+
+			this.update(cell, -1);
+
+			xs[count] = cell % this.width;
+			ys[count++] = cell / this.width;
+		}
+
+		return count;
+	}
+
+	/**
+	 * shotResolved updates the densities with the result of a shot
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param opponent is what the bot sees of the board which was shot
+	 * @param x is the column that was shot
+	 * @param y is the row that was shot
+	 * @param result is the result of the shot
+	 *
+	 * */
+	@Override
+	public void shotResolved(final FogView opponent, int x, int y, final ShotResult result) {
+		if(!result.isValid()) return;
+
+		this.shots++;
+
+		final int cell = y * this.width + x;
+
+		if(result == ShotResult.MISS) {
+			this.update(cell, -1);
+			this.block(cell, MISS);
+			return;
+		}
+
+		this.state[cell] = HIT;
+		this.hits[this.hitCount++] = cell;
+		this.update(cell, -1);
+
+		if(result != ShotResult.SUNK) return;
+
+		final int size = opponent.sunkBoatCells(x, y, this.sunkCells);
+
+		for(int i = 0; i < size; i++) {
+			final int sunk = this.sunkCells[i];
+
+			this.state[sunk] = HIT;
+			this.removeHit(sunk);
+			this.block(sunk, SUNK);
+		}
+
+		final int type = opponent.sunkBoatType(x, y).ordinal();
+
+		if(this.remaining[type] > 0) this.remaining[type]--;
+
+		this.rebuild();
+	}
+
+	/**
+	 * getShots returns how many valid shots the bot fired
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of shots
+	 *
+	 * */
+	public int getShots() { return this.shots; }
+
+	/**
+	 * removeHit takes a cell out of the hits to be followed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param cell is the cell of a sunk boat
+	 *
+	 * */
+	private void removeHit(int cell) {
+		for(int h = 0; h < this.hitCount; h++) {
+			if(this.hits[h] == cell) {
+				this.hits[h] = this.hits[--this.hitCount];
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package battleship.sim;
+
+import battleship.core.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * RandomFleet places a fleet on random positions of a player board
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class RandomFleet {
+
+	/**
+	 * RandomFleet is private because the class only has static methods
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private RandomFleet() {}
+
+	/**
+	 * ATTEMPTS_PER_CELL is a constant which holds how many positions are drawn for a boat per cell of the
+	 * board before the positions are tried in order
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int ATTEMPTS_PER_CELL = 4;
+
+	/**
+	 * TIGHT_ROUNDS is a constant which holds how many times a tight fleet is drawn whole before it takes
+	 * the layout of GameConfig.layout
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int TIGHT_ROUNDS = 16;
+
+	/**
+	 * ORIENTATIONS is a constant which holds the orientations a boat longer than one cell is tried on, in order
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final BoatOrientation[] ORIENTATIONS = { BoatOrientation.HORIZONTAL, BoatOrientation.VERTICAL };
+
+	/**
+	 * place places every boat of the fleet, drawing positions until the board accepts each one, without
+	 * allocating a boat per draw. A boat which the draws keep missing is tried on every position in order,
+	 * so a fleet with no room left ends on an exception instead of drawing forever. A fleet which takes
+	 * more than half of the board is laid out before it is placed, see placeTight
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws InvalidFleet if the boats already placed left no position for a boat, with that boat
+	 *
+	 * @param player is the player who will receive the boats
+	 * @param fleet are the boats to be placed
+	 * @param random is the generator which draws the positions
+	 *
+	 * */
+	public static void place(final Player player, final BoatType[] fleet, final SplittableRandom random) throws InvalidFleet {
+		final Board board = player.getBoard();
+		final long attempts = (long) ATTEMPTS_PER_CELL * board.getWidth() * board.getHeight();
+		long cells = 0;
+
+		for(final BoatType type : fleet) cells += type.getSize();
+
+		//past half of the board the boats drawn first may leave no room for the others, see placeTight
+		if(cells * 2 > (long) board.getWidth() * board.getHeight()) {
+			placeTight(player, fleet, random);
+			return;
+		}
+
+		for(int b = 0; b < fleet.length; b++) {
+			final BoatType type = fleet[b];
+			boolean placed = false;
+			int x = 0;
+			int y = 0;
+
+			for(long attempt = 0; !placed && attempt < attempts; attempt++) {
+				x = random.nextInt(board.getWidth());
+				y = random.nextInt(board.getHeight());
+
+				final BoatOrientation orientation = type.getSize() == 1
+						? BoatOrientation.NONE
+						: random.nextBoolean() ? BoatOrientation.HORIZONTAL : BoatOrientation.VERTICAL;
+
+				placed = board.canPlace(type, orientation, x, y) && player.tryAddBoat(type, orientation, x, y);
+			}
+
+			if(placed || sweep(player, type)) continue;
+
+			final PlacementError[] errors = new PlacementError[fleet.length];
+			final Point[] points = new Point[fleet.length];
+
+			errors[b] = PlacementError.OCCUPIED;
+			points[b] = new Point(x, y);
+
+			throw new InvalidFleet(errors, points);
+		}
+	}
+
+	/**
+	 * placeTight places a fleet which takes most of the board, where a draw can leave no room for the last
+	 * boats and the board can not take a boat back. The whole fleet is drawn on a board of booleans first,
+	 * TIGHT_ROUNDS times at most, and only a fleet drawn whole is placed. When every round fails, as on a
+	 * board the fleet fills up, it takes the layout GameConfig found for it, mirrored at random
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws InvalidFleet if no layout of the fleet is known, with its first boat
+	 *
+	 * @param player is the player who will receive the boats
+	 * @param fleet are the boats to be placed
+	 * @param random is the generator which draws the positions
+	 *
+	 * */
+	private static void placeTight(final Player player, final BoatType[] fleet, final SplittableRandom random) throws InvalidFleet {
+		final int width = player.getBoard().getWidth();
+		final int height = player.getBoard().getHeight();
+
+		for(int round = 0; round < TIGHT_ROUNDS; round++) {
+			final List<Boat> boats = draw(width, height, fleet, random);
+
+			if(boats != null) {
+				player.addFleet(boats);
+				return;
+			}
+		}
+
+		final List<Boat> layout = GameConfig.layout(width, height, fleet);
+
+		if(layout == null) {
+			final PlacementError[] errors = new PlacementError[fleet.length];
+			final Point[] points = new Point[fleet.length];
+
+			errors[0] = PlacementError.OCCUPIED;
+			points[0] = new Point(0, 0);
+
+			throw new InvalidFleet(errors, points);
+		}
+
+		final boolean flipX = random.nextBoolean();
+		final boolean flipY = random.nextBoolean();
+		final List<Boat> boats = new ArrayList<>(layout.size());
+
+		for(final Boat boat : layout) {
+			final BoatOrientation orientation = boat.getOrientation();
+			final int size = boat.getType().getSize();
+			final int across = orientation == BoatOrientation.HORIZONTAL ? size : 1;
+			final int down = orientation == BoatOrientation.VERTICAL ? size : 1;
+			final int x = boat.getInitialPoint().getX();
+			final int y = boat.getInitialPoint().getY();
+
+			boats.add(new Boat(boat.getType(), orientation,
+					new Point(flipX ? width - x - across : x, flipY ? height - y - down : y)));
+		}
+
+		player.addFleet(boats);
+	}
+
+	/**
+	 * draw draws a whole fleet on a board of booleans like place does on the board, the positions of a
+	 * boat the draws keep missing are tried in order
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 * @param fleet are the boats to be placed
+	 * @param random is the generator which draws the positions
+	 *
+	 * @return the boats in the order of the fleet or null if a boat found no room
+	 *
+	 * */
+	private static List<Boat> draw(int width, int height, final BoatType[] fleet, final SplittableRandom random) {
+		final boolean[] taken = new boolean[width * height];
+		final List<Boat> boats = new ArrayList<>(fleet.length);
+		final long attempts = (long) ATTEMPTS_PER_CELL * width * height;
+
+		for(final BoatType type : fleet) {
+			final int size = type.getSize();
+			boolean placed = false;
+
+			for(long attempt = 0; !placed && attempt < attempts; attempt++) {
+				final int x = random.nextInt(width);
+				final int y = random.nextInt(height);
+				final BoatOrientation orientation = size == 1
+						? BoatOrientation.NONE
+						: random.nextBoolean() ? BoatOrientation.HORIZONTAL : BoatOrientation.VERTICAL;
+
+				placed = take(taken, width, height, size, orientation, x, y);
+
+				if(placed) boats.add(new Boat(type, orientation, new Point(x, y)));
+			}
+
+			for(int cell = 0; !placed && cell < taken.length; cell++) {
+				final int x = cell % width;
+				final int y = cell / width;
+
+				if(size == 1) {
+					placed = take(taken, width, height, size, BoatOrientation.NONE, x, y);
+
+					if(placed) boats.add(new Boat(type, BoatOrientation.NONE, new Point(x, y)));
+
+					continue;
+				}
+
+				for(final BoatOrientation orientation : ORIENTATIONS) {
+					placed = take(taken, width, height, size, orientation, x, y);
+
+					if(placed) {
+						boats.add(new Boat(type, orientation, new Point(x, y)));
+						break;
+					}
+				}
+			}
+
+			if(!placed) return null;
+		}
+
+		return boats;
+	}
+
+	/**
+	 * take marks the cells of a boat on a board of booleans if they are on the board and free
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param taken are the cells already taken, indexed by y * width + x
+	 * @param width is the number of columns of the board
+	 * @param height is the number of rows of the board
+	 * @param size is the number of cells of the boat
+	 * @param orientation is the orientation of the boat
+	 * @param x is the column of the first cell of the boat
+	 * @param y is the row of the first cell of the boat
+	 *
+	 * @return true if the boat was marked
+	 *
+	 * */
+	private static boolean take(final boolean[] taken, int width, int height, int size, final BoatOrientation orientation, int x, int y) {
+		final int step = orientation == BoatOrientation.VERTICAL ? width : 1;
+
+		if(orientation == BoatOrientation.VERTICAL ? y + size > height : x + size > width) return false;
+
+		final int cell = y * width + x;
+
+		for(int k = 0; k < size; k++) {
+			if(taken[cell + k * step]) return false;
+		}
+
+		for(int k = 0; k < size; k++) taken[cell + k * step] = true;
+
+		return true;
+	}
+
+	/**
+	 * sweep tries a boat on every position of the board in order and places it on the first which fits
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param player is the player who will receive the boat
+	 * @param type is the type of the boat
+	 *
+	 * @return true if the boat was placed
+	 *
+	 * */
+	private static boolean sweep(final Player player, final BoatType type) {
+		final Board board = player.getBoard();
+
+		for(int y = 0; y < board.getHeight(); y++) {
+			for(int x = 0; x < board.getWidth(); x++) {
+				if(type.getSize() == 1) {
+					if(player.tryAddBoat(type, BoatOrientation.NONE, x, y)) return true;
+					continue;
+				}
+
+				if(player.tryAddBoat(type, BoatOrientation.HORIZONTAL, x, y)) return true;
+				if(player.tryAddBoat(type, BoatOrientation.VERTICAL, x, y)) return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,48 @@
+package battleship.sim;
+
+import battleship.core.BoatType;
+import battleship.core.InvalidFleet;
+import battleship.core.Player;
+import battleship.engine.PlacementStrategy;
+import java.util.SplittableRandom;
+
+/**
+ * RandomPlacement is the placement strategy random, the fleet of RandomFleet
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class RandomPlacement implements PlacementStrategy {
+
+	/**
+	 * getName returns the name the strategy is chosen by
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return random
+	 *
+	 * */
+	@Override
+	public String getName() { return "random"; }
+
+	/**
+	 * place places every boat of the fleet on random positions
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws InvalidFleet if the boats already placed left no position for a boat, see RandomFleet
+	 *
+	 * @param player is the player who will receive the boats
+	 * @param fleet are the boats to be placed
+	 * @param random is the generator which draws the positions
+	 *
+	 * */
+	@Override
+	public void place(final Player player, final BoatType[] fleet, final SplittableRandom random) throws InvalidFleet {
+		RandomFleet.place(player, fleet, random);
+	}
+}
@@ -0,0 +1,206 @@
+package battleship.sim;
+
+import battleship.core.Board;
+
+/**
+ * SimulationStats accumulates the results of simulated games, each worker fills its own instance
+ * and they are merged at the end so no counter is shared between threads
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class SimulationStats {
+
+	/**
+	 * width is the number of columns of the simulated boards
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int width;
+
+	/**
+	 * games counts the finished games
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long games;
+
+	/**
+	 * boards counts the boards whose hits were added to cellHits, each game adds the boards of both players
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long boards;
+
+	/**
+	 * shotsToWin is the histogram of how many shots the winners needed, indexed by the number of shots
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] shotsToWin;
+
+	/**
+	 * cellHits counts how many times a boat was hit on each cell, indexed by y * width + x
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] cellHits;
+
+	/**
+	 * SimulationStats is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param width is the number of columns of the simulated boards
+	 * @param height is the number of rows of the simulated boards
+	 *
+	 * */
+	public SimulationStats(int width, int height) {
+		this.width = width;
+		this.shotsToWin = new long[width * height + 1];
+		this.cellHits = new long[width * height];
+	}
+
+	/**
+	 * record adds a finished game
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param winnerShots is the number of shots fired by the winner
+	 * @param boards are the boards of both players after the game
+	 *
+	 * */
+	public void record(int winnerShots, final Board... boards) {
+		this.games++;
+		this.shotsToWin[winnerShots]++;
+		this.boards += boards.length;
+
+		for(final Board board : boards) {
+			for(int y = 0; y < board.getHeight(); y++) {
+				for(int x = 0; x < board.getWidth(); x++) {
+					if(board.isHit(x, y)) this.cellHits[y * this.width + x]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * merge adds the results of another instance to this one
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param other are the results to be added
+	 *
+	 * @return this instance
+	 *
+	 * */
+	public SimulationStats merge(final SimulationStats other) {
+		this.games += other.games;
+		this.boards += other.boards;
+
+		for(int i = 0; i < this.shotsToWin.length; i++) this.shotsToWin[i] += other.shotsToWin[i];
+		for(int i = 0; i < this.cellHits.length; i++) this.cellHits[i] += other.cellHits[i];
+
+		return this;
+	}
+
+	/**
+	 * getGames returns the number of finished games
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of games
+	 *
+	 * */
+	public long getGames() { return this.games; }
+
+	/**
+	 * getBoards returns the number of boards counted on the cell hits
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the number of boards
+	 *
+	 * */
+	public long getBoards() { return this.boards; }
+
+	/**
+	 * percentile returns the number of shots needed to win in the given fraction of the games
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param fraction is the fraction of the games, from 0 to 1
+	 *
+	 * @return the smallest number of shots which covers the fraction
+	 *
+	 * */
+	public int percentile(double fraction) {
+		final long wanted = (long) Math.ceil(this.games * fraction);
+		long seen = 0;
+
+		for(int shots = 0; shots < this.shotsToWin.length; shots++) {
+			seen += this.shotsToWin[shots];
+
+			if(seen >= wanted && seen > 0) return shots;
+		}
+
+		return this.shotsToWin.length - 1;
+	}
+
+	/**
+	 * meanShotsToWin returns the average number of shots the winners needed
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the average number of shots
+	 *
+	 * */
+	public double meanShotsToWin() {
+		long total = 0;
+
+		for(int shots = 0; shots < this.shotsToWin.length; shots++) total += shots * this.shotsToWin[shots];
+
+		return this.games == 0 ? 0 : (double) total / this.games;
+	}
+
+	/**
+	 * getShotsToWin returns the histogram of shots to win
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the histogram, indexed by the number of shots
+	 *
+	 * */
+	public long[] getShotsToWin() { return this.shotsToWin.clone(); }
+
+	/**
+	 * getCellHits returns how many times a boat was hit on each cell
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the hits, indexed by y * width + x
+	 *
+	 * */
+	public long[] getCellHits() { return this.cellHits.clone(); }
+}
@@ -0,0 +1,207 @@
+package battleship.tournament;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * EloRatings holds the rating and the record of each entrant of a tournament, the games are added one
+ * by one as they finish, from any thread, and every game moves the ratings of its two entrants at once
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public final class EloRatings {
+
+	/**
+	 * INITIAL_RATING is a constant which holds the rating every entrant starts with
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * */
+	public static final double INITIAL_RATING = 1500;
+
+	/**
+	 * names are the names of the entrants
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final String[] names;
+
+	/**
+	 * k is how many points a game moves the ratings at most
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final double k;
+
+	/**
+	 * ratings are the current ratings of the entrants
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final double[] ratings;
+
+	/**
+	 * games counts the games of each entrant
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] games;
+
+	/**
+	 * wins counts the games each entrant won
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] wins;
+
+	/**
+	 * draws counts the games of each entrant which ended without a winner
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long[] draws;
+
+	/**
+	 * total counts the games added
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long total;
+
+	/**
+	 * EloRatings is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param names are the names of the entrants
+	 * @param k is how many points a game moves the ratings at most
+	 *
+	 * */
+	public EloRatings(final String[] names, double k) {
+		this.names = names.clone();
+		this.k = k;
+		this.ratings = new double[names.length];
+		this.games = new long[names.length];
+		this.wins = new long[names.length];
+		this.draws = new long[names.length];
+
+		Arrays.fill(this.ratings, INITIAL_RATING);
+	}
+
+	/**
+	 * expected returns the score a rating is expected to make against another
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param rating is the rating of the entrant
+	 * @param opponent is the rating of the opponent
+	 *
+	 * @return the expected score, from 0 to 1
+	 *
+	 * */
+	public static double expected(double rating, double opponent) {
+		return 1 / (1 + Math.pow(10, (opponent - rating) / 400));
+	}
+
+	/**
+	 * record adds the games of a pairing in the order they were played, holding the lock once for all of them
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param a is the index of the first entrant
+	 * @param b is the index of the second entrant
+	 * @param scores are the scores of a, 2 for a win, 1 for a draw and 0 for a loss
+	 * @param count is how many scores are added
+	 *
+	 * */
+	public synchronized void record(int a, int b, final byte[] scores, int count) {
+		for(int i = 0; i < count; i++) {
+			final double score = scores[i] / 2.0;
+			final double delta = this.k * (score - expected(this.ratings[a], this.ratings[b]));
+
+			this.ratings[a] += delta;
+			this.ratings[b] -= delta;
+
+			this.games[a]++;
+			this.games[b]++;
+			this.total++;
+
+			if(scores[i] == 2) this.wins[a]++;
+			else if(scores[i] == 0) this.wins[b]++;
+			else {
+				this.draws[a]++;
+				this.draws[b]++;
+			}
+		}
+	}
+
+	/**
+	 * getRating returns the current rating of an entrant
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param entrant is the index of the entrant
+	 *
+	 * @return the rating
+	 *
+	 * */
+	public synchronized double getRating(int entrant) { return this.ratings[entrant]; }
+
+	/**
+	 * getGames returns how many games were added
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of games
+	 *
+	 * */
+	public synchronized long getGames() { return this.total; }
+
+	/**
+	 * appendStandings writes the entrants from the highest rating to the lowest, one per line
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param out is where the standings are appended
+	 *
+	 * */
+	public synchronized void appendStandings(final StringBuilder out) {
+		final Integer[] order = new Integer[this.names.length];
+
+		for(int i = 0; i < order.length; i++) order[i] = i;
+
+		Arrays.sort(order, Comparator.comparingDouble((Integer i) -> this.ratings[i]).reversed());
+
+		for(int rank = 0; rank < order.length; rank++) {
+			final int i = order[rank];
+
+			out.append(String.format("%4d. %-24s %7.1f  %d jogos, %d vitórias, %d empates, %d derrotas\n",
+					rank + 1, this.names[i], this.ratings[i], this.games[i], this.wins[i], this.draws[i],
+					this.games[i] - this.wins[i] - this.draws[i]));
+		}
+	}
+}
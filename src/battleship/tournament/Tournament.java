@@ -0,0 +1,536 @@
+package battleship.tournament;
+
+import battleship.Options;
+import battleship.core.BoatType;
+import battleship.core.GameConfig;
+import battleship.core.InvalidFleet;
+import battleship.core.Player;
+import battleship.engine.GameEngine;
+import battleship.engine.MoveSource;
+import battleship.engine.PlacementStrategy;
+import battleship.engine.ShooterMoves;
+import battleship.engine.Strategies;
+import battleship.engine.TargetingStrategy;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Tournament plays a round robin between bots, every entrant against every other for the same number of
+ * games, each of them starting half of the games. An entrant is a targeting strategy with a placement
+ * strategy, see Strategies.
+ *
+ * The games of each pairing are cut into chunks of GAMES_PER_CHUNK and the chunks of all the pairings are
+ * interleaved on one range which a fork/join pool splits across the cores, so a slow pairing is spread
+ * over the whole run instead of holding a core at its end. The ratings change as each chunk finishes and
+ * the standings are printed every given number of games. Every game draws from its own generator seeded
+ * by the run seed, the pairing and the game, so the result of each game does not depend on the threads,
+ * only the order the ratings see them does
+ *
+ * Run it with: java -cp out battleship.tournament.Tournament [--games N] [--seed S] [--threads T] [--k K]
+ * [--report N] [--targeting a,b] [--placement a,b] [--width W] [--height H] [--fleet L,B,M,S]
+ *
+ * @author Gustavo Reis Bauer
+ * @since 1.1
+ * @access public
+ *
+ * */
+public class Tournament {
+
+	/**
+	 * GAMES_PER_CHUNK is a constant which holds how many games of a pairing a task plays, an even number
+	 * so both entrants start the same number of games of a chunk
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int GAMES_PER_CHUNK = 8;
+
+	/**
+	 * STEPS_PER_CELL is a constant which holds how many shots per cell of the board a game may take, a
+	 * rejected shot keeps the turn, so the bot shooting when they run out is the one repeating itself and
+	 * it loses the game instead of stopping the tournament
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private static final int STEPS_PER_CELL = 4;
+
+	/**
+	 * config is the size of the boards and the fleet of every game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final GameConfig config;
+
+	/**
+	 * placements are the placement strategies of the entrants
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final PlacementStrategy[] placements;
+
+	/**
+	 * targetings are the targeting strategies of the entrants
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final TargetingStrategy[] targetings;
+
+	/**
+	 * pairs holds the two entrants of each pairing, two ints per pairing
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int[] pairs;
+
+	/**
+	 * gamesPerPair is how many games each pairing plays
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final int gamesPerPair;
+
+	/**
+	 * seed is the seed of the run
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long seed;
+
+	/**
+	 * ratings are the ratings of the entrants
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final EloRatings ratings;
+
+	/**
+	 * out is where the standings are printed
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final PrintStream out;
+
+	/**
+	 * reportEvery is how many games are played between two printed standings
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final long reportEvery;
+
+	/**
+	 * finished counts the games played so far
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final AtomicLong finished = new AtomicLong();
+
+	/**
+	 * failures counts the games lost because a bot threw, ran out of shots or could not place its fleet, the bot
+	 * who was shooting or placing loses them
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * reported is how many games the last printed standings had, guarded by the lock of the ratings
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private long reported;
+
+	/**
+	 * Tournament is the constructor of the class
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @throws IllegalArgumentException if there are less than two entrants or the arrays differ in size
+	 *
+	 * @param config is the size of the boards and the fleet of every game
+	 * @param names are the names of the entrants
+	 * @param placements are the placement strategies of the entrants
+	 * @param targetings are the targeting strategies of the entrants
+	 * @param gamesPerPair is how many games each pairing plays
+	 * @param seed is the seed of the run
+	 * @param k is how many points a game moves the ratings at most
+	 * @param out is where the standings are printed
+	 * @param reportEvery is how many games are played between two printed standings
+	 *
+	 * */
+	public Tournament(final GameConfig config, final String[] names, final PlacementStrategy[] placements,
+			final TargetingStrategy[] targetings, int gamesPerPair, long seed, double k, final PrintStream out, long reportEvery) {
+		if(names.length < 2) throw new IllegalArgumentException("O torneio precisa de pelo menos dois participantes");
+
+		if(placements.length != names.length || targetings.length != names.length) {
+			throw new IllegalArgumentException("Cada participante precisa de uma estratégia de posicionamento e uma de tiro");
+		}
+
+		this.config = config;
+		this.placements = placements.clone();
+		this.targetings = targetings.clone();
+		this.gamesPerPair = gamesPerPair;
+		this.seed = seed;
+		this.ratings = new EloRatings(names, k);
+		this.out = out;
+		this.reportEvery = Math.max(1, reportEvery);
+		this.pairs = new int[names.length * (names.length - 1)];
+
+		int p = 0;
+
+		for(int a = 0; a < names.length; a++) {
+			for(int b = a + 1; b < names.length; b++) {
+				this.pairs[p++] = a;
+				this.pairs[p++] = b;
+			}
+		}
+	}
+
+	/**
+	 * playGame plays one game of a pairing, the first entrant starts the even games and the second one
+	 * the odd games, a bot which throws, runs out of shots or can not place its fleet loses the game
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param a is the index of the first entrant
+	 * @param b is the index of the second entrant
+	 * @param random is the generator of the game
+	 * @param aStarts is true if the first entrant shoots first
+	 *
+	 * @return the score of a, 2 for a win and 0 for a loss
+	 *
+	 * */
+	private byte playGame(int a, int b, final SplittableRandom random, boolean aStarts) {
+		final BoatType[] fleet = this.config.getFleet();
+		final Player playerA = new Player("A", this.config.newBoard());
+		final Player playerB = new Player("B", this.config.newBoard());
+
+		try {
+			this.placements[a].place(playerA, fleet, random);
+
+		} catch (InvalidFleet | RuntimeException e) {
+			this.failures.incrementAndGet();
+
+			return 0;
+		}
+
+		try {
+			this.placements[b].place(playerB, fleet, random);
+
+		} catch (InvalidFleet | RuntimeException e) {
+			this.failures.incrementAndGet();
+
+			return 2;
+		}
+
+		final MoveSource sourceA = new ShooterMoves(this.targetings[a].newShooter(this.config, random));
+		final MoveSource sourceB = new ShooterMoves(this.targetings[b].newShooter(this.config, random));
+		final GameEngine engine = aStarts
+				? new GameEngine(playerA, sourceA, playerB, sourceB)
+				: new GameEngine(playerB, sourceB, playerA, sourceA);
+
+		final long steps = (long) STEPS_PER_CELL * this.config.getWidth() * this.config.getHeight();
+
+		try {
+			for(long step = 0; step < steps && !engine.isOver(); step++) engine.step();
+
+		} catch (RuntimeException e) {
+			this.failures.incrementAndGet();
+
+			return (byte) (engine.getShooter() == playerA ? 0 : 2);
+		}
+
+		if(!engine.isOver()) {
+			this.failures.incrementAndGet();
+
+			return (byte) (engine.getShooter() == playerA ? 0 : 2);
+		}
+
+		return (byte) (engine.getWinner() == playerA ? 2 : 0);
+	}
+
+	/**
+	 * playChunk plays a chunk of the games of a pairing and adds them to the ratings
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @param chunk is the index of the chunk on the range of the tournament
+	 * @param scores is where the scores of the chunk are kept until they are added
+	 *
+	 * */
+	private void playChunk(long chunk, final byte[] scores) {
+		final int pairCount = this.pairs.length / 2;
+		final int pair = (int) (chunk % pairCount);
+		final int from = (int) (chunk / pairCount) * GAMES_PER_CHUNK;
+		final int to = Math.min(from + GAMES_PER_CHUNK, this.gamesPerPair);
+		final int a = this.pairs[2 * pair];
+		final int b = this.pairs[2 * pair + 1];
+
+		for(int game = from; game < to; game++) {
+			final long id = (long) pair * this.gamesPerPair + game;
+			final SplittableRandom random = new SplittableRandom(this.seed ^ (id * 0x9E3779B97F4A7C15L));
+
+			scores[game - from] = this.playGame(a, b, random, (game & 1) == 0);
+		}
+
+		this.ratings.record(a, b, scores, to - from);
+
+		final long before = this.finished.getAndAdd(to - from);
+
+		if((before + to - from) / this.reportEvery != before / this.reportEvery) this.report();
+	}
+
+	/**
+	 * report prints the standings, holding the lock of the ratings so the games of the printed standings
+	 * only grow, standings without new games are not printed again
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private void report() {
+		final StringBuilder standings = new StringBuilder();
+
+		synchronized(this.ratings) {
+			final long games = this.ratings.getGames();
+
+			if(games == this.reported) return;
+
+			this.reported = games;
+
+			standings.append(String.format("\nJogos: %d de %d\n", games, this.getGameCount()));
+			this.ratings.appendStandings(standings);
+
+			this.out.print(standings);
+			this.out.flush();
+		}
+	}
+
+	/**
+	 * Chunks is the task which plays a range of chunks, splitting it while it holds more than one
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * */
+	private class Chunks extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * from is the first chunk of the range
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final long from;
+
+		/**
+		 * to is the chunk after the last one of the range
+		 *
+		 * @since 1.1
+		 * @access private
+		 *
+		 * */
+		private final long to;
+
+		/**
+		 * Chunks is the constructor of the task
+		 *
+		 * @since 1.1
+		 * @access default
+		 *
+		 * @param from is the first chunk of the range
+		 * @param to is the chunk after the last one of the range
+		 *
+		 * */
+		Chunks(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from == 1) {
+				playChunk(this.from, new byte[GAMES_PER_CHUNK]);
+				return;
+			}
+
+			final long middle = (this.from + this.to) >>> 1;
+			final Chunks right = new Chunks(middle, this.to);
+
+			right.fork();
+			new Chunks(this.from, middle).compute();
+			right.join();
+		}
+	}
+
+	/**
+	 * getGameCount returns how many games the tournament plays
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the games of every pairing
+	 *
+	 * */
+	public long getGameCount() { return (long) this.pairs.length / 2 * this.gamesPerPair; }
+
+	/**
+	 * getFailures returns how many games were lost because a bot threw
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @return the count of failed games
+	 *
+	 * */
+	public long getFailures() { return this.failures.get(); }
+
+	/**
+	 * run plays the whole tournament on the pool and prints the final standings
+	 *
+	 * @since 1.1
+	 * @access public
+	 *
+	 * @param pool is the pool where the games are played
+	 *
+	 * @return the ratings after the last game
+	 *
+	 * */
+	public EloRatings run(final ForkJoinPool pool) {
+		final long chunks = (long) this.pairs.length / 2 * ((this.gamesPerPair + GAMES_PER_CHUNK - 1) / GAMES_PER_CHUNK);
+
+		if(chunks > 0) pool.invoke(new Chunks(0, chunks));
+
+		this.report();
+
+		return this.ratings;
+	}
+
+	/**
+	 * select returns the strategies whose names are on a comma separated list, or all of them for an empty list
+	 *
+	 * @since 1.1
+	 * @access private
+	 *
+	 * @throws IllegalArgumentException if a name is not of any strategy found
+	 *
+	 * @param names is the list of names
+	 * @param all are the strategies found
+	 * @param name returns the name of a strategy
+	 *
+	 * @return the selected strategies
+	 *
+	 * */
+	private static <T> List<T> select(final String names, final List<T> all, final Function<T, String> name) {
+		if(names.isEmpty()) return all;
+
+		final List<T> selected = new ArrayList<>();
+
+		for(final String wanted : names.split(",")) {
+			final T strategy = all.stream().filter(s -> name.apply(s).equalsIgnoreCase(wanted.trim())).findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("Estratégia desconhecida: " + wanted.trim()));
+
+			selected.add(strategy);
+		}
+
+		return selected;
+	}
+
+	public static void main(String[] args) {
+		final GameConfig config;
+		final List<TargetingStrategy> targetingList;
+		final List<PlacementStrategy> placementList;
+		final int games;
+		final double k;
+
+		try {
+			config = Options.gameConfig(args);
+			targetingList = select(Options.get(args, "targeting", ""), Strategies.targetings(), TargetingStrategy::getName);
+			placementList = select(Options.get(args, "placement", ""), Strategies.placements(), PlacementStrategy::getName);
+			games = Options.getInt(args, "games", 100);
+			k = Double.parseDouble(Options.get(args, "k", "16"));
+
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		//Every targeting strategy with every placement strategy is an entrant
+		final int entrants = targetingList.size() * placementList.size();
+		final String[] names = new String[entrants];
+		final PlacementStrategy[] placements = new PlacementStrategy[entrants];
+		final TargetingStrategy[] targetings = new TargetingStrategy[entrants];
+
+		for(int t = 0; t < targetingList.size(); t++) {
+			for(int p = 0; p < placementList.size(); p++) {
+				final int i = t * placementList.size() + p;
+
+				names[i] = targetingList.get(t).getName() + "/" + placementList.get(p).getName();
+				targetings[i] = targetingList.get(t);
+				placements[i] = placementList.get(p);
+			}
+		}
+
+		final Tournament tournament;
+
+		try {
+			tournament = new Tournament(config, names, placements, targetings, games, Options.getLong(args, "seed", 42), k, System.out,
+					Options.getLong(args, "report", Math.max(1, (long) entrants * (entrants - 1) / 2 * games / 10)));
+
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage() + ": " + Arrays.toString(names));
+			System.exit(1);
+			return;
+		}
+
+		final ForkJoinPool pool = new ForkJoinPool(Options.getInt(args, "threads", Runtime.getRuntime().availableProcessors()));
+		final long start = System.nanoTime();
+
+		tournament.run(pool);
+		pool.shutdown();
+
+		final double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("\n%d jogos em %.2f s (%.0f jogos/s), %d perdidos por erro ou travamento de um bot\n",
+				tournament.getGameCount(), seconds, tournament.getGameCount() / seconds, tournament.getFailures());
+	}
+}